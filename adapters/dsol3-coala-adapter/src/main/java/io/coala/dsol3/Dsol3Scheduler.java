@@ -18,13 +18,18 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import io.coala.bind.InjectConfig;
 import io.coala.bind.LocalBinder;
+import io.coala.exception.Thrower;
 import io.coala.function.ThrowingConsumer;
 import io.coala.log.LogUtil;
 import io.coala.math.QuantityUtil;
+import io.coala.time.Checkpoint;
+import io.coala.time.EventListScheduler;
 import io.coala.time.Expectation;
 import io.coala.time.Instant;
+import io.coala.time.Pacer;
 import io.coala.time.Scheduler;
 import io.coala.time.SchedulerConfig;
+import io.coala.time.SchedulerStats;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.subjects.PublishSubject;
@@ -39,7 +44,9 @@ import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
 
 /**
  * {@link Dsol3Scheduler} wraps a {@link DEVSSimulator} in a {@link Scheduler}
- * using {@link BigDecimal} time precision and any {@link Unit} time units
+ * using {@link BigDecimal} time precision and any {@link Unit} time units,
+ * optionally {@link Pacer paced} to the wall-clock at some configured
+ * {@link SchedulerConfig#speed() speed}
  * 
  * @version $Id$
  * @author Rick van Krevelen
@@ -64,6 +71,12 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 	private ZonedDateTime offsetCache;
 	private Unit<?> baseUnitCache;
 
+	/** the wall-clock {@link Pacer}, or {@code null} if as fast as possible */
+	private Pacer pacer = null;
+
+	/** the metrics {@link SchedulerStats.Recorder}, or {@code null} */
+	private SchedulerStats.Recorder recorder = null;
+
 	@Inject
 	public Dsol3Scheduler( final LocalBinder binder )
 	{
@@ -106,15 +119,36 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 		return this.t.get();
 	}
 
+	/**
+	 * @return the wall-clock {@link Pacer} with its lag metrics, or
+	 *         {@code null} if running as fast as possible
+	 */
+	public Pacer pacer()
+	{
+		return this.pacer;
+	}
+
 	@Override
 	public Observable<Instant> time()
 	{
 		return this.time;//.distinctUntilChanged();
 	}
 
+	@Override
+	public Observable<SchedulerStats> stats()
+	{
+		if( this.recorder == null )
+			this.recorder = Objects
+					.requireNonNull( this.config, "not configured?" )
+					.statsRecorder();
+		return this.recorder == null ? Observable.empty()
+				: this.recorder.stats();
+	}
+
 	@Override
 	public void fail( final Throwable e )
 	{
+		if( this.recorder != null ) this.recorder.complete( now(), 0 );
 		this.time.onError( e );
 		if( this.sim != null )
 		{
@@ -147,7 +181,18 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 	{
 		this.t.updateAndGet( old ->
 		{
-			if( !t.equals( old ) ) this.time.onNext( t );
+			if( !t.equals( old ) )
+			{
+				final SchedulerStats.Recorder recorder = this.recorder;
+				if( recorder == null )
+					this.time.onNext( t );
+				else
+				{
+					final long t0 = System.nanoTime();
+					this.time.onNext( t );
+					recorder.emitted( t0 );
+				}
+			}
 			return t;
 		} );
 	}
@@ -157,6 +202,8 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 	{
 		if( this.sim == null ) try
 		{
+			if( this.recorder == null )
+				this.recorder = this.config.statsRecorder();
 			this.sim = new DEVSSimulator<>();
 			// reset the scheduler / time-line
 			this.sim.setPauseOnError( true );
@@ -179,14 +226,24 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 									this.sim.scheduleEventNow( () -> Thread
 											.currentThread().setName( name ) );
 									// publish time instants
-									sim.addListener(
-											e -> advanceTo(
-													((SimTimeQ) e.getContent())
-															.toInstant() ),
-											SimulatorInterface.TIME_CHANGED_EVENT );
+									sim.addListener( e ->
+									{
+										final SimTimeQ t = (SimTimeQ) e
+												.getContent();
+										// block worker until due, if paced
+										if( this.pacer != null ) this.pacer
+												.pace( t.get().decimalCache
+														.doubleValue() );
+										advanceTo( t.toInstant() );
+									}, SimulatorInterface.TIME_CHANGED_EVENT );
 									// complete time instants at replication end
 									sim.addListener( e ->
 									{
+										if( this.pacer != null ) LOG.info(
+												"Paced {}: {}", name,
+												this.pacer );
+										if( this.recorder != null )
+											this.recorder.complete( now(), 0 );
 										this.time.onComplete();
 										this.sim.cleanUp();
 									}, SimulatorInterface.END_OF_REPLICATION_EVENT );
@@ -198,6 +255,8 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 								}
 							} ),
 					ReplicationMode.TERMINATING );
+			this.pacer = this.config.pacer();
+			if( this.pacer != null ) this.pacer.start( 0 );
 		} catch( final Throwable e )
 		{
 			fail( e );
@@ -215,6 +274,65 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 	@Override
 	public Expectation schedule( final Instant when,
 		final ThrowingConsumer<Instant, ?> what )
+	{
+		final SimEventInterface<SimTimeQ> event = scheduleEvent( when, what );
+		if( event == null ) return null; // sim/model failed
+		final SchedulerStats.Recorder recorder = this.recorder;
+		return Expectation.of( this, now(), new Disposable()
+		{
+			private boolean cancelled = false;
+
+			@Override
+			public boolean isDisposed()
+			{
+				return this.cancelled;
+			}
+
+			@Override
+			public void dispose()
+			{
+				if( !this.cancelled && sim != null )
+				{
+					this.cancelled = sim.cancelEvent( event );
+					if( this.cancelled && recorder != null )
+						recorder.cancelled( 1 );
+				}
+			}
+		} );
+	}
+
+	/** schedules the {@link SimEventInterface} only, without cancellation */
+	@Override
+	public void post( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		scheduleEvent( when, what );
+	}
+
+	/**
+	 * the {@link DEVSSimulator} event list holds anonymous executables, so
+	 * its replications can't be checkpointed, see {@link EventListScheduler}
+	 * instead
+	 */
+	@Override
+	public Checkpoint checkpoint()
+	{
+		return Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Can't checkpoint DSOL3 replication: " + this.binderId
+						+ ", use " + EventListScheduler.class.getName() );
+	}
+
+	/** @see #checkpoint() */
+	@Override
+	public void restore( final Checkpoint checkpoint )
+	{
+		Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Can't restore DSOL3 replication: " + this.binderId
+						+ ", use " + EventListScheduler.class.getName() );
+	}
+
+	private SimEventInterface<SimTimeQ> scheduleEvent( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
 	{
 		if( this.sim == null ) return null; // sim/model failed
 		try
@@ -231,9 +349,12 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 				t = new SimTimeQ( new BaseTimeQ( when, timeUnit() ) );
 				priority = SimEventInterface.NORMAL_PRIORITY;
 			}
+			final SchedulerStats.Recorder recorder = this.recorder;
 			final SimEventInterface<SimTimeQ> event = this.sim
 					.scheduleEventAbs( t, priority, () ->
 					{
+						final long t0 = recorder == null ? 0
+								: System.nanoTime();
 						try
 						{
 							what.accept( when );
@@ -241,25 +362,13 @@ public class Dsol3Scheduler//<Q extends Quantity<Q>>
 						{
 							fail( e );
 						}
+						if( recorder != null && recorder.fired( what, t0 )
+								&& this.sim != null )
+							recorder.sample( now(),
+									this.sim.getEventList().size() );
 					} );
-
-			return Expectation.of( this, now(), new Disposable()
-			{
-				private boolean cancelled = false;
-
-				@Override
-				public boolean isDisposed()
-				{
-					return this.cancelled;
-				}
-
-				@Override
-				public void dispose()
-				{
-					if( !this.cancelled && sim != null )
-						this.cancelled = sim.cancelEvent( event );
-				}
-			} );
+			if( recorder != null ) recorder.scheduled( 1 );
+			return event;
 		} catch( final Exception e )
 		{
 			fail( e );
@@ -22,10 +22,14 @@ package io.coala.enterprise;
 import java.beans.PropertyChangeEvent;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
 
 import javax.inject.Inject;
@@ -46,11 +50,9 @@ import io.coala.json.Attributed;
 import io.coala.log.LogUtil;
 import io.coala.name.Id;
 import io.coala.name.Identified;
-import io.coala.time.Expectation;
 import io.coala.time.Instant;
 import io.coala.time.Proactive;
 import io.coala.time.Scheduler;
-import io.coala.time.Timing;
 import io.coala.util.Comparison;
 import io.coala.util.ReflectUtil;
 import io.coala.util.TypeArguments;
@@ -58,11 +60,11 @@ import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
 import io.reactivex.Observer;
 import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.subjects.PublishSubject;
-import io.reactivex.subjects.Subject;
 
 /**
  * {@link Actor} can handle multiple {@link Transaction} types or kinds
@@ -79,6 +81,22 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 	{
 	}
 
+	/**
+	 * schedules some behavior independent of other organizations' behavior
+	 * due at the same {@link Instant}, i.e. in the partition of this
+	 * {@link Actor}'s {@link ID#organizationRef() organization}, which the
+	 * {@link Scheduler} may execute in parallel
+	 * 
+	 * @param when the {@link Instant} of execution
+	 * @param what the {@link ThrowingConsumer} to call upon occurrence
+	 * @see Scheduler#post(Instant, Object, ThrowingConsumer)
+	 */
+	default void post( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		scheduler().post( when, id().organizationRef(), what );
+	}
+
 	@SuppressWarnings( "unchecked" )
 	default <A extends Actor<F>> A onRequest( final BiConsumer<A, F> rq )
 	{
@@ -123,7 +141,10 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 	{
 		@SuppressWarnings( "unchecked" )
 		final A self = (A) this;
-		emitFacts().filter( filter::match ).subscribe( rq ->
+		// indexed by kind, if any
+		final Observable<Fact> facts = filter.kind() == null ? emitFacts()
+				: emit( Fact.class, filter.kind() );
+		facts.filter( filter::match ).subscribe( rq ->
 		{
 			try
 			{
@@ -152,7 +173,7 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 	 */
 	default Observable<F> emit( final FactKind factKind )
 	{
-		return emit( specialism() ).filter( f -> f.kind().equals( factKind ) );
+		return emit( specialism(), factKind );
 	}
 
 	/**
@@ -163,8 +184,8 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 	default Observable<F> emit( final FactKind factKind,
 		final Actor.ID creatorRef )
 	{
-		return emit( specialism() ).filter( f -> f.kind().equals( factKind )
-				&& f.creatorRef().organizationRef()
+		return emit( specialism(), factKind )
+				.filter( f -> f.creatorRef().organizationRef()
 						.equals( creatorRef.organizationRef() ) );
 	}
 
@@ -210,9 +231,31 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 	{
 		Boolean match( Fact fact );
 
+		/**
+		 * @return the {@link FactKind} required by {@link #match(Fact)} if any,
+		 *         allowing handlers to be indexed, or {@code null}
+		 */
+		default FactKind kind()
+		{
+			return null;
+		}
+
 		static FactFilter of( final FactKind factKind )
 		{
-			return f -> f.kind().equals( factKind );
+			return new FactFilter()
+			{
+				@Override
+				public Boolean match( final Fact fact )
+				{
+					return fact.kind().equals( factKind );
+				}
+
+				@Override
+				public FactKind kind()
+				{
+					return factKind;
+				}
+			};
 		}
 	}
 
@@ -374,29 +417,6 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 		return binder().inject( Factory.class );
 	}
 
-	default Observable<Instant> atEach( final Timing when )
-	{
-		try
-		{
-			return atEach( when.iterate( scheduler() ) );
-		} catch( final ParseException e )
-		{
-			return Observable.error( e );
-		}
-	}
-
-	default Observable<Expectation> atEach( final Timing when,
-		final ThrowingConsumer<Instant, ?> what )
-	{
-		try
-		{
-			return atEach( when.iterate( scheduler() ), what );
-		} catch( final ParseException e )
-		{
-			return Observable.error( e );
-		}
-	}
-
 	Actor<Fact> root();
 
 	/**
@@ -493,6 +513,19 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 				return parent.emitFacts();
 			}
 
+			@Override
+			public <T extends Fact> Observable<T> emit( final Class<T> kind )
+			{
+				return parent.emit( kind );
+			}
+
+			@Override
+			public <T extends Fact> Observable<T> emit( final Class<T> kind,
+				final FactKind factKind )
+			{
+				return parent.emit( kind, factKind );
+			}
+
 			@Override
 			public void onSubscribe( final Disposable d )
 			{
@@ -696,11 +729,7 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 			return result;
 		}
 
-		private transient final Map<Transaction.ID, Transaction<?>> txs = new ConcurrentHashMap<>();
-
-		private transient final Subject<Fact> facts = PublishSubject.create();
-
-		private transient final Map<Class<?>, Observable<?>> typeemit = new ConcurrentHashMap<>();
+		private transient final Dispatcher facts = new Dispatcher();
 
 		private transient final Map<Class<?>, Actor<?>> specialists = new ConcurrentHashMap<>();
 
@@ -741,21 +770,17 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 		}
 
 		@Override
-		@SuppressWarnings( "unchecked" )
 		public <T extends Fact> Transaction<T> transact(
 			final Class<T> tranKind, final Actor.ID initiatorRef,
 			final Actor.ID executorRef )
 		{
-			return (Transaction<T>) this.txs
-					.computeIfAbsent( Transaction.ID.create( id() ), tid ->
-					{
-						final Transaction<T> tx = this.txFactory.create( tid,
-								tranKind, initiatorRef, executorRef );
-						// tx -> actor (committed facts)
-						tx.commits().subscribe( root()::onNext, root()::onError,
-								() -> this.txs.remove( tid ) );
-						return tx;
-					} );
+			// registered by the (bounded) factory, not retained here
+			final Transaction<T> tx = this.txFactory.create(
+					Transaction.ID.create( id() ), tranKind, initiatorRef,
+					executorRef );
+			// tx -> actor (committed facts)
+			tx.commits().subscribe( root()::onNext, root()::onError );
+			return tx;
 		}
 
 		@SuppressWarnings( "unchecked" )
@@ -789,23 +814,26 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 		@Override
 		public Observable<Fact> emitFacts()
 		{
-			return this.facts;
+			return this.facts.emit( null, null );
 		}
 
-		@SuppressWarnings( "unchecked" )
 		@Override
 		public <F extends Fact> Observable<F> emit( final Class<F> tranKind )
 		{
-			return (Observable<F>) this.typeemit.computeIfAbsent( tranKind,
-					key -> emitFacts()
-							.filter( f -> key.isAssignableFrom( f.type() ) )
-							.map( tranKind::cast ) );
+			return this.facts.emit( tranKind, null ).map( tranKind::cast );
+		}
+
+		@Override
+		public <F extends Fact> Observable<F> emit( final Class<F> tranKind,
+			final FactKind factKind )
+		{
+			return this.facts.emit( tranKind, factKind ).map( tranKind::cast );
 		}
 
 		@Override
 		public void onSubscribe( final Disposable d )
 		{
-			this.facts.onSubscribe( d );
+			if( this.facts.isTerminated() ) d.dispose();
 		}
 
 		@Override
@@ -860,6 +888,181 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 			factExchange.register( this, direction );
 			return this;
 		}
+
+		/**
+		 * {@link Dispatcher} indexes the subscribers of incoming {@link Fact}s
+		 * by transaction kind and {@link FactKind}, so that each fact is
+		 * offered only to those matching its {@link Fact#type()} and
+		 * {@link Fact#kind()}, rather than to a filter per subscriber. As with
+		 * a {@link PublishSubject}, subscribers receive each fact in order of
+		 * subscription
+		 */
+		static class Dispatcher
+		{
+			private static final FactKind[] KINDS = FactKind.values();
+
+			private static final Handler[] NONE = {};
+
+			/** subscribers per transaction kind, of any {@link FactKind} */
+			private final Map<Class<?>, List<Handler>> any = new HashMap<>();
+
+			/** subscribers per transaction kind and {@link FactKind} */
+			private final Map<Class<?>, Map<FactKind, List<Handler>>> table = new HashMap<>();
+
+			/**
+			 * matching subscribers per fact type and {@link FactKind}, each
+			 * row collected under lock and published atomically, e.g. to
+			 * parallel partitions
+			 */
+			private final Map<Class<?>, AtomicReferenceArray<Handler[]>> resolved = new ConcurrentHashMap<>();
+
+			private long seq = 0;
+
+			private boolean completed = false;
+
+			private Throwable error = null;
+
+			/**
+			 * @param tranKind the transaction kind to match, or {@code null}
+			 *            for any
+			 * @param factKind the {@link FactKind} to match, or {@code null}
+			 *            for any
+			 * @return an {@link Observable} of matching {@link Fact}s
+			 */
+			Observable<Fact> emit( final Class<?> tranKind,
+				final FactKind factKind )
+			{
+				return Observable.create( emitter -> subscribe(
+						tranKind == null ? Fact.class : tranKind, factKind,
+						emitter ) );
+			}
+
+			private synchronized void subscribe( final Class<?> tranKind,
+				final FactKind factKind, final ObservableEmitter<Fact> emitter )
+			{
+				if( this.error != null )
+				{
+					emitter.onError( this.error );
+					return;
+				}
+				if( this.completed )
+				{
+					emitter.onComplete();
+					return;
+				}
+				final List<Handler> handlers = factKind == null
+						? this.any.computeIfAbsent( tranKind,
+								key -> new ArrayList<>() )
+						: this.table
+								.computeIfAbsent( tranKind,
+										key -> new EnumMap<>( FactKind.class ) )
+								.computeIfAbsent( factKind,
+										key -> new ArrayList<>() );
+				final Handler handler = new Handler( this.seq++, emitter );
+				handlers.add( handler );
+				this.resolved.clear();
+				emitter.setCancellable( () -> unsubscribe( handlers, handler ) );
+			}
+
+			private synchronized void unsubscribe( final List<Handler> handlers,
+				final Handler handler )
+			{
+				if( handlers.remove( handler ) ) this.resolved.clear();
+			}
+
+			void onNext( final Fact fact )
+			{
+				for( Handler handler : resolve( fact.type(), fact.kind() ) )
+					if( !handler.emitter.isDisposed() )
+						handler.emitter.onNext( fact );
+			}
+
+			private Handler[] resolve( final Class<?> type,
+				final FactKind kind )
+			{
+				final AtomicReferenceArray<Handler[]> byKind = this.resolved
+						.computeIfAbsent( type,
+								key -> new AtomicReferenceArray<>(
+										KINDS.length ) );
+				Handler[] result = byKind.get( kind.ordinal() );
+				if( result == null )
+				{
+					result = collect( type, kind );
+					byKind.set( kind.ordinal(), result );
+				}
+				return result;
+			}
+
+			private synchronized Handler[] collect( final Class<?> type,
+				final FactKind kind )
+			{
+				final List<Handler> result = new ArrayList<>();
+				this.any.forEach( ( tranKind, handlers ) ->
+				{
+					if( tranKind.isAssignableFrom( type ) )
+						result.addAll( handlers );
+				} );
+				this.table.forEach( ( tranKind, kinds ) ->
+				{
+					final List<Handler> handlers = kinds.get( kind );
+					if( handlers != null && tranKind.isAssignableFrom( type ) )
+						result.addAll( handlers );
+				} );
+				if( result.isEmpty() ) return NONE;
+				result.sort( ( h1, h2 ) -> Long.compare( h1.seq, h2.seq ) );
+				return result.toArray( new Handler[result.size()] );
+			}
+
+			void onComplete()
+			{
+				for( Handler handler : terminate( null ) )
+					handler.emitter.onComplete();
+			}
+
+			void onError( final Throwable e )
+			{
+				for( Handler handler : terminate( e ) )
+					handler.emitter.onError( e );
+			}
+
+			/** @return {@code true} iff completed or failed */
+			synchronized boolean isTerminated()
+			{
+				return this.completed || this.error != null;
+			}
+
+			private synchronized List<Handler> terminate( final Throwable e )
+			{
+				if( this.completed || this.error != null )
+					return new ArrayList<>();
+				if( e == null )
+					this.completed = true;
+				else
+					this.error = e;
+				final List<Handler> result = new ArrayList<>();
+				this.any.values().forEach( result::addAll );
+				this.table.values().forEach(
+						kinds -> kinds.values().forEach( result::addAll ) );
+				this.any.clear();
+				this.table.clear();
+				this.resolved.clear();
+				result.sort( ( h1, h2 ) -> Long.compare( h1.seq, h2.seq ) );
+				return result;
+			}
+
+			private static class Handler
+			{
+				final long seq;
+
+				final ObservableEmitter<Fact> emitter;
+
+				Handler( final long seq, final ObservableEmitter<Fact> emitter )
+				{
+					this.seq = seq;
+					this.emitter = emitter;
+				}
+			}
+		}
 	}
 
 	/**
@@ -893,6 +1096,25 @@ public interface Actor<F extends Fact> extends Identified.Ordinal<Actor.ID>,
 			@Inject
 			private transient FactExchange factExchange;
 
+			@Inject
+			public LocalCaching()
+			{
+				// injected fields
+			}
+
+			/**
+			 * @param binder the {@link LocalBinder} injecting new {@link Actor}s
+			 * @param factExchange the {@link FactExchange} to register them
+			 *            with, e.g. some {@link FactExchange.Partitioned}
+			 *            exchange shared among partitions
+			 */
+			public LocalCaching( final LocalBinder binder,
+				final FactExchange factExchange )
+			{
+				this.binder = Objects.requireNonNull( binder );
+				this.factExchange = Objects.requireNonNull( factExchange );
+			}
+
 			@Override
 			public Actor.Simple create( final ID id )
 			{
@@ -171,9 +171,8 @@ public interface Fact extends Identified.Ordinal<Fact.ID>, Persistable<FactDao>,
 	@JsonIgnore
 	default boolean isIncoming( final Actor.ID id )
 	{
-		return (Boolean) properties().computeIfAbsent(
-				"_incoming" + id.unwrap(), key -> id.organizationRef()
-						.equals( responderRef().organizationRef() ) );
+		return id.organizationRef()
+				.equals( responderRef().organizationRef() );
 	}
 
 	@JsonIgnore
@@ -518,6 +517,7 @@ public interface Fact extends Identified.Ordinal<Fact.ID>, Persistable<FactDao>,
 		}
 
 		private transient Fact proxy = null;
+		private transient Actor.ID responderOrgRef = null;
 		private Fact.ID id;
 		private Instant occurrence;
 		private Transaction<?> transaction;
@@ -600,6 +600,14 @@ public interface Fact extends Identified.Ordinal<Fact.ID>, Persistable<FactDao>,
 			return this.causeRef;
 		}
 
+		@Override
+		public boolean isIncoming( final Actor.ID id )
+		{
+			if( this.responderOrgRef == null )
+				this.responderOrgRef = responderRef().organizationRef();
+			return id.organizationRef().equals( this.responderOrgRef );
+		}
+
 		@SuppressWarnings( "unchecked" )
 		@Override
 		public <F extends Fact> F self()
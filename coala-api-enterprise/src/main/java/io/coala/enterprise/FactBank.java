@@ -20,8 +20,19 @@
 package io.coala.enterprise;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -30,14 +41,21 @@ import javax.inject.Singleton;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 
+import org.apache.logging.log4j.Logger;
+
+import io.coala.bind.InjectConfig;
 import io.coala.bind.LocalBinder;
+import io.coala.bind.persist.LocalIdCache;
+import io.coala.config.GlobalConfig;
 import io.coala.enterprise.Fact.ID;
 import io.coala.enterprise.persist.FactDao;
-import io.coala.math.QuantityUtil;
+import io.coala.exception.Thrower;
+import io.coala.log.LogUtil;
 import io.coala.math.Range;
 import io.coala.persist.JPAUtil;
 import io.coala.time.Instant;
 import io.coala.time.Scheduler;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 /**
@@ -46,6 +64,7 @@ import io.reactivex.Observable;
  * <ul>
  * Reference implementations:
  * <li>{@link SimpleCache}
+ * <li>{@link SimpleIndexed} maintaining secondary indexes
  * <li>{@link SimpleJPA} using the {@link FactDao}
  * <a href="https://www.wikiwand.com/en/Data_access_object">data access
  * object</a>
@@ -177,6 +196,9 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 	F find( Fact.ID id );
 
 	/**
+	 * Note that {@link Fact}s without {@link Fact#expire() expiration} never
+	 * match some {@code expirationFilter}, as with SQL {@code NULL} values
+	 * 
 	 * @return an asynchronous {@link Observable} stream of matching
 	 *         {@link Fact}s, re-created for each subscription
 	 */
@@ -459,11 +481,27 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 		{
 			return facts.map( fact ->
 			{
-				this.cache.put( fact.id(), fact );
+				cache( fact );
 				return fact;
 			} );
 		}
 
+		/**
+		 * @param fact the {@link Fact} to cache
+		 * @return the previously cached {@link Fact} with the same id, or
+		 *         {@code null}
+		 */
+		protected Fact cache( final Fact fact )
+		{
+			return this.cache.put( fact.id(), fact );
+		}
+
+		/** @return the number of cached {@link Fact}s */
+		protected int size()
+		{
+			return this.cache.size();
+		}
+
 		@Override
 		public Fact find( final ID id )
 		{
@@ -479,8 +517,26 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 			final Range<Instant> expirationFilter,
 			final Map<String, Object> propertiesFilter )
 		{
-			Observable<Fact> result = Observable
-					.fromIterable( this.cache.values() );
+			return filter( Observable.fromIterable( this.cache.values() ),
+					typeFilter, initiatorFilter, executorFilter, kindFilter,
+					causeFilter, creatorFilter, responderFilter, occurrenceFilter,
+					expirationFilter, propertiesFilter );
+		}
+
+		/**
+		 * @param facts the (candidate) {@link Fact}s to filter
+		 * @return the {@link Observable} stream of matching {@link Fact}s
+		 */
+		protected Observable<Fact> filter( final Observable<Fact> facts,
+			final Class<?> typeFilter, final Actor.ID initiatorFilter,
+			final Actor.ID executorFilter, final FactKind kindFilter,
+			final Fact.ID causeFilter, final Actor.ID creatorFilter,
+			final Actor.ID responderFilter,
+			final Range<Instant> occurrenceFilter,
+			final Range<Instant> expirationFilter,
+			final Map<String, Object> propertiesFilter )
+		{
+			Observable<Fact> result = facts;
 
 			if( typeFilter != null ) result = result
 					.filter( f -> typeFilter.equals( f.transaction().kind() ) );
@@ -502,7 +558,8 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 			if( occurrenceFilter != null ) result = result
 					.filter( f -> occurrenceFilter.contains( f.occur() ) );
 			if( expirationFilter != null ) result = result
-					.filter( f -> expirationFilter.contains( f.expire() ) );
+					.filter( f -> f.expire() != null
+							&& expirationFilter.contains( f.expire() ) );
 			if( propertiesFilter != null ) result = result.filter( f ->
 			{
 				for( Map.Entry<?, ?> entry : propertiesFilter.entrySet() )
@@ -526,6 +583,416 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 		}
 	}
 
+	/**
+	 * {@link SimpleIndexed} is a {@link SimpleCache} that maintains (hash)
+	 * indexes on transaction type, actor refs, kind and cause, and (sorted)
+	 * indexes on occurrence and expiration instants, all updated incrementally
+	 * upon {@link #saveAsync(Observable)}. Each query scans only the candidates
+	 * of its most selective index, rather than all cached {@link Fact}s
+	 */
+	@Singleton
+	public class SimpleIndexed extends SimpleCache
+	{
+		private final Map<Class<?>, NavigableSet<ID>> types = new HashMap<>();
+
+		private final Map<Actor.ID, NavigableSet<ID>> initiators = new HashMap<>();
+
+		private final Map<Actor.ID, NavigableSet<ID>> executors = new HashMap<>();
+
+		private final Map<FactKind, NavigableSet<ID>> kinds = new HashMap<>();
+
+		private final Map<Fact.ID, NavigableSet<ID>> causes = new HashMap<>();
+
+		private final Map<Actor.ID, NavigableSet<ID>> creators = new HashMap<>();
+
+		private final Map<Actor.ID, NavigableSet<ID>> responders = new HashMap<>();
+
+		private final NavigableMap<Instant, NavigableSet<ID>> occurrences = new TreeMap<>();
+
+		private final NavigableMap<Instant, NavigableSet<ID>> expirations = new TreeMap<>();
+
+		@Override
+		protected Fact cache( final Fact fact )
+		{
+			final Fact previous = super.cache( fact );
+			if( previous != null ) index( previous, false );
+			index( fact, true );
+			return previous;
+		}
+
+		private void index( final Fact fact, final boolean add )
+		{
+			final ID id = fact.id();
+			index( this.types, fact.transaction().kind(), id, add );
+			index( this.initiators, fact.transaction().initiatorRef(), id, add );
+			index( this.executors, fact.transaction().executorRef(), id, add );
+			index( this.kinds, fact.kind(), id, add );
+			index( this.causes, fact.causeRef(), id, add );
+			// terminal kinds (no responder) have no creator role either
+			if( fact.kind().responderRoleKind() != null )
+				index( this.creators, fact.creatorRef(), id, add );
+			index( this.responders, fact.responderRef(), id, add );
+			index( this.occurrences, fact.occur(), id, add );
+			index( this.expirations, fact.expire(), id, add );
+		}
+
+		private static <K> void index( final Map<K, NavigableSet<ID>> index,
+			final K key, final ID id, final boolean add )
+		{
+			if( key == null ) return;
+			if( add )
+				index.computeIfAbsent( key, k -> new TreeSet<>() ).add( id );
+			else
+			{
+				final NavigableSet<ID> ids = index.get( key );
+				if( ids != null && ids.remove( id ) && ids.isEmpty() )
+					index.remove( key );
+			}
+		}
+
+		@Override
+		public Observable<Fact> find( final Class<?> typeFilter,
+			final Actor.ID initiatorFilter, final Actor.ID executorFilter,
+			final FactKind kindFilter, final Fact.ID causeFilter,
+			final Actor.ID creatorFilter, final Actor.ID responderFilter,
+			final Range<Instant> occurrenceFilter,
+			final Range<Instant> expirationFilter,
+			final Map<String, Object> propertiesFilter )
+		{
+			return Observable.defer( () ->
+			{
+				// select the smallest candidate set, null meaning all facts
+				NavigableSet<ID> ids = null;
+				ids = select( ids, this.types, typeFilter );
+				ids = select( ids, this.initiators, initiatorFilter );
+				ids = select( ids, this.executors, executorFilter );
+				ids = select( ids, this.kinds, kindFilter );
+				ids = select( ids, this.causes, causeFilter );
+				ids = select( ids, this.creators, creatorFilter );
+				ids = select( ids, this.responders, responderFilter );
+				ids = select( ids, this.occurrences, occurrenceFilter );
+				ids = select( ids, this.expirations, expirationFilter );
+				if( ids == null ) return super.find( typeFilter,
+						initiatorFilter, executorFilter, kindFilter,
+						causeFilter, creatorFilter, responderFilter,
+						occurrenceFilter, expirationFilter, propertiesFilter );
+
+				// copy the (live) index, then re-apply all filters
+				return filter(
+						Observable.fromIterable( new ArrayList<>( ids ) )
+								.map( this::find ),
+						typeFilter, initiatorFilter, executorFilter,
+						kindFilter, causeFilter, creatorFilter,
+						responderFilter, occurrenceFilter, expirationFilter,
+						propertiesFilter );
+			} );
+		}
+
+		private static <K> NavigableSet<ID> select(
+			final NavigableSet<ID> candidates,
+			final Map<K, NavigableSet<ID>> index, final K filter )
+		{
+			if( filter == null ) return candidates;
+			final NavigableSet<ID> ids = index.get( filter );
+			if( ids == null ) return Collections.emptyNavigableSet();
+			return candidates == null || ids.size() < candidates.size() ? ids
+					: candidates;
+		}
+
+		private NavigableSet<ID> select( final NavigableSet<ID> candidates,
+			final NavigableMap<Instant, NavigableSet<ID>> index,
+			final Range<Instant> filter )
+		{
+			if( filter == null ) return candidates;
+			// stop merging buckets once no more selective than the candidates
+			final int limit = candidates == null ? size() : candidates.size();
+			final NavigableSet<ID> result = new TreeSet<>();
+			for( NavigableSet<ID> ids : subMap( index, filter ).values() )
+			{
+				result.addAll( ids );
+				if( result.size() >= limit ) return candidates;
+			}
+			return result;
+		}
+
+		private static <V> NavigableMap<Instant, V> subMap(
+			final NavigableMap<Instant, V> map, final Range<Instant> range )
+		{
+			if( range.lowerFinite() && range.upperFinite() )
+			{
+				final int c = range.lowerValue().compareTo( range.upperValue() );
+				if( c > 0 || (c == 0
+						&& !(range.lowerInclusive() && range.upperInclusive())) )
+					return Collections.emptyNavigableMap();
+			}
+			NavigableMap<Instant, V> result = map;
+			if( range.lowerFinite() ) result = result
+					.tailMap( range.lowerValue(), range.lowerInclusive() );
+			if( range.upperFinite() ) result = result
+					.headMap( range.upperValue(), range.upperInclusive() );
+			return result;
+		}
+
+		@Override
+		public void close() throws Exception
+		{
+			super.close();
+			this.types.clear();
+			this.initiators.clear();
+			this.executors.clear();
+			this.kinds.clear();
+			this.causes.clear();
+			this.creators.clear();
+			this.responders.clear();
+			this.occurrences.clear();
+			this.expirations.clear();
+		}
+	}
+
+	/**
+	 * {@link Config} for {@link FactBank} implementations
+	 */
+	interface Config extends GlobalConfig
+	{
+		String WRITE_BEHIND_CAPACITY_KEY = "factbank.write-behind.capacity";
+
+		String WRITE_BEHIND_BATCH_SIZE_KEY = "factbank.write-behind.batch-size";
+
+		/**
+		 * @return the capacity of the {@link WriteBehind} queue, or 0 to
+		 *         persist synchronously
+		 */
+		@Key( WRITE_BEHIND_CAPACITY_KEY )
+		@DefaultValue( "0" )
+		int writeBehindCapacity();
+
+		/**
+		 * @return the maximum number of facts persisted per transaction, best
+		 *         matching the JDBC batch size (e.g. Hibernate's
+		 *         {@code hibernate.jdbc.batch_size})
+		 */
+		@Key( WRITE_BEHIND_BATCH_SIZE_KEY )
+		@DefaultValue( "100" )
+		int writeBehindBatchSize();
+
+		/**
+		 * @return additional settings for creating the
+		 *         {@link EntityManagerFactory}, i.e. Hibernate's JDBC batching
+		 *         and insert ordering if write-behind is enabled, or none
+		 */
+		default Map<String, Object> writeBehindJPASettings()
+		{
+			if( writeBehindCapacity() < 1 ) return Collections.emptyMap();
+			final Map<String, Object> result = new HashMap<>();
+			result.put( "hibernate.jdbc.batch_size",
+					String.valueOf( writeBehindBatchSize() ) );
+			result.put( "hibernate.order_inserts", String.valueOf( true ) );
+			return result;
+		}
+	}
+
+	/**
+	 * {@link WriteBehind} enqueues {@link Fact}s into a bounded (ring) buffer,
+	 * drained by a background writer that persists them in batches, one
+	 * transaction per batch. Producers block while the buffer is full (i.e.
+	 * back-pressure), and {@link #close()} returns only after all enqueued
+	 * facts were persisted
+	 */
+	class WriteBehind implements AutoCloseable
+	{
+		/** */
+		private static final Logger LOG = LogUtil.getLogger( WriteBehind.class );
+
+		private final EntityManagerFactory emf;
+
+		private final BlockingQueue<Fact> queue;
+
+		private final int batchSize;
+
+		private final Thread writer;
+
+		private volatile boolean closed = false;
+
+		private volatile Throwable error = null;
+
+		private long enqueued = 0;
+
+		private int maxDepth = 0;
+
+		private volatile long written = 0;
+
+		private volatile long batches = 0;
+
+		private volatile long batchNanos = 0;
+
+		private volatile long maxBatchNanos = 0;
+
+		/**
+		 * @param emf the {@link EntityManagerFactory} to persist with
+		 * @param capacity the buffer capacity
+		 * @param batchSize the maximum number of facts per transaction
+		 */
+		public WriteBehind( final EntityManagerFactory emf, final int capacity,
+			final int batchSize )
+		{
+			if( capacity < 1 || batchSize < 1 )
+				Thrower.throwNew( IllegalArgumentException::new,
+						() -> "Capacity and batch size must be positive, was: "
+								+ capacity + ", " + batchSize );
+			this.emf = emf;
+			this.queue = new ArrayBlockingQueue<>( capacity );
+			this.batchSize = batchSize;
+			this.writer = new Thread( this::drain, getClass().getSimpleName() );
+			this.writer.setDaemon( true );
+			this.writer.start();
+		}
+
+		/**
+		 * enqueues a {@link Fact}, blocking while the buffer is full
+		 * 
+		 * @param fact the {@link Fact} to persist
+		 * @throws InterruptedException if interrupted while blocking
+		 */
+		public void put( final Fact fact ) throws InterruptedException
+		{
+			do
+				check();
+			while( !this.queue.offer( fact, 1, TimeUnit.SECONDS ) );
+			synchronized( this )
+			{
+				this.enqueued++;
+				this.maxDepth = Math.max( this.maxDepth, this.queue.size() );
+			}
+		}
+
+		/**
+		 * blocks until all {@link Fact}s enqueued so far were persisted
+		 * 
+		 * @throws InterruptedException if interrupted while blocking
+		 */
+		public synchronized void flush() throws InterruptedException
+		{
+			while( this.written < this.enqueued && this.writer.isAlive() )
+				wait( 100 );
+			check();
+		}
+
+		private void check()
+		{
+			if( this.error != null ) Thrower.rethrowUnchecked( this.error );
+			if( this.closed ) Thrower.throwNew( IllegalStateException::new,
+					() -> "Write-behind closed" );
+		}
+
+		private void drain()
+		{
+			final List<Fact> batch = new ArrayList<>( this.batchSize );
+			while( !this.closed || !this.queue.isEmpty() )
+				try
+				{
+					final Fact first = this.queue.poll( 100,
+							TimeUnit.MILLISECONDS );
+					if( first == null ) continue;
+					batch.add( first );
+					this.queue.drainTo( batch, this.batchSize - 1 );
+					persist( batch );
+					batch.clear();
+				} catch( final Throwable e )
+				{
+					LOG.error( "Write-behind failed, dropping "
+							+ (batch.size() + this.queue.size()) + " facts",
+							e );
+					this.error = e;
+					this.queue.clear();
+					break;
+				}
+			synchronized( this )
+			{
+				notifyAll();
+			}
+		}
+
+		private void persist( final List<Fact> batch )
+		{
+			final long start = System.nanoTime();
+			JPAUtil.session( this.emf, em ->
+			{
+				for( Fact fact : batch )
+					if( !FactDao.exists( em, fact.id() ) )
+						em.persist( FactDao.create( em, fact ) );
+			} );
+			final long nanos = System.nanoTime() - start;
+			synchronized( this )
+			{
+				this.written += batch.size();
+				this.batches++;
+				this.batchNanos += nanos;
+				this.maxBatchNanos = Math.max( this.maxBatchNanos, nanos );
+				notifyAll();
+			}
+		}
+
+		/** @return the current number of enqueued facts */
+		public int depth()
+		{
+			return this.queue.size();
+		}
+
+		/** @return the maximum number of enqueued facts so far */
+		public synchronized int maxDepth()
+		{
+			return this.maxDepth;
+		}
+
+		/** @return the number of facts persisted so far */
+		public long written()
+		{
+			return this.written;
+		}
+
+		/** @return the number of batches (transactions) so far */
+		public long batches()
+		{
+			return this.batches;
+		}
+
+		/** @return the mean batch latency, in nanoseconds */
+		public synchronized double meanBatchNanos()
+		{
+			return this.batches == 0 ? 0
+					: (double) this.batchNanos / this.batches;
+		}
+
+		/** @return the maximum batch latency, in nanoseconds */
+		public long maxBatchNanos()
+		{
+			return this.maxBatchNanos;
+		}
+
+		/**
+		 * stops accepting {@link Fact}s and blocks until all enqueued facts
+		 * were persisted
+		 */
+		@Override
+		public void close() throws InterruptedException
+		{
+			this.closed = true;
+			this.writer.join();
+			if( this.error != null ) Thrower.rethrowUnchecked( this.error );
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format(
+					"%s[depth %d (max %d)|%d facts in %d batches"
+							+ ", mean %.3fms, max %.3fms]",
+					getClass().getSimpleName(), depth(), maxDepth(),
+					this.written, this.batches, meanBatchNanos() / 1e6,
+					this.maxBatchNanos / 1e6 );
+		}
+	}
+
 	/**
 	 * {@link SimpleJPA}
 	 */
@@ -545,22 +1012,90 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 		@Inject
 		private EntityManagerFactory emf;
 
+		@InjectConfig
+		private FactBank.Config config;
+
+		private WriteBehind writeBehind = null;
+
+		@Inject
+		public SimpleJPA()
+		{
+			// zero-arg bean constructor
+		}
+
+		/**
+		 * @param binder the {@link LocalBinder} for restoring {@link Fact}s
+		 * @param scheduler the {@link Scheduler} providing the time unit
+		 * @param emf the {@link EntityManagerFactory}, e.g. created with
+		 *            {@link Config#writeBehindJPASettings()}
+		 * @param config the {@link Config}, or {@code null} for defaults
+		 */
+		public SimpleJPA( final LocalBinder binder, final Scheduler scheduler,
+			final EntityManagerFactory emf, final Config config )
+		{
+			this.binder = Objects.requireNonNull( binder );
+			this.scheduler = Objects.requireNonNull( scheduler );
+			this.emf = Objects.requireNonNull( emf );
+			this.config = config;
+		}
+
 		@Override
 		public FactBank<Fact> root()
 		{
 			return this;
 		}
 
+		/**
+		 * @return the {@link WriteBehind} if so {@link FactBank.Config
+		 *         configured}, or {@code null} to persist synchronously
+		 */
+		public synchronized WriteBehind writeBehind()
+		{
+			if( this.writeBehind == null && this.config != null
+					&& this.config.writeBehindCapacity() > 0 )
+				this.writeBehind = new WriteBehind( this.emf,
+						this.config.writeBehindCapacity(),
+						this.config.writeBehindBatchSize() );
+			return this.writeBehind;
+		}
+
+		/**
+		 * pre-registers (persisted) ids, e.g. of all actors upon startup, so
+		 * that persisting their facts requires no further id lookups
+		 * 
+		 * @param actorRefs the {@link Actor.ID}s to register
+		 */
+		public void register( final Iterable<? extends Actor.ID> actorRefs )
+		{
+			JPAUtil.session( this.emf,
+					em -> LocalIdCache.of( this.emf ).register( em, actorRefs ) );
+		}
+
+		private void flush() throws InterruptedException
+		{
+			if( this.writeBehind != null ) this.writeBehind.flush();
+		}
+
 		@Override
 		public void close() throws Exception
 		{
-			this.emf.close();
+			try
+			{
+				if( this.writeBehind != null ) this.writeBehind.close();
+			} finally
+			{
+				this.emf.close();
+			}
 		}
 
 		@Override
 		public Observable<?> saveAsync( final Observable<Fact> facts )
 		{
-			// TODO defer: facts.observeOn( ... ) & rejoin at sim::onCompleted ?
+			final WriteBehind writer = writeBehind();
+			if( writer != null ) return Observable.<FactDao>create(
+					sub -> facts.subscribe( writer::put, sub::onError,
+							sub::onComplete ) );
+
 			return Observable.<FactDao>create( sub ->
 			{
 				// One session for each fact
@@ -585,19 +1120,69 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 		{
 			try
 			{
+				flush();
 				return JPAUtil.session( this.emf ).map(
 						em -> FactDao.find( em, id ).restore( this.binder ) )
 						.blockingFirst();
 			} catch( final NoResultException empty )
 			{
 				return null;
+			} catch( final InterruptedException e )
+			{
+				Thread.currentThread().interrupt();
+				return null;
 			}
 		}
 
 		private BigDecimal normalize( final Instant t )
 		{
-			return QuantityUtil.decimalValue( t.toQuantity(),
-					this.scheduler.timeUnit() );
+			return t.to( this.scheduler.timeUnit() ).decimal();
+		}
+
+		private Range<BigDecimal> normalize( final Range<Instant> range )
+		{
+			return range == null ? null : range.map( this::normalize );
+		}
+
+		/**
+		 * @param pageSize the number of facts read per page (and session)
+		 * @return a {@link Flowable} stream of all facts, read lazily in pages
+		 *         as requested downstream, i.e. in constant memory
+		 */
+		public Flowable<Fact> findAsync( final int pageSize )
+		{
+			return findAsync( pageSize, transactionKindFilter(),
+					initiatorFilter(), executorFilter(), kindFilter(),
+					causeFilter(), creatorFilter(), responderFilter(),
+					occurrenceFilter(), expirationFilter(),
+					propertiesFilter() );
+		}
+
+		/**
+		 * @param pageSize the number of facts read per page (and session)
+		 * @return a {@link Flowable} stream of matching facts, read lazily in
+		 *         pages as requested downstream, i.e. in constant memory
+		 */
+		public Flowable<Fact> findAsync( final int pageSize,
+			final Class<?> typeFilter, final Actor.ID initiatorFilter,
+			final Actor.ID executorFilter, final FactKind kindFilter,
+			final Fact.ID causeFilter, final Actor.ID creatorFilter,
+			final Actor.ID responderFilter,
+			final Range<Instant> occurrenceFilter,
+			final Range<Instant> expirationFilter,
+			final Map<String, Object> propertiesFilter )
+		{
+			return Flowable.defer( () ->
+			{
+				flush();
+				return FactDao.findAsync( this.emf, pageSize,
+						dao -> dao.restore( this.binder ),
+						this.binder.id().contextRef(), typeFilter,
+						initiatorFilter, executorFilter, kindFilter,
+						causeFilter, creatorFilter, responderFilter,
+						normalize( occurrenceFilter ),
+						normalize( expirationFilter ), propertiesFilter );
+			} );
 		}
 
 		@Override
@@ -612,6 +1197,15 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 			// FIXME switch to safe rx patterns
 			return Observable.unsafeCreate( sub ->
 			{
+				try
+				{
+					flush();
+				} catch( final InterruptedException e )
+				{
+					Thread.currentThread().interrupt();
+					sub.onError( e );
+					return;
+				}
 				JPAUtil.session( this.emf ).subscribe( em ->
 				{
 					Observable
@@ -619,8 +1213,8 @@ public interface FactBank<F extends Fact> extends AutoCloseable
 									this.binder.id().contextRef(), typeFilter,
 									initiatorFilter, executorFilter, kindFilter,
 									causeFilter, creatorFilter, responderFilter,
-									occurrenceFilter.map( this::normalize ),
-									expirationFilter.map( this::normalize ),
+									normalize( occurrenceFilter ),
+									normalize( expirationFilter ),
 									propertiesFilter ) )
 							.map( dao -> dao.restore( this.binder ) )
 							.safeSubscribe( sub );
@@ -19,16 +19,34 @@
  */
 package io.coala.enterprise;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.coala.bind.InjectConfig;
+import io.coala.config.GlobalConfig;
+import io.coala.exception.Thrower;
+import io.coala.time.ConservativeRunner;
+import io.coala.time.Duration;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.coala.time.SchedulerConfig;
 import io.reactivex.Observable;
+import io.reactivex.Observer;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
 
@@ -72,6 +90,20 @@ public interface FactExchange
 
 	Observable<Fact> snif();
 
+	interface Config extends GlobalConfig
+	{
+		String LOOKAHEAD_KEY = "exchange.lookahead";
+
+		/**
+		 * @return the (virtual) delay of {@link Fact}s exchanged between
+		 *         partitions, in {@link SchedulerConfig#timeUnit()}s, see
+		 *         {@link Partitioned#lookahead()}
+		 */
+		@Key( LOOKAHEAD_KEY )
+		@DefaultValue( "1" )
+		BigDecimal rawLookahead();
+	}
+
 	@Singleton
 	class SimpleBus implements FactExchange
 	{
@@ -125,4 +157,255 @@ public interface FactExchange
 			return this.bus;
 		}
 	}
+
+	/**
+	 * {@link Routing} is a {@link FactExchange} that delivers each outgoing
+	 * {@link Fact} directly to the incoming {@link Actor} registered for its
+	 * {@link Fact#responderRef() responder}'s organization, i.e. using a single
+	 * lookup rather than evaluating each fact against every organization, as
+	 * with the {@link SimpleBus}. A separate tap serves {@link #snif()}. Each
+	 * organization routes to a single incoming {@link Actor}, so registering
+	 * another one fails until the current registration is disposed
+	 */
+	@Singleton
+	class Routing implements FactExchange
+	{
+		private final Map<Actor.ID, Observer<Fact>> routes = new ConcurrentHashMap<>();
+
+		private final Map<Actor.ID, Disposable> outgoing = new ConcurrentHashMap<>();
+
+		private final Subject<Fact> tap = PublishSubject.create();
+
+		@Override
+		public List<Disposable> register( final Actor<?> actor,
+			final boolean incoming, final boolean outgoing )
+		{
+			final Actor.ID orgRef = actor.id().organizationRef();
+			final Disposable in;
+			if( incoming )
+			{
+				final Observer<Fact> current = this.routes
+						.putIfAbsent( orgRef, actor );
+				if( current != null && current != actor )
+					Thrower.throwNew( IllegalStateException::new,
+							() -> "Organization " + orgRef
+									+ " already routes to: " + current );
+				in = Disposables
+						.fromAction( () -> this.routes.remove( orgRef, actor ) );
+			} else
+			{
+				this.routes.remove( orgRef );
+				in = null;
+			}
+			final Disposable out;
+			if( outgoing )
+				out = this.outgoing.compute( orgRef,
+						( key, current ) -> current == null
+								|| current.isDisposed()
+										? subscribeOutgoing( actor )
+										: current );
+			else
+			{
+				out = this.outgoing.remove( orgRef );
+				if( out != null ) out.dispose();
+			}
+			return Arrays.asList( in, outgoing ? out : null );
+		}
+
+		private Disposable subscribeOutgoing( final Actor<?> actor )
+		{
+			return actor.root().emitFacts()
+					.filter( fact -> fact.isOutgoing( actor.id() ) )
+					.subscribe( this::route );
+		}
+
+		private void route( final Fact fact )
+		{
+			final Observer<Fact> receiver = this.routes
+					.get( fact.responderRef().organizationRef() );
+			if( receiver != null ) receiver.onNext( fact );
+			this.tap.onNext( fact );
+		}
+
+		@Override
+		public Observable<Fact> snif()
+		{
+			return this.tap;
+		}
+	}
+
+	/**
+	 * {@link Partitioned} is a {@link FactExchange} for organizations whose
+	 * {@link Actor}s run in separate partitions, i.e. each with its own
+	 * {@link Scheduler} (and {@link io.coala.bind.LocalBinder LocalBinder})
+	 * sharing this exchange, as synchronized by some
+	 * {@link ConservativeRunner}. All {@link Fact}s are delivered after a
+	 * fixed {@link #lookahead()} delay. Outgoing facts are buffered until the
+	 * next {@link #flush()}, which schedules their delivery in a deterministic
+	 * order (by delivery time, sender and send order), so results do not
+	 * depend on the number of partitions. When injected, the
+	 * {@link #lookahead()} follows {@link Config#rawLookahead()}, so bind the
+	 * same instance in each partition's {@link io.coala.bind.LocalBinder
+	 * LocalBinder}
+	 */
+	@Singleton
+	class Partitioned implements FactExchange
+	{
+		private final Map<Actor.ID, Actor<?>> incoming = new ConcurrentHashMap<>();
+
+		private final Map<Actor.ID, Disposable> outgoing = new ConcurrentHashMap<>();
+
+		private final Queue<Delivery> outbox = new ConcurrentLinkedQueue<>();
+
+		private final Subject<Fact> sent = PublishSubject.create();
+
+		private final Scheduler scheduler;
+
+		@InjectConfig
+		private Config config;
+
+		private volatile Duration lookahead;
+
+		/**
+		 * @param scheduler the {@link Scheduler} whose
+		 *            {@link Scheduler#timeUnit() time unit} (shared by all
+		 *            partitions) applies to {@link Config#rawLookahead()}
+		 */
+		@Inject
+		public Partitioned( final Scheduler scheduler )
+		{
+			this.scheduler = Objects.requireNonNull( scheduler );
+		}
+
+		public Partitioned( final Scheduler scheduler, final Config config )
+		{
+			this( scheduler );
+			this.config = config;
+		}
+
+		public Partitioned( final Duration lookahead )
+		{
+			this.scheduler = null;
+			this.lookahead = Objects.requireNonNull( lookahead );
+		}
+
+		/** @return the fixed {@link Fact} delivery delay */
+		public Duration lookahead()
+		{
+			if( this.lookahead == null ) this.lookahead = Duration.of(
+					this.config == null ? BigDecimal.ONE
+							: this.config.rawLookahead(),
+					this.scheduler.timeUnit() );
+			return this.lookahead;
+		}
+
+		@Override
+		public List<Disposable> register( final Actor<?> actor,
+			final boolean incoming, final boolean outgoing )
+		{
+			final Actor.ID orgRef = actor.id().organizationRef();
+			final Disposable in;
+			if( incoming )
+			{
+				this.incoming.put( orgRef, actor );
+				in = Disposables
+						.fromAction( () -> this.incoming.remove( orgRef, actor ) );
+			} else
+			{
+				this.incoming.remove( orgRef );
+				in = null;
+			}
+			final Disposable out;
+			if( outgoing )
+				out = this.outgoing.computeIfAbsent( orgRef,
+						key -> subscribeOutgoing( actor ) );
+			else
+			{
+				out = this.outgoing.remove( orgRef );
+				if( out != null ) out.dispose();
+			}
+			return Arrays.asList( in, outgoing ? out : null );
+		}
+
+		private Disposable subscribeOutgoing( final Actor<?> actor )
+		{
+			final AtomicLong seq = new AtomicLong();
+			return actor.root().emitFacts()
+					.filter( fact -> fact.isOutgoing( actor.id() ) )
+					.subscribe( fact -> this.outbox.add(
+							new Delivery( actor.now().add( lookahead() ),
+									actor.id(), seq.incrementAndGet(),
+									fact ) ) );
+		}
+
+		/**
+		 * schedules all buffered {@link Fact}s for delivery at their
+		 * respective receiving {@link Actor}'s {@link Scheduler}, while all
+		 * partitions are idle (i.e. at a synchronization barrier)
+		 */
+		public void flush()
+		{
+			final List<Delivery> deliveries = new ArrayList<>();
+			for( Delivery d = this.outbox.poll(); d != null; d = this.outbox
+					.poll() )
+				deliveries.add( d );
+			Collections.sort( deliveries );
+			for( Delivery d : deliveries )
+			{
+				this.sent.onNext( d.fact );
+				final Actor<?> receiver = this.incoming
+						.get( d.fact.responderRef().organizationRef() );
+				if( receiver != null )
+					receiver.at( d.when ).call( () -> receiver.onNext( d.fact ) );
+			}
+		}
+
+		/**
+		 * @param partitions the {@link Scheduler}s of each partition
+		 * @return a {@link ConservativeRunner} flushing this exchange at each
+		 *         synchronization barrier
+		 */
+		public ConservativeRunner runner( final Scheduler... partitions )
+		{
+			return ConservativeRunner.of( lookahead(), this::flush,
+					partitions );
+		}
+
+		@Override
+		public Observable<Fact> snif()
+		{
+			return this.sent;
+		}
+
+		static class Delivery implements Comparable<Delivery>
+		{
+			final Instant when;
+
+			final Actor.ID sender;
+
+			final long seq;
+
+			final Fact fact;
+
+			Delivery( final Instant when, final Actor.ID sender,
+				final long seq, final Fact fact )
+			{
+				this.when = when;
+				this.sender = sender;
+				this.seq = seq;
+				this.fact = fact;
+			}
+
+			@SuppressWarnings( "unchecked" )
+			@Override
+			public int compareTo( final Delivery that )
+			{
+				final int when = this.when.compareTo( that.when );
+				if( when != 0 ) return when;
+				final int sender = this.sender.compareTo( that.sender );
+				if( sender != 0 ) return sender;
+				return Long.compare( this.seq, that.seq );
+			}
+		}
+	}
 }
@@ -19,16 +19,29 @@
  */
 package io.coala.enterprise;
 
-import java.util.Collections;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.logging.log4j.Logger;
+
 import com.eaio.uuid.UUID;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -39,16 +52,20 @@ import com.fasterxml.jackson.databind.util.StdConverter;
 
 import io.coala.bind.InjectConfig;
 import io.coala.bind.LocalId;
+import io.coala.config.GlobalConfig;
 import io.coala.exception.Thrower;
 import io.coala.function.ThrowingConsumer;
 import io.coala.function.ThrowingRunnable;
+import io.coala.log.LogUtil;
 import io.coala.name.Identified;
+import io.coala.time.Checkpoint;
 import io.coala.time.Expectation;
 import io.coala.time.Instant;
 import io.coala.time.Proactive;
-import io.coala.time.SchedulerConfig;
 import io.coala.time.Scheduler;
+import io.coala.time.SchedulerConfig;
 import io.reactivex.Observable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
 
@@ -136,6 +153,15 @@ public interface Transaction<F extends Fact>
 	/** @return */
 	Observable<F> commits();
 
+	/**
+	 * @return {@code true} iff some committed {@link Fact} awaits its
+	 *         expiration, i.e. this {@link Transaction} is not idle
+	 */
+	default boolean isExpecting()
+	{
+		return false;
+	}
+
 	FactBank<F> factBank();
 
 	/**
@@ -216,12 +242,12 @@ public interface Transaction<F extends Fact>
 	 */
 //	@SuppressWarnings( "serial" )
 	@JsonInclude( Include.NON_NULL )
-	class Simple<F extends Fact> implements Transaction<F>
+	class Simple<F extends Fact> implements Transaction<F>, Checkpoint.Stateful
 	{
 		private transient final Subject<F> commits = PublishSubject.create();
 		private transient final Map<Fact.ID, Expectation> pending = new ConcurrentHashMap<>();
-		private transient final Set<UUID> committedIds = Collections
-				.synchronizedSet( new HashSet<>() );
+		/** ids of committed facts, allocated upon first commit */
+		private transient Set<UUID> committedIds = null;
 		private transient Scheduler scheduler;
 		private transient Fact.Factory factFactory;
 		private transient FactBank<F> factBank = null;
@@ -295,9 +321,14 @@ public interface Transaction<F extends Fact>
 					() -> "Already terminated: " + id() );
 		}
 
+		/**
+		 * synchronized, as the initiator and executor of this
+		 * {@link Transaction} may run in parallel partitions
+		 */
 		@Override
-		public F generate( final FactKind factKind, final Fact.ID causeRef,
-			final Instant expiration, final Map<?, ?>... params )
+		public synchronized F generate( final FactKind factKind,
+			final Fact.ID causeRef, final Instant expiration,
+			final Map<?, ?>... params )
 		{
 			if( causeRef == null || !causeRef.parentRef().equals( id() ) )
 				checkNotInitiated();
@@ -319,47 +350,54 @@ public interface Transaction<F extends Fact>
 			return commit( fact, cleanUp, null );
 		}
 
-		public F commit( final F fact, final boolean cleanUp,
+		/**
+		 * synchronized, as the initiator and executor of this
+		 * {@link Transaction} may commit concurrently from parallel
+		 * partitions, while shared effects (publishing and persisting) are
+		 * {@link Scheduler#merge merged} in deterministic order
+		 * 
+		 * @param fact the {@link Fact} to commit, i.e. save &amp; send
+		 * @param cleanUp {@code true} iff the {@link Transaction} may clean up
+		 * @param onExpiration the {@link ThrowingRunnable} to call upon
+		 *            expiration, or {@code null}
+		 * @return the {@link Fact} again to allow chaining
+		 */
+		public synchronized F commit( final F fact, final boolean cleanUp,
 			final ThrowingRunnable<?> onExpiration )
 		{
 			checkNotTerminated();
 			// prevent re-committing
-			if( this.committedIds.contains( fact.id().unwrap() ) )
+			if( !markCommitted( fact.id().unwrap() ) )
 				return Thrower.throwNew( IllegalStateException::new,
 						() -> "Already committed: " + fact );
-			this.committedIds.add( fact.id().unwrap() );
 
 			try
 			{
 				// un/schedule expiration
-				if( fact.causeRef() != null )
-					this.pending.remove( fact.causeRef() );
+				if( fact.causeRef() != null ) cancel( fact.causeRef() );
 				if( fact.expire() != null )
 					this.pending.put( Objects.requireNonNull( fact.id() ),
-							at( fact.expire() ).call( () ->
-							{
-								if( onExpiration != null ) onExpiration.run();
-								this.pending.remove( fact.id() );
-							} ) );
+							expect( fact.id(), fact.expire(), onExpiration ) );
 				else if( onExpiration != null )
 					return Thrower.throwNew( IllegalStateException::new,
 							() -> "Expiration function never gets called: "
 									+ fact );
 
-				// publish / fire / send
-				this.commits.onNext( fact );
-
-				// persist
-				if( factBank() != null ) factBank().save( fact );
+				// publish / fire / send, then persist, in deterministic order
+				scheduler().merge( () ->
+				{
+					this.commits.onNext( fact );
+					if( factBank() != null ) factBank().save( fact );
+				} );
 
 				// unsubscribe listeners, cancel pending expirations
 				if( cleanUp )
 				{
 					this.terminated = true;
-					this.commits.onComplete();
-					this.pending.values().forEach( Expectation::remove );
-					this.pending.clear();
-					this.committedIds.clear();
+					scheduler().merge( this.commits::onComplete );
+					new ArrayList<>( this.pending.keySet() )
+							.forEach( this::cancel );
+					releaseCommitted();
 				}
 
 				// allow chaining
@@ -371,12 +409,183 @@ public interface Transaction<F extends Fact>
 			}
 		}
 
+		/**
+		 * schedules some {@link Fact}'s expiration, by its {@link Fact.ID} as
+		 * {@link Scheduler#register named action} if the {@link Scheduler} is
+		 * {@link Scheduler#isCheckpointable() checkpointable}
+		 * 
+		 * @param factId the {@link Fact.ID} of the expiring {@link Fact}
+		 * @param when the {@link Instant} of expiration
+		 * @param onExpiration the {@link ThrowingRunnable} to call upon
+		 *            expiration, or {@code null}
+		 * @return the {@link Expectation} of expiration
+		 */
+		private Expectation expect( final Fact.ID factId, final Instant when,
+			final ThrowingRunnable<?> onExpiration )
+		{
+			if( !scheduler().isCheckpointable() )
+				return at( when ).call( () -> expire( factId, onExpiration ) );
+			final String key = factId.toJSON();
+			scheduler().register( key, t -> expire( factId, onExpiration ) );
+			return scheduler().schedule( when, key );
+		}
+
+		/**
+		 * cancels some pending expiration, also if restored from some
+		 * {@link Checkpoint}, i.e. without cancellation handle, by
+		 * unregistering its action so its event no longer has any effect
+		 * 
+		 * @param factId the {@link Fact.ID} of the expiring {@link Fact}
+		 */
+		private void cancel( final Fact.ID factId )
+		{
+			final Expectation expectation = this.pending.remove( factId );
+			if( expectation == null ) return;
+			expectation.remove();
+			if( scheduler().isCheckpointable() )
+				scheduler().unregister( factId.toJSON() );
+		}
+
+		private void expire( final Fact.ID factId,
+			final ThrowingRunnable<?> onExpiration ) throws Throwable
+		{
+			if( scheduler().isCheckpointable() )
+				scheduler().unregister( factId.toJSON() );
+			if( !this.pending.containsKey( factId ) ) return; // cancelled
+			if( onExpiration != null ) onExpiration.run();
+			this.pending.remove( factId );
+		}
+
+		/**
+		 * @param factId the committed {@link Fact.ID} value
+		 * @return {@code false} iff already committed
+		 */
+		private synchronized boolean markCommitted( final UUID factId )
+		{
+			if( this.committedIds == null ) this.committedIds = new HashSet<>();
+			return this.committedIds.add( factId );
+		}
+
+		private synchronized void releaseCommitted()
+		{
+			this.committedIds = null;
+		}
+
+		/**
+		 * {@link Archived} is a compact record of some {@link Simple}
+		 * transaction's commit history, e.g. to rehydrate it after eviction
+		 */
+		static final class Archived
+		{
+			/** the committed {@link Fact.ID} values, as pairs of longs */
+			final long[] committed;
+
+			final boolean initiated;
+
+			final boolean terminated;
+
+			Archived( final long[] committed, final boolean initiated,
+				final boolean terminated )
+			{
+				this.committed = committed;
+				this.initiated = initiated;
+				this.terminated = terminated;
+			}
+		}
+
+		/** @return an {@link Archived} record of the commit history */
+		synchronized Archived archive()
+		{
+			final long[] committed = new long[this.committedIds == null ? 0
+					: 2 * this.committedIds.size()];
+			int i = 0;
+			if( this.committedIds != null ) for( UUID id : this.committedIds )
+			{
+				committed[i++] = id.getTime();
+				committed[i++] = id.getClockSeqAndNode();
+			}
+			return new Archived( committed, this.initiated, this.terminated );
+		}
+
+		/** @param archived the {@link Archived} commit history to restore */
+		synchronized void rehydrate( final Archived archived )
+		{
+			this.initiated = archived.initiated;
+			this.terminated = archived.terminated;
+			this.committedIds = archived.committed.length == 0 ? null
+					: new HashSet<>( archived.committed.length );
+			for( int i = 0; i < archived.committed.length; i += 2 )
+				this.committedIds.add( new UUID( archived.committed[i],
+						archived.committed[i + 1] ) );
+		}
+
+		/**
+		 * saves the commit history and pending expirations, e.g. as part of
+		 * some {@link Checkpoint}
+		 */
+		@Override
+		public synchronized void save( final DataOutput out )
+			throws IOException
+		{
+			final Archived archived = archive();
+			out.writeBoolean( archived.initiated );
+			out.writeBoolean( archived.terminated );
+			out.writeInt( archived.committed.length / 2 );
+			for( long value : archived.committed )
+				out.writeLong( value );
+			final List<Map.Entry<Fact.ID, Expectation>> pending = new ArrayList<>(
+					this.pending.entrySet() );
+			out.writeInt( pending.size() );
+			for( Map.Entry<Fact.ID, Expectation> entry : pending )
+			{
+				out.writeLong( entry.getKey().unwrap().getTime() );
+				out.writeLong( entry.getKey().unwrap().getClockSeqAndNode() );
+				Checkpoint.writeInstant( out, entry.getValue().due() );
+			}
+		}
+
+		/**
+		 * restores the commit history and pending expirations, re-binding
+		 * their {@link Scheduler#register named actions} for the
+		 * {@link Checkpoint} to restore their events. Expiration callbacks
+		 * can't be saved, so restored expirations only end the expectation
+		 */
+		@Override
+		public synchronized void restore( final DataInput in )
+			throws IOException
+		{
+			final boolean initiated = in.readBoolean();
+			final boolean terminated = in.readBoolean();
+			final long[] committed = new long[2 * in.readInt()];
+			for( int i = 0; i < committed.length; i++ )
+				committed[i] = in.readLong();
+			rehydrate( new Archived( committed, initiated, terminated ) );
+			this.pending.clear();
+			for( int i = in.readInt(); i > 0; i-- )
+			{
+				final long time = in.readLong();
+				final Fact.ID factId = Fact.ID
+						.of( new UUID( time, in.readLong() ), id() );
+				final Instant due = Checkpoint.readInstant( in );
+				scheduler().register( factId.toJSON(),
+						t -> expire( factId, null ) );
+				this.pending.put( factId,
+						Expectation.of( this, due, Disposables.empty() ) );
+			}
+		}
+
 		@Override
 		public Observable<F> commits()
 		{
 			return this.commits;
 		}
 
+		@Override
+		public boolean isExpecting()
+		{
+			return !this.pending.isEmpty();
+		}
+
 		@Override
 		public FactBank<F> factBank()
 		{
@@ -384,24 +593,159 @@ public interface Transaction<F extends Fact>
 		}
 	}
 
+	/**
+	 * {@link Config} of the {@link Factory.LocalCaching} registry
+	 */
+	interface Config extends GlobalConfig
+	{
+		String REGISTRY_CAPACITY_KEY = "transaction.registry.capacity";
+
+		String REGISTRY_IDLE_KEY = "transaction.registry.idle";
+
+		/**
+		 * @return the maximum number of live {@link Transaction}s to retain,
+		 *         evicting the least recently active, or 0 for unbounded
+		 */
+		@Key( REGISTRY_CAPACITY_KEY )
+		@DefaultValue( "0" )
+		int registryCapacity();
+
+		/**
+		 * @return the (virtual) time a {@link Transaction} may remain idle,
+		 *         i.e. without commits or lookups and expecting no
+		 *         expirations, in {@link SchedulerConfig#timeUnit()}s, or 0
+		 *         to retain idle {@link Transaction}s until they terminate
+		 */
+		@Key( REGISTRY_IDLE_KEY )
+		@DefaultValue( "0" )
+		BigDecimal rawRegistryIdle();
+	}
+
 	interface Factory
 	{
 		<F extends Fact> Transaction<F> create( Transaction.ID id,
 			Class<F> factType, Actor.ID initiator, Actor.ID executor );
 
+		/**
+		 * {@link LocalCaching} registers live {@link Transaction}s by their
+		 * {@link Transaction.ID}, until they terminate (i.e. their
+		 * {@link Transaction#commits()} complete), become idle for longer
+		 * than {@link Config#rawRegistryIdle()}, or exceed
+		 * {@link Config#registryCapacity()}, evicting those least recently
+		 * active (by second-chance approximation). Transactions expecting
+		 * some expiration (see {@link Transaction#isExpecting()}) are never
+		 * evicted, so capacity is a best-effort bound. Evicted
+		 * {@link Transaction}s are weakly retained along with a compact
+		 * archived record of their commit history: {@link #create} returns
+		 * (and re-registers) the same instance while it is still referenced
+		 * elsewhere, e.g. by some {@link Fact}, and otherwise rehydrates a
+		 * new one from its archived record, so late replies are still
+		 * guarded against re-commits.
+		 * <p>
+		 * Lookups and activity updates are lock-free, so that parallel
+		 * partitions do not contend on the registry; only eviction is
+		 * serialized, and skipped while another thread evicts.
+		 * <p>
+		 * With a {@link Scheduler#isCheckpointable() checkpointable}
+		 * {@link Scheduler}, each {@link Checkpoint} includes the live
+		 * {@link Simple} transactions (see {@link Simple#save}) and the
+		 * archived records of evicted ones, all of which are recreated upon
+		 * {@link Scheduler#restore restoring} it
+		 */
 		@Singleton
 		class LocalCaching implements Factory
 		{
-			private transient final Map<ID, Transaction<?>> localCache = new ConcurrentHashMap<>();
+			/** */
+			private static final Logger LOG = LogUtil
+					.getLogger( LocalCaching.class );
 
-			@Inject
-			private transient Scheduler scheduler;
+			/** live {@link Transaction}s */
+			private transient final Map<ID, Registered> localCache = new ConcurrentHashMap<>();
+
+			/** live {@link Transaction}s, in order of registration */
+			private transient final Queue<Registered> clock = new ConcurrentLinkedQueue<>();
+
+			/** evicted {@link Transaction}s, until they terminate */
+			private transient final Map<ID, Evicted> evicted = new ConcurrentHashMap<>();
+
+			/** guards evictions, i.e. {@link #trim} and {@link #sweep} */
+			private transient final ReentrantLock evicting = new ReentrantLock();
+
+			private transient volatile Instant swept = null;
+
+			private transient final AtomicLong evictions = new AtomicLong();
+
+			private transient final Scheduler scheduler;
 
 			@Inject
 			private transient Fact.Factory factFactory;
 
 			@InjectConfig
-			private transient SchedulerConfig config;
+			private transient Config config;
+
+			private static class Registered
+			{
+				private final Transaction<?> tx;
+
+				private volatile Instant active;
+
+				/** {@code true} iff active since last considered for eviction */
+				private volatile boolean touched = false;
+
+				Registered( final Transaction<?> tx, final Instant active )
+				{
+					this.tx = tx;
+					this.active = active;
+				}
+
+				void touch( final Instant now )
+				{
+					this.active = now;
+					this.touched = true;
+				}
+			}
+
+			private static class Evicted extends WeakReference<Transaction<?>>
+			{
+				/** the commit history, or {@code null} if not archivable */
+				private volatile Simple.Archived archived;
+
+				Evicted( final Transaction<?> tx )
+				{
+					super( tx );
+					this.archived = archive( tx );
+				}
+
+				static Simple.Archived archive( final Transaction<?> tx )
+				{
+					return tx instanceof Simple ? ((Simple<?>) tx).archive()
+							: null;
+				}
+			}
+
+			/**
+			 * @param scheduler the {@link Scheduler}, which (if
+			 *            {@link Scheduler#isCheckpointable() checkpointable})
+			 *            saves and restores the live {@link Transaction}s along
+			 *            with each {@link Checkpoint}
+			 */
+			@Inject
+			public LocalCaching( final Scheduler scheduler )
+			{
+				this.scheduler = Objects.requireNonNull( scheduler );
+				if( scheduler.isCheckpointable() )
+					scheduler.register( LocalCaching.class.getName(),
+							Checkpoint.Stateful.of( this::save,
+									this::restore ) );
+			}
+
+			public LocalCaching( final Scheduler scheduler,
+				final Fact.Factory factFactory, final Config config )
+			{
+				this( scheduler );
+				this.factFactory = Objects.requireNonNull( factFactory );
+				this.config = config;
+			}
 
 			@SuppressWarnings( "unchecked" )
 			@Override
@@ -409,19 +753,288 @@ public interface Transaction<F extends Fact>
 				final Class<F> kind, final Actor.ID initiatorRef,
 				final Actor.ID executorRef )
 			{
-				return (Transaction<F>) this.localCache.computeIfAbsent( id,
-						key ->
+				sweep();
+				final Instant now = this.scheduler.now();
+				final Registered known = this.localCache.get( id );
+				if( known != null )
+				{
+					known.touch( now );
+					return (Transaction<F>) known.tx;
+				}
+				final Registered[] created = { null };
+				final Registered result = this.localCache.computeIfAbsent( id,
+						k -> created[0] = new Registered(
+								restore( id, kind, initiatorRef, executorRef ),
+								now ) );
+				if( created[0] == null )
+					result.touch( now );
+				else
+				{
+					this.clock.add( result );
+					trim( id );
+				}
+				return (Transaction<F>) result.tx;
+			}
+
+			/**
+			 * @return the evicted {@link Transaction} if still referenced, or
+			 *         one rehydrated from its archived record, or a new one
+			 */
+			private Transaction<?> restore( final ID id, final Class<?> kind,
+				final Actor.ID initiatorRef, final Actor.ID executorRef )
+			{
+				final Evicted evicted = this.evicted.remove( id );
+				final Transaction<?> restored = evicted == null ? null
+						: evicted.get();
+				if( restored != null ) return restored;
+				@SuppressWarnings( { "rawtypes", "unchecked" } )
+				final Transaction<?> tx = Transaction.of( id, (Class) kind,
+						initiatorRef, executorRef, this.scheduler,
+						this.factFactory );
+				if( evicted != null && evicted.archived != null )
+				{
+					((Simple<?>) tx).rehydrate( evicted.archived );
+					LOG.trace( "Rehydrated {}", id );
+				}
+				return listen( tx );
+			}
+
+			private Transaction<?> listen( final Transaction<?> tx )
+			{
+				final ID id = tx.id();
+				tx.commits().subscribe( f -> touch( id ),
+						e -> unregister( id ), () -> unregister( id ) );
+				return tx;
+			}
+
+			/**
+			 * saves the live {@link Simple} transactions and the archived
+			 * records of evicted ones, e.g. as part of some {@link Checkpoint}
+			 */
+			private void save( final DataOutput out ) throws IOException
+			{
+				final List<Transaction<?>> live = new ArrayList<>();
+				for( Registered known : this.localCache.values() )
+					if( known.tx instanceof Simple ) live.add( known.tx );
+				out.writeInt( live.size() );
+				for( Transaction<?> tx : live )
+				{
+					writeId( out, tx.id() );
+					out.writeUTF( tx.kind().getName() );
+					out.writeUTF( tx.initiatorRef().toJSON() );
+					out.writeUTF( tx.executorRef().toJSON() );
+					((Simple<?>) tx).save( out );
+				}
+				final Map<ID, Simple.Archived> archived = new LinkedHashMap<>();
+				this.evicted.forEach( ( id, evicted ) ->
+				{
+					final Transaction<?> tx = evicted.get();
+					final Simple.Archived record = tx == null ? evicted.archived
+							: Evicted.archive( tx );
+					if( record != null ) archived.put( id, record );
+				} );
+				out.writeInt( archived.size() );
+				for( Map.Entry<ID, Simple.Archived> entry : archived
+						.entrySet() )
+				{
+					writeId( out, entry.getKey() );
+					out.writeBoolean( entry.getValue().initiated );
+					out.writeBoolean( entry.getValue().terminated );
+					out.writeInt( entry.getValue().committed.length );
+					for( long value : entry.getValue().committed )
+						out.writeLong( value );
+				}
+			}
+
+			/**
+			 * replaces all live and evicted {@link Transaction}s by those
+			 * {@link #save saved}, e.g. upon restoring some {@link Checkpoint}
+			 */
+			@SuppressWarnings( { "rawtypes", "unchecked" } )
+			private void restore( final DataInput in ) throws IOException
+			{
+				this.localCache.clear();
+				this.clock.clear();
+				this.evicted.clear();
+				final Instant now = this.scheduler.now();
+				for( int i = in.readInt(); i > 0; i-- )
+				{
+					final ID id = readId( in );
+					final Class kind;
+					try
+					{
+						kind = Class.forName( in.readUTF() );
+					} catch( final ClassNotFoundException e )
+					{
+						throw new IOException( "Unknown kind of: " + id, e );
+					}
+					final Transaction<?> tx = Transaction.of( id, kind,
+							Actor.ID.of( LocalId.valueOf( in.readUTF() ) ),
+							Actor.ID.of( LocalId.valueOf( in.readUTF() ) ),
+							this.scheduler, this.factFactory );
+					((Simple<?>) tx).restore( in );
+					final Registered known = new Registered( listen( tx ),
+							now );
+					this.localCache.put( id, known );
+					this.clock.add( known );
+				}
+				for( int i = in.readInt(); i > 0; i-- )
+				{
+					final ID id = readId( in );
+					final boolean initiated = in.readBoolean();
+					final boolean terminated = in.readBoolean();
+					final long[] committed = new long[in.readInt()];
+					for( int j = 0; j < committed.length; j++ )
+						committed[j] = in.readLong();
+					final Evicted evicted = new Evicted( null );
+					evicted.archived = new Simple.Archived( committed,
+							initiated, terminated );
+					this.evicted.put( id, evicted );
+				}
+				LOG.trace( "Restored {}", this );
+			}
+
+			private static void writeId( final DataOutput out, final ID id )
+				throws IOException
+			{
+				out.writeLong( id.unwrap().getTime() );
+				out.writeLong( id.unwrap().getClockSeqAndNode() );
+				out.writeUTF( id.parentRef() == null ? ""
+						: id.parentRef().toJSON() );
+			}
+
+			/** @return the {@link ID}, in its original (e.g. actor) context */
+			private static ID readId( final DataInput in ) throws IOException
+			{
+				final long time = in.readLong();
+				final UUID value = new UUID( time, in.readLong() );
+				final String ctx = in.readUTF();
+				if( ctx.isEmpty() ) return ID.of( value, null );
+				final LocalId parent = ctx.indexOf( '@' ) < 0
+						? LocalId.of( new UUID( ctx ) )
+						: Actor.ID.of( LocalId.valueOf( ctx ) );
+				return ID.of( value, parent );
+			}
+
+			/** @return the number of live (registered) {@link Transaction}s */
+			public int liveCount()
+			{
+				return this.localCache.size();
+			}
+
+			/** @return the number of idle or excess {@link Transaction}s evicted */
+			public long evictions()
+			{
+				return this.evictions.get();
+			}
+
+			private void touch( final ID id )
+			{
+				final Registered known = this.localCache.get( id );
+				if( known != null )
+				{
+					known.touch( this.scheduler.now() );
+					return;
+				}
+				// committed while evicted yet still referenced: re-archive
+				final Evicted evicted = this.evicted.get( id );
+				final Transaction<?> tx = evicted == null ? null
+						: evicted.get();
+				if( tx != null ) evicted.archived = Evicted.archive( tx );
+			}
+
+			private void unregister( final ID id )
+			{
+				this.localCache.remove( id );
+				this.evicted.remove( id );
+			}
+
+			private void evict( final Registered known )
+			{
+				final ID id = known.tx.id();
+				if( !this.localCache.remove( id, known ) ) return;
+				this.evicted.put( id, new Evicted( known.tx ) );
+				this.evictions.incrementAndGet();
+				LOG.trace( "Evicted {}, live: {}", id, this.localCache.size() );
+			}
+
+			/**
+			 * evicts {@link Transaction}s beyond
+			 * {@link Config#registryCapacity()}, unless expecting some
+			 * expiration, giving those active since last considered a second
+			 * chance
+			 * 
+			 * @param created the {@link ID} just (re)registered, to retain
+			 */
+			private void trim( final ID created )
+			{
+				final int capacity = this.config == null ? 0
+						: this.config.registryCapacity();
+				if( capacity < 1 || this.localCache.size() <= capacity
+						|| !this.evicting.tryLock() )
+					return;
+				try
+				{
+					// at most two passes, as each pass clears touched flags
+					for( int n = 2 * this.clock.size(); n > 0
+							&& this.localCache.size() > capacity; n-- )
+					{
+						final Registered known = this.clock.poll();
+						if( known == null ) break;
+						if( this.localCache.get( known.tx.id() ) != known )
+							continue; // stale, e.g. unregistered
+						if( known.touched || known.tx.isExpecting()
+								|| known.tx.id().equals( created ) )
 						{
-							final Transaction<?> tx = Transaction.of( id, kind,
-									initiatorRef, executorRef, this.scheduler,
-									this.factFactory );
-							tx.commits().subscribe( f ->
-							{
-							}, e -> this.localCache.remove( id ),
-									() -> this.localCache.remove( id ) );
-							return tx;
-						} );
+							known.touched = false;
+							this.clock.add( known );
+						} else
+							evict( known );
+					}
+				} finally
+				{
+					this.evicting.unlock();
+				}
+			}
+
+			/**
+			 * evicts {@link Transaction}s that were idle for longer than
+			 * {@link Config#rawRegistryIdle()}, at most once per such period
+			 */
+			private void sweep()
+			{
+				final BigDecimal idle = this.config == null ? BigDecimal.ZERO
+						: this.config.rawRegistryIdle();
+				if( idle == null || idle.signum() <= 0 ) return;
+				final Instant now = this.scheduler.now();
+				final Instant swept = this.swept;
+				if( swept == null )
+				{
+					this.swept = now;
+					return;
+				}
+				final Instant due = now.subtract( idle );
+				if( swept.compareTo( due ) > 0 || !this.evicting.tryLock() )
+					return;
+				try
+				{
+					this.swept = now;
+					for( Registered known : this.localCache.values() )
+						if( known.active.compareTo( due ) <= 0
+								&& !known.tx.isExpecting() )
+							evict( known );
+				} finally
+				{
+					this.evicting.unlock();
+				}
+			}
+
+			@Override
+			public String toString()
+			{
+				return getClass().getSimpleName() + "[live: " + liveCount()
+						+ ", evicted: " + evictions() + "]";
 			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -20,10 +20,12 @@
 package io.coala.enterprise.persist;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 import javax.measure.Unit;
 import javax.persistence.AttributeOverride;
@@ -34,6 +36,7 @@ import javax.persistence.Convert;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -48,6 +51,7 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
@@ -67,11 +71,13 @@ import io.coala.enterprise.FactKind;
 import io.coala.enterprise.Transaction;
 import io.coala.json.JsonUtil;
 import io.coala.math.Range;
+import io.coala.persist.JPAUtil;
 import io.coala.persist.JsonToStringConverter;
 import io.coala.persist.UUIDToByteConverter;
 import io.coala.time.Instant;
 import io.coala.time.persist.InstantDao;
 import io.coala.time.persist.InstantDao_;
+import io.reactivex.Flowable;
 
 /**
  * {@link FactDao} with JPA MetaModel in {@link FactDao_}, {@link LocalIdDao_}
@@ -232,12 +238,114 @@ public class FactDao implements BindableDao<Fact, FactDao>
 		final CriteriaBuilder cb = em.getCriteriaBuilder();
 		final CriteriaQuery<FactDao> qry = cb.createQuery( FactDao.class );
 		final Root<FactDao> root = qry.from( FactDao.class );
+		qry.select( root ).where( restrict( em, cb, root, contextRef,
+				typeFilter, initiatorFilter, executorFilter, kindFilter,
+				causeFilter, creatorFilter, responderFilter, occurrenceFilter,
+				expirationFilter, propertiesFilter ) );
+
+		// see #findAsync(...) for streaming large results
+		return em.createQuery( qry ).getResultList();
+	}
+
+	/**
+	 * @param em the session or {@link EntityManager}
+	 * @param afterPk the (exclusive) lower bound of the primary keys, i.e. the
+	 *            last key of the previous page
+	 * @param pageSize the maximum number of results
+	 * @return the next page of matching {@link FactDao}s ordered by primary
+	 *         key, with its actor refs fetched along
+	 */
+	public static List<FactDao> findPage( final EntityManager em,
+		final int afterPk, final int pageSize, final UUID contextRef,
+		final Class<?> typeFilter, final Actor.ID initiatorFilter,
+		final Actor.ID executorFilter, final FactKind kindFilter,
+		final Fact.ID causeFilter, final Actor.ID creatorFilter,
+		final Actor.ID responderFilter,
+		final Range<BigDecimal> occurrenceFilter,
+		final Range<BigDecimal> expirationFilter,
+		final Map<String, Object> propertiesFilter )
+	{
+		final CriteriaBuilder cb = em.getCriteriaBuilder();
+		final CriteriaQuery<FactDao> qry = cb.createQuery( FactDao.class );
+		final Root<FactDao> root = qry.from( FactDao.class );
+		root.fetch( FactDao_.creatorRef, JoinType.INNER );
+		root.fetch( FactDao_.responderRef, JoinType.INNER );
+		root.fetch( FactDao_.initiatorRef, JoinType.INNER );
+		root.fetch( FactDao_.executorRef, JoinType.INNER );
+		final Predicate and = restrict( em, cb, root, contextRef, typeFilter,
+				initiatorFilter, executorFilter, kindFilter, causeFilter,
+				creatorFilter, responderFilter, occurrenceFilter,
+				expirationFilter, propertiesFilter );
+		and.getExpressions()
+				.add( cb.greaterThan( root.get( FactDao_.pk ), afterPk ) );
+		qry.select( root ).where( and )
+				.orderBy( cb.asc( root.get( FactDao_.pk ) ) );
+		return em.createQuery( qry ).setMaxResults( pageSize )
+				.getResultList();
+	}
+
+	/**
+	 * streams matching {@link FactDao}s using keyset pagination on their
+	 * primary key, reading and restoring each page in a new session only as
+	 * requested downstream, so that memory use remains constant regardless
+	 * of the result size
+	 * 
+	 * @param emf the {@link EntityManagerFactory}
+	 * @param pageSize the number of results per page (and session)
+	 * @param restorer restores each {@link FactDao} while its session is open
+	 * @return a {@link Flowable} stream of restored results, if any
+	 */
+	public static <T> Flowable<T> findAsync( final EntityManagerFactory emf,
+		final int pageSize, final Function<FactDao, T> restorer,
+		final UUID contextRef, final Class<?> typeFilter,
+		final Actor.ID initiatorFilter, final Actor.ID executorFilter,
+		final FactKind kindFilter, final Fact.ID causeFilter,
+		final Actor.ID creatorFilter, final Actor.ID responderFilter,
+		final Range<BigDecimal> occurrenceFilter,
+		final Range<BigDecimal> expirationFilter,
+		final Map<String, Object> propertiesFilter )
+	{
+		final int size = Math.max( 1, pageSize );
+		return Flowable.<List<T>, Integer>generate( () -> Integer.MIN_VALUE,
+				( afterPk, emitter ) ->
+				{
+					final List<T> page = new ArrayList<>( size );
+					final int[] lastPk = { afterPk };
+					JPAUtil.session( emf, em ->
+					{
+						for( FactDao dao : findPage( em, afterPk, size,
+								contextRef, typeFilter, initiatorFilter,
+								executorFilter, kindFilter, causeFilter,
+								creatorFilter, responderFilter,
+								occurrenceFilter, expirationFilter,
+								propertiesFilter ) )
+						{
+							lastPk[0] = dao.pk;
+							page.add( restorer.apply( dao ) );
+						}
+					} );
+					if( page.isEmpty() )
+						emitter.onComplete();
+					else
+						emitter.onNext( page );
+					return lastPk[0];
+				} ).concatMapIterable( page -> page, 1 ); // one page ahead
+	}
+
+	private static Predicate restrict( final EntityManager em,
+		final CriteriaBuilder cb, final Root<FactDao> root,
+		final UUID contextRef, final Class<?> typeFilter,
+		final Actor.ID initiatorFilter, final Actor.ID executorFilter,
+		final FactKind kindFilter, final Fact.ID causeFilter,
+		final Actor.ID creatorFilter, final Actor.ID responderFilter,
+		final Range<BigDecimal> occurrenceFilter,
+		final Range<BigDecimal> expirationFilter,
+		final Map<String, Object> propertiesFilter )
+	{
 		final Predicate and = cb.and( cb.equal(
 				// any Actor.ID, e.g. responder, initiator, executor
 				root.get( FactDao_.creatorRef ).get( LocalIdDao_.contextRef ),
 				contextRef ) );
-		qry.select( root ).where( and );
-
 		if( typeFilter != null ) and.getExpressions()
 				.add( cb.equal( root.get( FactDao_.type ), typeFilter ) );
 		if( initiatorFilter != null ) and.getExpressions()
@@ -251,7 +359,7 @@ public class FactDao implements BindableDao<Fact, FactDao>
 					creatorFilter.persist( em ) ) );
 		if( responderFilter != null ) and.getExpressions()
 				.add( cb.equal( root.get( FactDao_.responderRef ),
-						initiatorFilter.persist( em ) ) );
+						responderFilter.persist( em ) ) );
 		if( kindFilter != null ) and.getExpressions()
 				.add( cb.equal( root.get( FactDao_.kind ), kindFilter ) );
 		if( causeFilter != null ) and.getExpressions().add( cb
@@ -265,9 +373,7 @@ public class FactDao implements BindableDao<Fact, FactDao>
 			// FIXME add %like% '"key":"value"' statements for each entry
 		}
 
-		// FIXME: chunking, two-step streaming (sorted by creation ts?)
-		// as already implemented in ... LocalId JPAUtil?
-		return em.createQuery( qry ).getResultList();
+		return and;
 	}
 
 	/**
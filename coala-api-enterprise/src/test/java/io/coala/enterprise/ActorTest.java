@@ -0,0 +1,193 @@
+package io.coala.enterprise;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * {@link ActorTest} tests the indexed {@link Actor.Simple.Dispatcher} of
+ * incoming {@link Fact}s against a filtered {@link PublishSubject}
+ * 
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class ActorTest
+{
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( ActorTest.class );
+
+	public interface Sale extends Fact
+	{
+		// empty
+	}
+
+	public interface SpecialSale extends Sale
+	{
+		// empty
+	}
+
+	public interface Purchase extends Fact
+	{
+		// empty
+	}
+
+	private static final Scheduler SCHEDULER = TransactionTest.scheduler( 0 );
+
+	private static <F extends Fact> F fact( final Class<F> type,
+		final FactKind kind )
+	{
+		final Transaction<F> tx = Transaction.of(
+				Transaction.ID.create( TransactionTest.CONTEXT ), type,
+				TransactionTest.INITIATOR, TransactionTest.EXECUTOR, SCHEDULER,
+				TransactionTest.factFactory() );
+		return new Fact.Simple( Fact.ID.create( tx.id() ), Instant.ZERO, tx,
+				kind, null, null ).proxyAs( type, null );
+	}
+
+	private static final List<Fact> FACTS = Arrays.asList(
+			fact( Sale.class, FactKind.REQUESTED ),
+			fact( Sale.class, FactKind.PROMISED ),
+			fact( SpecialSale.class, FactKind.REQUESTED ),
+			fact( Purchase.class, FactKind.STATED ),
+			fact( SpecialSale.class, FactKind.ACCEPTED ) );
+
+	/**
+	 * subscribes observers in the same order to both some {@link Actor} and
+	 * some reference {@link PublishSubject}, logging deliveries per label
+	 */
+	private static class Subscriptions
+	{
+		final Actor.Simple actor = new Actor.Simple();
+
+		final Subject<Fact> reference = PublishSubject.create();
+
+		final List<String> actual = new ArrayList<>();
+
+		final List<String> expected = new ArrayList<>();
+
+		final List<Disposable[]> disposables = new ArrayList<>();
+
+		void add( final String label, final Observable<? extends Fact> facts,
+			final Class<?> tranKind, final FactKind factKind )
+		{
+			this.disposables.add( new Disposable[] {
+					facts.subscribe(
+							f -> this.actual.add( label + ':' + f.id() ),
+							e -> this.actual.add( label + ":error" ),
+							() -> this.actual.add( label + ":done" ) ),
+					this.reference
+							.filter( f -> tranKind.isAssignableFrom( f.type() )
+									&& (factKind == null
+											|| factKind == f.kind()) )
+							.subscribe( f -> this.expected
+									.add( label + ':' + f.id() ),
+									e -> this.expected.add( label + ":error" ),
+									() -> this.expected
+											.add( label + ":done" ) ) } );
+		}
+
+		void dispose( final int i )
+		{
+			for( Disposable d : this.disposables.get( i ) )
+				d.dispose();
+		}
+
+		void deliver()
+		{
+			FACTS.forEach( f ->
+			{
+				this.actor.onNext( f );
+				this.reference.onNext( f );
+			} );
+		}
+	}
+
+	@Test
+	public void testDispatchOrder()
+	{
+		final Subscriptions subs = new Subscriptions();
+		final Actor.Simple actor = subs.actor;
+		subs.add( "any", actor.emitFacts(), Fact.class, null );
+		subs.add( "saleRq", actor.emit( Sale.class, FactKind.REQUESTED ),
+				Sale.class, FactKind.REQUESTED );
+		subs.add( "sale", actor.emit( Sale.class ), Sale.class, null );
+		subs.add( "special", actor.emit( SpecialSale.class ),
+				SpecialSale.class, null );
+		subs.add( "purchaseSt", actor.emit( Purchase.class, FactKind.STATED ),
+				Purchase.class, FactKind.STATED );
+		subs.add( "anyRq", actor.emit( Fact.class, FactKind.REQUESTED ),
+				Fact.class, FactKind.REQUESTED );
+		subs.deliver();
+		LOG.trace( "Dispatched: {}", subs.actual );
+		assertThat( "order as PublishSubject", subs.actual,
+				equalTo( subs.expected ) );
+		assertThat( "subtypes matched", subs.actual.stream()
+				.filter( s -> s.startsWith( "sale:" ) ).count(),
+				equalTo( 4L ) );
+
+		// unsubscribe (resolved rows are reset)
+		subs.dispose( 2 );
+		subs.actual.clear();
+		subs.expected.clear();
+		subs.deliver();
+		assertThat( "unsubscribed", subs.actual, equalTo( subs.expected ) );
+		assertThat( "unsubscribed", subs.actual.stream()
+				.anyMatch( s -> s.startsWith( "sale:" ) ), equalTo( false ) );
+
+		// terminal propagation, also to late subscribers
+		subs.actual.clear();
+		subs.expected.clear();
+		actor.onComplete();
+		subs.reference.onComplete();
+		assertThat( "completed", subs.actual, equalTo( subs.expected ) );
+		final List<String> late = new ArrayList<>();
+		actor.emitFacts().subscribe( f -> late.add( "next" ),
+				e -> late.add( "error" ), () -> late.add( "done" ) );
+		assertThat( "late", late, equalTo( Arrays.asList( "done" ) ) );
+	}
+
+	@Test
+	public void testFactFilterIndexed()
+	{
+		final Actor.Simple actor = new Actor.Simple();
+		final List<Fact.ID> requests = new ArrayList<>();
+		final List<Fact.ID> purchases = new ArrayList<>();
+		actor.emit( Actor.FactFilter.of( FactKind.REQUESTED ),
+				( self, f ) -> requests.add( f.id() ) );
+		actor.emit( f -> f.type() == Purchase.class,
+				( self, f ) -> purchases.add( f.id() ) );
+		FACTS.forEach( actor::onNext );
+		assertThat( "requests", requests, equalTo(
+				Arrays.asList( FACTS.get( 0 ).id(), FACTS.get( 2 ).id() ) ) );
+		assertThat( "unindexed", purchases,
+				equalTo( Arrays.asList( FACTS.get( 3 ).id() ) ) );
+	}
+
+	@Test
+	public void testError()
+	{
+		final Actor.Simple actor = new Actor.Simple();
+		final List<String> events = new ArrayList<>();
+		actor.emit( Sale.class, FactKind.REQUESTED ).subscribe(
+				f -> events.add( "next" ), e -> events.add( "error" ) );
+		actor.onNext( FACTS.get( 0 ) );
+		actor.onError( new IllegalStateException( "test" ) );
+		actor.onNext( FACTS.get( 0 ) );
+		assertThat( "terminated", events,
+				equalTo( Arrays.asList( "next", "error" ) ) );
+	}
+}
@@ -0,0 +1,424 @@
+package io.coala.enterprise;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.eaio.uuid.UUID;
+
+import io.coala.bind.LocalBinder;
+import io.coala.bind.LocalId;
+import io.coala.enterprise.persist.FactDao;
+import io.coala.log.LogUtil;
+import io.coala.math.Range;
+import io.coala.persist.HikariHibernateJPAConfig;
+import io.coala.persist.JPAUtil;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.coala.time.TimeUnits;
+import io.coala.util.MapBuilder;
+import io.reactivex.Observable;
+import io.reactivex.subscribers.DefaultSubscriber;
+
+/**
+ * {@link FactBankJPATest} tests {@link FactBank.WriteBehind} and
+ * {@link FactBank.SimpleJPA} against an in-memory database
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class FactBankJPATest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( FactBankJPATest.class );
+
+	public interface MyJPAConfig extends HikariHibernateJPAConfig
+	{
+		@DefaultValue( "fact_test_pu" ) // match persistence.xml
+		@Key( JPA_UNIT_NAMES_KEY )
+		String[] jpaUnitNames();
+
+		// MVCC, as Fact#persist(EntityManager) inserts in a nested session
+		@DefaultValue( "jdbc:hsqldb:mem:factbankdb;hsqldb.tx=mvcc" )
+		@Key( AvailableSettings.URL )
+		URI jdbcUrl();
+	}
+
+	public interface Sale extends Fact
+	{
+		// empty
+	}
+
+	private static final int BATCH_SIZE = 10;
+
+	private static FactBank.Config config = null;
+
+	private static EntityManagerFactory emf = null;
+
+	private static Scheduler scheduler = null;
+
+	@BeforeClass
+	public static void createEMF()
+	{
+		config = ConfigFactory.create( FactBank.Config.class,
+				MapBuilder.<String, Object>unordered()
+						.put( FactBank.Config.WRITE_BEHIND_CAPACITY_KEY, "100" )
+						.put( FactBank.Config.WRITE_BEHIND_BATCH_SIZE_KEY,
+								"" + BATCH_SIZE )
+						.build() );
+		emf = ConfigFactory.create( MyJPAConfig.class )
+				.createEMF( config.writeBehindJPASettings() );
+		scheduler = TransactionTest.scheduler( 0 );
+	}
+
+	@AfterClass
+	public static void closeEMF()
+	{
+		if( emf != null && emf.isOpen() ) emf.close();
+	}
+
+	/**
+	 * @param context the (test) context, isolating the stored facts
+	 * @param n the number of facts
+	 * @param kind the {@link FactKind} of each fact
+	 * @return a {@link List} of {@link Fact}s in separate transactions
+	 */
+	static List<Fact> facts( final LocalId context, final int n,
+		final FactKind kind )
+	{
+		final Actor.ID initiator = Actor.ID.of( "org1", context ),
+				executor = Actor.ID.of( "org2", context );
+		final List<Fact> result = new ArrayList<>( n );
+		for( int i = 0; i < n; i++ )
+		{
+			final Transaction<Sale> tx = Transaction.of(
+					Transaction.ID.create( context ), Sale.class, initiator,
+					executor, scheduler, TransactionTest.factFactory() );
+			result.add( new Fact.Simple( Fact.ID.create( tx.id() ),
+					Instant.of( i, TimeUnits.DAYS ), tx, kind, null, null,
+					Collections.singletonMap( "price", i ) )
+							.proxyAs( Sale.class, null ) );
+		}
+		return result;
+	}
+
+	/**
+	 * @param context the (test) context
+	 * @return the number of facts stored in given context
+	 */
+	static int count( final LocalId context )
+	{
+		return JPAUtil.session( emf )
+				.map( em -> FactDao.find( em, context.contextRef(), null, null,
+						null, null, null, null, null, null, null, null )
+						.size() )
+				.blockingFirst();
+	}
+
+	/**
+	 * @param context the binder's context
+	 * @return a {@link LocalBinder} providing only what
+	 *         {@link FactDao#restore(LocalBinder)} requires
+	 */
+	static LocalBinder binder( final LocalId context )
+	{
+		final LocalId id = LocalId.of( "bank", context );
+		final Map<Class<?>, Object> bindings = new HashMap<>();
+		bindings.put( Fact.Factory.class, TransactionTest.factFactory() );
+		bindings.put( Transaction.Factory.class,
+				new Transaction.Factory.LocalCaching( scheduler,
+						TransactionTest.factFactory(), null ) );
+		return (LocalBinder) Proxy.newProxyInstance(
+				LocalBinder.class.getClassLoader(),
+				new Class<?>[] { LocalBinder.class }, ( proxy, method, args ) ->
+				{
+					switch( method.getName() )
+					{
+					case "id":
+						return id;
+					case "inject":
+						return bindings.get( args[0] );
+					case "toString":
+						return "binder" + id;
+					default:
+						throw new UnsupportedOperationException(
+								method.getName() );
+					}
+				} );
+	}
+
+	@Test
+	public void testWriteBehindBatching() throws Exception
+	{
+		LOG.info( "Testing write-behind batching" );
+		final LocalId context = LocalId.create();
+		final int n = 5 * BATCH_SIZE + 3;
+		final FactBank.WriteBehind writer = new FactBank.WriteBehind( emf, 100,
+				BATCH_SIZE );
+		for( Fact fact : facts( context, n, FactKind.REQUESTED ) )
+			writer.put( fact );
+		writer.flush();
+		LOG.trace( "Flushed: {}", writer );
+		assertThat( "written", writer.written(), equalTo( (long) n ) );
+		assertThat( "stored", count( context ), equalTo( n ) );
+		assertThat( "batches", writer.batches(),
+				greaterThanOrEqualTo( (long) (n + BATCH_SIZE - 1)
+						/ BATCH_SIZE ) );
+		assertThat( "batches", writer.batches(),
+				lessThanOrEqualTo( (long) n ) );
+		writer.close();
+	}
+
+	@Test
+	public void testWriteBehindClose() throws Exception
+	{
+		LOG.info( "Testing write-behind draining upon close" );
+		final LocalId context = LocalId.create();
+		final int n = 3 * BATCH_SIZE;
+		final FactBank.WriteBehind writer = new FactBank.WriteBehind( emf, 100,
+				BATCH_SIZE );
+		final List<Fact> facts = facts( context, n + 1, FactKind.REQUESTED );
+		for( Fact fact : facts.subList( 0, n ) )
+			writer.put( fact );
+		writer.close(); // no flush
+		assertThat( "written", writer.written(), equalTo( (long) n ) );
+		assertThat( "stored", count( context ), equalTo( n ) );
+		assertThat( "depth", writer.depth(), equalTo( 0 ) );
+		try
+		{
+			writer.put( facts.get( n ) );
+			fail( "should reject facts once closed" );
+		} catch( final IllegalStateException e )
+		{
+			LOG.trace( "Rejected: {}", e.getMessage() );
+		}
+		assertThat( "stored", count( context ), equalTo( n ) );
+	}
+
+	@Test
+	public void testWriteBehindError() throws Exception
+	{
+		LOG.info( "Testing write-behind error propagation" );
+		final LocalId context = LocalId.create();
+		final FactBank.WriteBehind writer = new FactBank.WriteBehind( emf, 100,
+				BATCH_SIZE );
+		writer.put( facts( context, 1, FactKind.REQUESTED ).get( 0 ) );
+		writer.flush();
+		// terminal kinds have no creator, failing to persist
+		writer.put( facts( context, 1, FactKind.ACCEPTED ).get( 0 ) );
+		try
+		{
+			writer.flush();
+			fail( "flush should propagate the persistence failure" );
+		} catch( final NullPointerException e )
+		{
+			LOG.trace( "Flush failed as expected", e );
+		}
+		try
+		{
+			writer.put( facts( context, 1, FactKind.REQUESTED ).get( 0 ) );
+			fail( "put should propagate the persistence failure" );
+		} catch( final NullPointerException e )
+		{
+			LOG.trace( "Put failed as expected: {}", e.getMessage() );
+		}
+		try
+		{
+			writer.close();
+			fail( "close should propagate the persistence failure" );
+		} catch( final NullPointerException e )
+		{
+			LOG.trace( "Close failed as expected: {}", e.getMessage() );
+		}
+		assertThat( "stored", count( context ), equalTo( 1 ) );
+	}
+
+	@Test
+	public void testWriteBehindBackPressure() throws Exception
+	{
+		LOG.info( "Testing write-behind back-pressure" );
+		final LocalId context = LocalId.create();
+		final int capacity = 2, n = 20 * capacity;
+		final FactBank.WriteBehind writer = new FactBank.WriteBehind( emf,
+				capacity, BATCH_SIZE );
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		final List<Fact> facts = facts( context, n, FactKind.REQUESTED );
+		final Thread producer = new Thread( () ->
+		{
+			try
+			{
+				for( Fact fact : facts )
+					writer.put( fact );
+			} catch( final Throwable e )
+			{
+				error.set( e );
+			}
+		}, "producer" );
+		producer.start();
+		producer.join( 60000 );
+		assertThat( "producer done", producer.isAlive(), equalTo( false ) );
+		assertThat( "producer error", error.get(), equalTo( null ) );
+		assertThat( "bounded", writer.maxDepth(),
+				lessThanOrEqualTo( capacity ) );
+		writer.close();
+		LOG.trace( "Closed: {}", writer );
+		assertThat( "stored", count( context ), equalTo( n ) );
+	}
+
+	@Test
+	public void testSimpleJPAClose() throws Exception
+	{
+		LOG.info( "Testing SimpleJPA closing its EMF despite failures" );
+		final LocalId context = LocalId.create();
+		final EntityManagerFactory emf = ConfigFactory
+				.create( MyJPAConfig.class )
+				.createEMF( config.writeBehindJPASettings() );
+		final FactBank.SimpleJPA bank = new FactBank.SimpleJPA(
+				binder( context ), scheduler, emf, config );
+		bank.saveAsync( Observable
+				.fromIterable( facts( context, 1, FactKind.ACCEPTED ) ) )
+				.blockingSubscribe();
+		try
+		{
+			bank.close();
+			fail( "close should propagate the persistence failure" );
+		} catch( final NullPointerException e )
+		{
+			LOG.trace( "Close failed as expected: {}", e.getMessage() );
+		}
+		assertThat( "EMF closed", emf.isOpen(), equalTo( false ) );
+	}
+
+	/**
+	 * @param bank the {@link FactBank} to query
+	 * @param responder the responder filter, or {@code null}
+	 * @param occurrence the occurrence filter, or {@code null}
+	 * @param expiration the expiration filter, or {@code null}
+	 * @return the sorted (unwrapped) {@link Fact.ID}s of matching facts, as
+	 *         restored ids are re-parented into the binder's context
+	 */
+	private static List<UUID> find( final FactBank<?> bank,
+		final Actor.ID responder, final Range<Instant> occurrence,
+		final Range<Instant> expiration )
+	{
+		return bank.find( null, null, null, null, null, null, responder,
+				occurrence, expiration, null ).map( f -> f.id().unwrap() )
+				.toSortedList().blockingGet();
+	}
+
+	@Test
+	public void testSimpleJPAQueries() throws Exception
+	{
+		LOG.info( "Testing SimpleJPA paged and filtered queries" );
+		final LocalId context = LocalId.create();
+		final Actor.ID org1 = Actor.ID.of( "org1", context ),
+				org2 = Actor.ID.of( "org2", context );
+		// requests respond to the executor, statements to the initiator
+		final List<Fact> facts = facts( context, 13, FactKind.REQUESTED );
+		final List<Fact> stated = facts( context, 10, FactKind.STATED );
+		for( int i = 0; i < stated.size(); i++ )
+		{
+			final Fact fact = stated.get( i ); // expiring two days later
+			facts.add( new Fact.Simple( fact.id(), fact.occur(),
+					fact.transaction(), fact.kind(),
+					Instant.of( i + 2, TimeUnits.DAYS ), null )
+							.proxyAs( Sale.class, null ) );
+		}
+		final FactBank.SimpleCache expected = new FactBank.SimpleCache();
+		expected.saveAsync( Observable.fromIterable( facts ) )
+				.blockingSubscribe();
+		final FactBank.SimpleJPA bank = new FactBank.SimpleJPA(
+				binder( context ), scheduler, emf, null );
+		bank.register( Arrays.asList( org1, org2 ) );
+		bank.saveAsync( Observable.fromIterable( facts ) ).blockingSubscribe();
+
+		// keyset pages, in order of insertion (i.e. primary key)
+		final List<UUID> all = facts.stream().map( f -> f.id().unwrap() )
+				.collect( Collectors.toList() );
+		for( int pageSize : new int[] { 1, 5, facts.size() - 1, facts.size(),
+				facts.size() + 1 } )
+			assertThat( "page size " + pageSize,
+					bank.findAsync( pageSize ).map( f -> f.id().unwrap() )
+							.toList().blockingGet(),
+					equalTo( all ) );
+		final List<Fact> requested = new ArrayList<>();
+		bank.findAsync( 5 ).subscribe( new DefaultSubscriber<Fact>()
+		{
+			@Override
+			protected void onStart()
+			{
+				request( 7 ); // crossing a page boundary
+			}
+
+			@Override
+			public void onNext( final Fact fact )
+			{
+				requested.add( fact );
+			}
+
+			@Override
+			public void onError( final Throwable e )
+			{
+				LOG.error( "Paging failed", e );
+			}
+
+			@Override
+			public void onComplete()
+			{
+				fail( "should await further requests" );
+			}
+		} );
+		assertThat( "requested",
+				requested.stream().map( f -> f.id().unwrap() )
+						.collect( Collectors.toList() ),
+				equalTo( all.subList( 0, 7 ) ) );
+
+		// responder filter, distinct from initiator
+		for( Actor.ID responder : new Actor.ID[] { org1, org2 } )
+			assertThat( "responder " + responder,
+					find( bank, responder, null, null ),
+					equalTo( find( expected, responder, null, null ) ) );
+		assertThat( "responder org2", find( bank, org2, null, null ).size(),
+				equalTo( 13 ) );
+
+		// null and (partially) infinite ranges
+		final List<Range<Instant>> ranges = Arrays.asList( null,
+				Range.infinite(),
+				Range.upFrom( Instant.of( 5, TimeUnits.DAYS ), true ),
+				Range.upTo( Instant.of( 5, TimeUnits.DAYS ), false ),
+				Range.of( Instant.of( 2, TimeUnits.DAYS ), true,
+						Instant.of( 8, TimeUnits.DAYS ), false ) );
+		for( Range<Instant> occurrence : ranges )
+			for( Range<Instant> expiration : ranges )
+				assertThat( "occurrence " + occurrence + ", expiration "
+						+ expiration,
+						find( bank, null, occurrence, expiration ),
+						equalTo( find( expected, null, occurrence,
+								expiration ) ) );
+		assertThat( "expiring", find( bank, null, null, Range.infinite() )
+				.size(), equalTo( 10 ) );
+	}
+}
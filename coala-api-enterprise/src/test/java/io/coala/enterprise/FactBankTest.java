@@ -0,0 +1,217 @@
+package io.coala.enterprise;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+import io.coala.math.Range;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.coala.time.TimeUnits;
+import io.reactivex.Observable;
+
+/**
+ * {@link FactBankTest} tests {@link FactBank} implementations against the
+ * reference {@link FactBank.SimpleCache}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class FactBankTest
+{
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( FactBankTest.class );
+
+	public interface Sale extends Fact
+	{
+		// empty
+	}
+
+	public interface Purchase extends Fact
+	{
+		// empty
+	}
+
+	public interface Rental extends Fact
+	{
+		// empty
+	}
+
+	static final List<Class<? extends Fact>> TYPES = java.util.Arrays
+			.asList( Sale.class, Purchase.class, Rental.class );
+
+	static final List<Actor.ID> ACTORS = java.util.Arrays.asList(
+			TransactionTest.INITIATOR, TransactionTest.EXECUTOR,
+			Actor.ID.of( "org3", TransactionTest.CONTEXT ) );
+
+	static final String PRICE = "price";
+
+	private static <T> T any( final Random rng, final List<T> values )
+	{
+		return values.get( rng.nextInt( values.size() ) );
+	}
+
+	private static Instant day( final int day )
+	{
+		return Instant.of( day, TimeUnits.DAYS );
+	}
+
+	/**
+	 * @param rng the (seeded) {@link Random} generator
+	 * @param n the number of transactions
+	 * @return {@link Fact}s of several types, actors, kinds, causes, instants
+	 *         and properties, with and without expiration
+	 */
+	static List<Fact> facts( final Random rng, final int n )
+	{
+		final Scheduler scheduler = TransactionTest.scheduler( 0 );
+		final List<Fact> result = new ArrayList<>();
+		for( int i = 0; i < n; i++ )
+		{
+			final Actor.ID initiator = any( rng, ACTORS ),
+					executor = any( rng, ACTORS );
+			final Transaction<?> tx = Transaction.of(
+					Transaction.ID.create( TransactionTest.CONTEXT ),
+					any( rng, TYPES ), initiator, executor, scheduler,
+					TransactionTest.factFactory() );
+			Fact.ID cause = null;
+			for( int j = rng.nextInt( 4 ); j >= 0; j-- )
+			{
+				final int occur = rng.nextInt( 10 );
+				final Fact fact = new Fact.Simple( Fact.ID.create( tx.id() ),
+						day( occur ), tx, any( rng, FACT_KINDS ),
+						rng.nextBoolean() ? null
+								: day( occur + rng.nextInt( 5 ) ),
+						cause, rng.nextBoolean() ? Collections.emptyMap()
+								: Collections.singletonMap( PRICE,
+										rng.nextInt( 3 ) ) );
+				result.add( fact );
+				cause = fact.id();
+			}
+		}
+		return result;
+	}
+
+	/** kinds with a creator role, as required for persistence */
+	static final List<FactKind> FACT_KINDS = java.util.Arrays
+			.stream( FactKind.values() )
+			.filter( kind -> kind.responderRoleKind() != null )
+			.collect( java.util.stream.Collectors.toList() );
+
+	private static Range<Instant> range( final Random rng )
+	{
+		final Integer lower = rng.nextBoolean() ? null : rng.nextInt( 12 );
+		final Integer upper = rng.nextBoolean() ? null
+				: (lower == null ? 0 : lower) + 1 + rng.nextInt( 6 );
+		return Range.of( lower == null ? null : day( lower ),
+				lower != null && rng.nextBoolean(),
+				upper == null ? null : day( upper ),
+				upper != null && rng.nextBoolean() );
+	}
+
+	private static List<Fact.ID> find( final FactBank<?> bank,
+		final Object[] q )
+	{
+		@SuppressWarnings( "unchecked" )
+		final Observable<Fact> facts = (Observable<Fact>) bank.find(
+				(Class<?>) q[0], (Actor.ID) q[1], (Actor.ID) q[2],
+				(FactKind) q[3], (Fact.ID) q[4], (Actor.ID) q[5],
+				(Actor.ID) q[6], (Range<Instant>) q[7], (Range<Instant>) q[8],
+				(Map<String, Object>) q[9] );
+		return facts.map( Fact::id ).toList().blockingGet();
+	}
+
+	@Test
+	public void testSimpleIndexed() throws Exception
+	{
+		LOG.info( "Testing SimpleIndexed against SimpleCache" );
+		final Random rng = new Random( 1234 );
+		final List<Fact> facts = facts( rng, 200 );
+		final FactBank.SimpleCache expected = new FactBank.SimpleCache();
+		final FactBank.SimpleIndexed actual = new FactBank.SimpleIndexed();
+		expected.saveAsync( Observable.fromIterable( facts ) )
+				.blockingSubscribe();
+		actual.saveAsync( Observable.fromIterable( facts ) )
+				.blockingSubscribe();
+
+		// single filter dimensions, then random combinations
+		int nonEmpty = 0;
+		for( int i = 0; i < 2000; i++ )
+		{
+			final Object[] q = new Object[10];
+			final double p = i < 200 ? -1 : .6;
+			final int single = i % q.length;
+			for( int d = 0; d < q.length; d++ )
+			{
+				if( d != single && rng.nextDouble() > p ) continue;
+				final Fact fact = any( rng, facts );
+				switch( d )
+				{
+				case 0:
+					q[d] = fact.transaction().kind();
+					break;
+				case 1:
+					q[d] = fact.transaction().initiatorRef();
+					break;
+				case 2:
+					q[d] = fact.transaction().executorRef();
+					break;
+				case 3:
+					q[d] = fact.kind();
+					break;
+				case 4:
+					q[d] = fact.causeRef();
+					break;
+				case 5:
+					q[d] = fact.creatorRef();
+					break;
+				case 6:
+					q[d] = fact.responderRef();
+					break;
+				case 7:
+				case 8:
+					q[d] = range( rng );
+					break;
+				default:
+					q[d] = Collections.singletonMap( PRICE,
+							rng.nextInt( 4 ) );
+				}
+			}
+			final List<Fact.ID> result = find( actual, q );
+			assertThat( "query " + java.util.Arrays.asList( q ), result,
+					equalTo( find( expected, q ) ) );
+			if( !result.isEmpty() ) nonEmpty++;
+		}
+		LOG.trace( "Non-empty results: {}", nonEmpty );
+		assertThat( "matches", nonEmpty, greaterThan( 200 ) );
+
+		// re-saved facts update the indexes
+		final List<Fact.ID> before = find( actual, new Object[] { null, null,
+				null, FactKind.REQUESTED, null, null, null, null, null, null } );
+		actual.saveAsync( Observable.fromIterable( facts ) ).blockingSubscribe();
+		assertThat( "re-indexed", find( actual, new Object[] { null, null,
+				null, FactKind.REQUESTED, null, null, null, null, null, null } ),
+				equalTo( before ) );
+
+		// terminal kinds are indexed without creator
+		final Fact accepted = new Fact.Simple(
+				Fact.ID.create( facts.get( 0 ).transaction().id() ), day( 0 ),
+				facts.get( 0 ).transaction(), FactKind.ACCEPTED, null, null );
+		actual.saveAsync( Observable.just( accepted ) ).blockingSubscribe();
+		assertThat( "terminal", find( actual, new Object[] { null, null, null,
+				FactKind.ACCEPTED, null, null, null, null, null, null } ),
+				equalTo( Collections.singletonList( accepted.id() ) ) );
+		expected.close();
+		actual.close();
+	}
+}
@@ -0,0 +1,310 @@
+package io.coala.enterprise;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.inject.Inject;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.bind.LocalBinder;
+import io.coala.log.LogUtil;
+import io.coala.time.ConservativeRunner;
+import io.coala.time.Duration;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.coala.util.MapBuilder;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * {@link FactExchangeTest} tests {@link FactExchange.Routing} and
+ * {@link FactExchange.Partitioned} against the reference
+ * {@link FactExchange.SimpleBus}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class FactExchangeTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( FactExchangeTest.class );
+
+	public interface Sale extends Fact
+	{
+		// empty
+	}
+
+	private static final Scheduler SCHEDULER = TransactionTest.scheduler( 0 );
+
+	private static final List<Actor.ID> ORGS = Arrays.asList(
+			TransactionTest.INITIATOR, TransactionTest.EXECUTOR,
+			Actor.ID.of( "org3", TransactionTest.CONTEXT ) );
+
+	/** @return a {@link LocalBinder} providing only new {@link Actor}s */
+	private static LocalBinder binder()
+	{
+		return (LocalBinder) Proxy.newProxyInstance(
+				LocalBinder.class.getClassLoader(),
+				new Class<?>[] { LocalBinder.class }, ( proxy, method, args ) ->
+				{
+					if( method.getName().equals( "inject" )
+							&& args[0] == Actor.Simple.class )
+						return new Actor.Simple();
+					throw new UnsupportedOperationException(
+							method.getName() );
+				} );
+	}
+
+	private static Fact fact( final Actor.ID initiator,
+		final Actor.ID executor, final FactKind kind )
+	{
+		final Transaction<Sale> tx = Transaction.of(
+				Transaction.ID.create( TransactionTest.CONTEXT ), Sale.class,
+				initiator, executor, SCHEDULER, TransactionTest.factFactory() );
+		return new Fact.Simple( Fact.ID.create( tx.id() ), Instant.ZERO, tx,
+				kind, null, null ).proxyAs( Sale.class, null );
+	}
+
+	/**
+	 * @return {@link Fact}s between (and within) all organizations, from
+	 *         initiators (requests) as well as executors (statements)
+	 */
+	private static List<Fact> facts()
+	{
+		final List<Fact> result = new ArrayList<>();
+		for( Actor.ID initiator : ORGS )
+			for( Actor.ID executor : ORGS )
+				for( FactKind kind : new FactKind[] { FactKind.REQUESTED,
+						FactKind.STATED } )
+					result.add( fact( initiator, executor, kind ) );
+		return result;
+	}
+
+	/**
+	 * registers an {@link Actor} per organization, sends all facts from
+	 * their creators, and logs each delivery and snif in order
+	 *
+	 * @param exchange the {@link FactExchange} to test
+	 * @param facts the {@link Fact}s to send
+	 * @return the deliveries and snifs, in order
+	 */
+	private static List<String> exchange( final FactExchange exchange,
+		final List<Fact> facts )
+	{
+		final LocalBinder binder = binder();
+		final List<String> result = new ArrayList<>();
+		final Map<Actor.ID, Actor.Simple> actors = new TreeMap<>();
+		for( Actor.ID org : ORGS )
+		{
+			final Actor.Simple actor = Actor.Simple.of( binder, org, null );
+			actor.emitFacts().subscribe(
+					f -> result.add( org.unwrap() + ":" + f.id() ) );
+			exchange.register( actor );
+			actors.put( org, actor );
+		}
+		exchange.snif().subscribe( f -> result.add( "snif:" + f.id() ) );
+		for( Fact fact : facts )
+			actors.get( fact.creatorRef().organizationRef() ).onNext( fact );
+		return result;
+	}
+
+	@Test
+	public void testRouting()
+	{
+		LOG.info( "Testing Routing against SimpleBus" );
+		final List<Fact> facts = facts();
+		final List<String> expected = exchange( new FactExchange.SimpleBus(),
+				facts );
+		final List<String> actual = exchange( new FactExchange.Routing(),
+				facts );
+		LOG.trace( "Exchanged: {}", actual );
+		assertThat( "deliveries and snifs", actual, equalTo( expected ) );
+		// internal facts are neither delivered nor snifed
+		assertThat( "snifs", actual.stream()
+				.filter( s -> s.startsWith( "snif:" ) ).count(),
+				equalTo( (long) facts.size() - 2 * ORGS.size() ) );
+	}
+
+	@Test
+	public void testRoutingReplace()
+	{
+		LOG.info( "Testing Routing rejecting replacements" );
+		final LocalBinder binder = binder();
+		final FactExchange.Routing routing = new FactExchange.Routing();
+		final Actor.Simple actor = Actor.Simple.of( binder,
+				TransactionTest.EXECUTOR, null ),
+				other = Actor.Simple.of( binder, TransactionTest.EXECUTOR,
+						null );
+		final List<Disposable> subs = routing.register( actor );
+		routing.register( actor ); // idempotent
+		try
+		{
+			routing.register( other );
+			fail( "should reject another actor for the same organization" );
+		} catch( final IllegalStateException e )
+		{
+			LOG.trace( "Rejected: {}", e.getMessage() );
+		}
+		subs.forEach( Disposable::dispose );
+		routing.register( other, FactExchange.Direction.IN );
+
+		final List<String> received = new ArrayList<>();
+		actor.emitFacts().subscribe( f -> received.add( "actor:" + f.id() ) );
+		other.emitFacts().subscribe( f -> received.add( "other:" + f.id() ) );
+		final Actor.Simple initiator = Actor.Simple.of( binder,
+				TransactionTest.INITIATOR, null );
+		routing.register( initiator, FactExchange.Direction.OUT );
+		final Fact request = fact( TransactionTest.INITIATOR,
+				TransactionTest.EXECUTOR, FactKind.REQUESTED );
+		initiator.onNext( request );
+		assertThat( "replaced", received,
+				equalTo( Arrays.asList( "other:" + request.id() ) ) );
+	}
+
+	/**
+	 * @param bindings the instances to inject by type, e.g. per partition
+	 * @return a {@link LocalBinder} providing new {@link Actor}s with their
+	 *         {@link Inject} fields set from the bindings (and itself)
+	 */
+	private static LocalBinder binder( final Map<Class<?>, Object> bindings )
+	{
+		final LocalBinder result = (LocalBinder) Proxy.newProxyInstance(
+				LocalBinder.class.getClassLoader(),
+				new Class<?>[] { LocalBinder.class }, ( proxy, method, args ) ->
+				{
+					if( method.getName().equals( "inject" )
+							&& args[0] == Actor.Simple.class )
+					{
+						final Actor.Simple actor = new Actor.Simple();
+						for( Field field : Actor.Simple.class
+								.getDeclaredFields() )
+							if( field.isAnnotationPresent( Inject.class ) )
+							{
+								field.setAccessible( true );
+								field.set( actor,
+										bindings.get( field.getType() ) );
+							}
+						return actor;
+					}
+					throw new UnsupportedOperationException(
+							method.getName() );
+				} );
+		bindings.put( LocalBinder.class, result );
+		return result;
+	}
+
+	/**
+	 * creates an {@link Actor} per organization in partition
+	 * {@code org % partitions}, where each sends a request to every other
+	 * organization and responds to the first request received from each with
+	 * a request in return, logging each request received by the
+	 * {@link FactExchange} in order
+	 *
+	 * @param exchange the {@link FactExchange} shared by all partitions
+	 * @param schedulers the {@link Scheduler} of each partition
+	 * @param received the received requests, as "receiver<-sender@time"
+	 */
+	private static void model( final FactExchange exchange,
+		final Scheduler[] schedulers, final List<String> received )
+	{
+		final Actor.Factory[] factories = new Actor.Factory[schedulers.length];
+		for( int i = 0; i < schedulers.length; i++ )
+		{
+			final Map<Class<?>, Object> bindings = new HashMap<>();
+			bindings.put( Scheduler.class, schedulers[i] );
+			bindings.put( Transaction.Factory.class,
+					new Transaction.Factory.LocalCaching( schedulers[i],
+							TransactionTest.factFactory(), null ) );
+			factories[i] = new Actor.Factory.LocalCaching( binder( bindings ),
+					exchange );
+		}
+		for( int i = 0; i < ORGS.size(); i++ )
+		{
+			final Actor.ID org = ORGS.get( i );
+			final Actor<Fact> actor = factories[i % schedulers.length]
+					.create( org );
+			final Set<Actor.ID> replied = new HashSet<>();
+			actor.emit( Sale.class, FactKind.REQUESTED )
+					.filter( rq -> rq.isIncoming( org ) ).subscribe( rq ->
+					{
+						final Actor.ID sender = rq.creatorRef()
+								.organizationRef();
+						received.add( org.unwrap() + "<-" + sender.unwrap()
+								+ "@" + actor.now().value() );
+						if( replied.add( sender ) ) actor
+								.initiate( Sale.class, sender, rq.id() ).commit();
+					} );
+			actor.scheduler().onReset( s ->
+			{
+				for( Actor.ID other : ORGS )
+					if( !other.equals( org ) )
+						actor.initiate( Sale.class, other ).commit();
+			} );
+		}
+	}
+
+	@Test
+	public void testPartitioned()
+	{
+		LOG.info( "Testing Partitioned against SimpleBus" );
+		final List<String> expected = new ArrayList<>();
+		final Scheduler sequential = TransactionTest.scheduler( 0 );
+		model( new FactExchange.SimpleBus(), new Scheduler[] { sequential },
+				expected );
+		sequential.run();
+
+		final Scheduler[] partitions = new Scheduler[ORGS.size()];
+		for( int i = 0; i < partitions.length; i++ )
+			partitions[i] = TransactionTest.scheduler( 0 );
+		final FactExchange.Partitioned exchange = new FactExchange.Partitioned(
+				partitions[0],
+				ConfigFactory.create( FactExchange.Config.class,
+						MapBuilder.<String, Object>unordered()
+								.put( FactExchange.Config.LOOKAHEAD_KEY, "2" )
+								.build() ) );
+		assertThat( "lookahead", exchange.lookahead(), equalTo(
+				Duration.of( 2, partitions[0].timeUnit() ) ) );
+		final List<String> actual = Collections
+				.synchronizedList( new ArrayList<>() );
+		model( exchange, partitions, actual );
+		final ConservativeRunner runner = exchange.runner( partitions );
+		runner.run();
+		LOG.trace( "Received {} requests in {} windows: {}", actual.size(),
+				runner.windows(), actual );
+
+		// SimpleBus delivers immediately, Partitioned after each lookahead
+		final List<String> sent = new ArrayList<>(),
+				delivered = new ArrayList<>();
+		for( String s : expected )
+			sent.add( s.substring( 0, s.indexOf( '@' ) ) );
+		for( String s : actual )
+		{
+			delivered.add( s.substring( 0, s.indexOf( '@' ) ) );
+			assertThat( "delayed", Double.valueOf( s
+					.substring( s.indexOf( '@' ) + 1 ) ).doubleValue(),
+					greaterThan( 0d ) );
+		}
+		Collections.sort( sent );
+		Collections.sort( delivered );
+		assertThat( "requests received", sent.size(),
+				equalTo( 2 * ORGS.size() * (ORGS.size() - 1) ) );
+		assertThat( "same requests received", delivered, equalTo( sent ) );
+	}
+}
@@ -0,0 +1,354 @@
+package io.coala.enterprise;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.bind.LocalId;
+import io.coala.function.ThrowingConsumer;
+import io.coala.log.LogUtil;
+import io.coala.time.Checkpoint;
+import io.coala.time.EventListScheduler;
+import io.coala.time.Instant;
+import io.coala.time.Scheduler;
+import io.coala.time.SchedulerConfig;
+import io.coala.util.MapBuilder;
+
+/**
+ * {@link TransactionTest} tests the {@link Transaction.Factory.LocalCaching}
+ * registry
+ * 
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class TransactionTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( TransactionTest.class );
+
+	public interface Sale extends Fact
+	{
+		// empty
+	}
+
+	static final LocalId CONTEXT = LocalId.create();
+
+	static final Actor.ID INITIATOR = Actor.ID.of( "org1", CONTEXT );
+
+	static final Actor.ID EXECUTOR = Actor.ID.of( "org2", CONTEXT );
+
+	static Fact.Factory factFactory()
+	{
+		return new Fact.Factory()
+		{
+			@Override
+			public LocalId ownerRef()
+			{
+				return CONTEXT;
+			}
+
+			@Override
+			public FactBank<?> factBank()
+			{
+				return null;
+			}
+
+			@Override
+			public <F extends Fact> F create( final Class<F> tranKind,
+				final Fact.ID id, final Transaction<? super F> transaction,
+				final FactKind factKind, final Instant occurrence,
+				final Instant expiration, final Fact.ID causeRef,
+				final Map<?, ?>... params )
+			{
+				return new Fact.Simple( id, occurrence, transaction, factKind,
+						expiration, causeRef, params ).proxyAs( tranKind,
+								null );
+			}
+		};
+	}
+
+	/**
+	 * @param parallelism the number of worker threads, or 0
+	 * @return a new {@link Scheduler}
+	 */
+	static Scheduler scheduler( final int parallelism )
+	{
+		return new EventListScheduler( SchedulerConfig.create( MapBuilder
+				.<String, Object>unordered()
+				.put( SchedulerConfig.ID_KEY, "tx-test" )
+				.put( SchedulerConfig.DURATION_KEY, "100" )
+				.put( SchedulerConfig.PARALLELISM_KEY, "" + parallelism )
+				.build() ) );
+	}
+
+	/**
+	 * @param capacity the registry capacity, or 0
+	 * @param idle the registry idle time, or 0
+	 * @param model the model to run at t=0
+	 * @return the {@link Transaction.Factory.LocalCaching} registry
+	 */
+	private static Transaction.Factory.LocalCaching run( final int capacity,
+		final int idle,
+		final ThrowingConsumer<Transaction.Factory.LocalCaching, ?> model )
+	{
+		final Scheduler scheduler = scheduler( 0 );
+		final Transaction.Factory.LocalCaching registry = new Transaction.Factory.LocalCaching(
+				scheduler, factFactory(),
+				ConfigFactory.create( Transaction.Config.class,
+						MapBuilder.<String, Object>unordered()
+								.put( Transaction.Config.REGISTRY_CAPACITY_KEY,
+										"" + capacity )
+								.put( Transaction.Config.REGISTRY_IDLE_KEY,
+										"" + idle )
+								.build() ) );
+		scheduler.onReset( s -> model.accept( registry ) );
+		scheduler.run();
+		LOG.trace( "Registry after run: {}", registry );
+		return registry;
+	}
+
+	private static Transaction<Sale>
+		create( final Transaction.Factory factory, final Transaction.ID id )
+	{
+		return factory.create( id, Sale.class, INITIATOR, EXECUTOR );
+	}
+
+	@Test
+	public void testCapacityEviction()
+	{
+		final List<Transaction<?>> txs = new ArrayList<>();
+		final Transaction.ID[] ids = { Transaction.ID.create( CONTEXT ),
+				Transaction.ID.create( CONTEXT ),
+				Transaction.ID.create( CONTEXT ) };
+		final int[] live = new int[2];
+		final Transaction.Factory.LocalCaching registry = run( 2, 0, r ->
+		{
+			for( Transaction.ID id : ids )
+				txs.add( create( r, id ) );
+			live[0] = r.liveCount();
+			// still referenced, so restored rather than re-created
+			txs.add( create( r, ids[0] ) );
+			live[1] = r.liveCount();
+		} );
+		assertThat( "capacity", live[0], equalTo( 2 ) );
+		assertThat( "restored", txs.get( 3 ), sameInstance( txs.get( 0 ) ) );
+		assertThat( "capacity", live[1], equalTo( 2 ) );
+		assertThat( "evictions", registry.evictions(), equalTo( 2L ) );
+	}
+
+	@Test
+	public void testRehydrate()
+	{
+		final Transaction.ID id = Transaction.ID.create( CONTEXT );
+		final List<String> rejections = new ArrayList<>();
+		final boolean[] collected = { false };
+		run( 1, 0, r ->
+		{
+			final Fact.ID factId = Fact.ID.create( id );
+			final WeakReference<Transaction<Sale>> evicted = new WeakReference<>(
+					commitRequest( r, id, factId ) );
+			create( r, Transaction.ID.create( CONTEXT ) ); // evicts
+			for( int i = 0; i < 10 && evicted.get() != null; i++ )
+				System.gc();
+			collected[0] = evicted.get() == null;
+
+			// late reply: rehydrated (or restored) commit history
+			final Transaction<Sale> tx = create( r, id );
+			try
+			{
+				tx.commit( factFactory().create( Sale.class, factId, tx,
+						FactKind.REQUESTED, null, null ) );
+			} catch( final IllegalStateException e )
+			{
+				rejections.add( e.getMessage() );
+			}
+			try
+			{
+				tx.generate( FactKind.REQUESTED, null, null );
+			} catch( final IllegalStateException e )
+			{
+				rejections.add( e.getMessage() );
+			}
+		} );
+		LOG.trace( "Collected: {}, rejected: {}", collected[0], rejections );
+		assertThat( "rejections", rejections.size(), equalTo( 2 ) );
+		assertThat( "re-commit", rejections.get( 0 ),
+				containsString( "Already committed" ) );
+		assertThat( "re-initiate", rejections.get( 1 ),
+				containsString( "Already initiated" ) );
+	}
+
+	/** @return a new {@link Transaction} after committing its request */
+	private static Transaction<Sale> commitRequest(
+		final Transaction.Factory factory, final Transaction.ID id,
+		final Fact.ID factId )
+	{
+		final Transaction<Sale> tx = create( factory, id );
+		tx.generate( FactKind.REQUESTED, null, null ); // initiates
+		tx.commit( factFactory().create( Sale.class, factId, tx,
+				FactKind.REQUESTED, null, null ) );
+		return tx;
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception
+	{
+		final Transaction.ID id = Transaction.ID.create( INITIATOR );
+		final Fact.ID factId = Fact.ID.create( id );
+		final List<Instant> expired = new ArrayList<>();
+		final EventListScheduler warmup = (EventListScheduler) scheduler( 0 );
+		final Transaction.Factory.LocalCaching original = new Transaction.Factory.LocalCaching(
+				warmup, factFactory(), null );
+		warmup.onReset( s ->
+		{
+			final Transaction<Sale> tx = create( original, id );
+			tx.generate( FactKind.REQUESTED, null, null ); // initiates
+			tx.commit( factFactory().create( Sale.class, factId, tx,
+					FactKind.REQUESTED, s.now().add( 5 ), null ),
+					() -> expired.add( tx.now() ) );
+		} );
+		warmup.resumeBefore( 2 );
+
+		// expirations are keyed by fact id, so no longer anonymous
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		warmup.checkpoint().write( file );
+		final Checkpoint checkpoint = Checkpoint
+				.read( new ByteArrayInputStream( file.toByteArray() ) );
+		assertThat( "pending expiration", checkpoint.size(), equalTo( 1 ) );
+		warmup.resume();
+		assertThat( "expired", expired.size(), equalTo( 1 ) );
+
+		final EventListScheduler resumed = (EventListScheduler) scheduler( 0 );
+		final Transaction.Factory.LocalCaching restored = new Transaction.Factory.LocalCaching(
+				resumed, factFactory(), null );
+		resumed.restore( checkpoint );
+		resumed.resumeBefore( 3 );
+		assertThat( "restored", restored.liveCount(), equalTo( 1 ) );
+		final Transaction<Sale> tx = create( restored, id );
+		assertThat( "expecting", tx.isExpecting(), equalTo( true ) );
+		final List<String> rejections = new ArrayList<>();
+		try
+		{
+			tx.commit( factFactory().create( Sale.class, factId, tx,
+					FactKind.REQUESTED, null, null ) );
+		} catch( final IllegalStateException e )
+		{
+			rejections.add( e.getMessage() );
+		}
+		try
+		{
+			tx.generate( FactKind.REQUESTED, null, null );
+		} catch( final IllegalStateException e )
+		{
+			rejections.add( e.getMessage() );
+		}
+		resumed.resume();
+		LOG.trace( "Rejected: {}", rejections );
+		assertThat( "rejections", rejections.size(), equalTo( 2 ) );
+		assertThat( "re-commit", rejections.get( 0 ),
+				containsString( "Already committed" ) );
+		assertThat( "re-initiate", rejections.get( 1 ),
+				containsString( "Already initiated" ) );
+		assertThat( "restored expiration occurred", tx.isExpecting(),
+				equalTo( false ) );
+	}
+
+	@Test
+	public void testExpectingNotEvicted()
+	{
+		final int[] live = new int[2];
+		run( 1, 0, r ->
+		{
+			final Transaction<Sale> tx = create( r,
+					Transaction.ID.create( CONTEXT ) );
+			tx.commit( tx.generate( FactKind.REQUESTED, null,
+					tx.now().add( 50 ) ) );
+			create( r, Transaction.ID.create( CONTEXT ) );
+			live[0] = r.liveCount();
+			create( r, Transaction.ID.create( CONTEXT ) );
+			live[1] = r.liveCount();
+		} );
+		assertThat( "expecting retained", live[0], equalTo( 2 ) );
+		assertThat( "idle evicted", live[1], equalTo( 2 ) );
+	}
+
+	@Test
+	public void testIdleSweep()
+	{
+		final int[] live = new int[2];
+		final Transaction.ID idleId = Transaction.ID.create( CONTEXT );
+		final Transaction.Factory.LocalCaching registry = run( 0, 5, r ->
+		{
+			create( r, idleId );
+			final Transaction<Sale> expecting = create( r,
+					Transaction.ID.create( CONTEXT ) );
+			expecting.commit( expecting.generate( FactKind.REQUESTED, null,
+					expecting.now().add( 50 ) ) );
+			live[0] = r.liveCount();
+			expecting.after( 10 ).call( t ->
+			{
+				create( r, Transaction.ID.create( CONTEXT ) ); // sweeps
+				live[1] = r.liveCount();
+			} );
+		} );
+		assertThat( "registered", live[0], equalTo( 2 ) );
+		assertThat( "idle evicted", live[1], equalTo( 2 ) );
+		assertThat( "evictions", registry.evictions(), equalTo( 1L ) );
+	}
+
+	@Test
+	public void testConcurrentParties()
+	{
+		final int n = 500;
+		final Scheduler scheduler = scheduler( 2 );
+		final Transaction<Sale> tx = Transaction.of(
+				Transaction.ID.create( CONTEXT ), Sale.class, INITIATOR,
+				EXECUTOR, scheduler, factFactory() );
+		final AtomicInteger commits = new AtomicInteger();
+		final AtomicInteger rejected = new AtomicInteger();
+		final List<Sale> facts = Collections
+				.synchronizedList( new ArrayList<>() );
+		tx.commits().subscribe( f -> commits.incrementAndGet() );
+		scheduler.onReset( s ->
+		{
+			final Sale rq = tx.commit(
+					tx.generate( FactKind.REQUESTED, null, null ) );
+			// both parties commit at the same instant, in parallel
+			for( Actor.ID party : new Actor.ID[] { INITIATOR, EXECUTOR } )
+				s.post( s.now().add( 1 ), party.organizationRef(), t ->
+				{
+					for( int i = 0; i < n; i++ )
+						facts.add( tx.commit( tx.generate( FactKind.STATED,
+								rq.id(), t.add( 10 ) ) ) );
+				} );
+			s.after( 2 ).call( t -> facts.forEach( f ->
+			{
+				try
+				{
+					tx.commit( f );
+				} catch( final IllegalStateException e )
+				{
+					rejected.incrementAndGet();
+				}
+			} ) );
+		} );
+		scheduler.run();
+		assertThat( "all committed", commits.get(), equalTo( 1 + 2 * n ) );
+		assertThat( "all recorded", rejected.get(), equalTo( 2 * n ) );
+	}
+}
@@ -0,0 +1,467 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import org.apache.logging.log4j.Logger;
+
+import io.coala.exception.Thrower;
+import io.coala.log.LogUtil;
+import io.coala.math.QuantityUtil;
+
+/**
+ * {@link AccumulatorBank} is a vectorized alternative to many individual
+ * {@link Accumulator}s, holding the amounts and (piecewise constant) rates of
+ * its accumulators as primitive arrays in fixed {@link #amountUnit() amount}
+ * and {@link #timeUnit() time} units, so amounts evaluate in closed form
+ * without {@link Quantity} arithmetic. Each accumulator's thresholds are kept
+ * sorted, and only its next crossing is scheduled; this crossing is
+ * rescheduled only if its time actually changes, e.g. upon some
+ * {@link #setRate rate} or {@link #setAmount amount} change
+ *
+ * @param <Q> the type of accumulated {@link Quantity}
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class AccumulatorBank<Q extends Quantity<Q>> implements Proactive
+{
+
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( AccumulatorBank.class );
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * @param scheduler the {@link Scheduler}
+	 * @param amountUnit the {@link Unit} of accumulated amounts
+	 * @return a new {@link AccumulatorBank}, with rates in amount units per
+	 *         {@link Scheduler#timeUnit() base time unit}
+	 */
+	public static <Q extends Quantity<Q>> AccumulatorBank<Q>
+		of( final Scheduler scheduler, final Unit<Q> amountUnit )
+	{
+		return new AccumulatorBank<>( scheduler, amountUnit );
+	}
+
+	private final Scheduler scheduler;
+
+	private final Unit<Q> amountUnit;
+
+	private final Unit<?> timeUnit;
+
+	private final Unit<?> rateUnit;
+
+	private int size = 0;
+
+	/** the amounts as of {@link #since} */
+	private double[] amount = new double[INITIAL_CAPACITY];
+
+	/** the ticks at which {@link #amount}s were last (re)based */
+	private double[] since = new double[INITIAL_CAPACITY];
+
+	/** the rates of change per tick */
+	private double[] rate = new double[INITIAL_CAPACITY];
+
+	/** the scheduled crossing ticks, or {@link Double#NaN} if none */
+	private double[] due = new double[INITIAL_CAPACITY];
+
+	private Expectation[] pending = new Expectation[INITIAL_CAPACITY];
+
+	/** the sorted threshold levels per accumulator */
+	private double[][] levels = new double[INITIAL_CAPACITY][];
+
+	private Consumer<Instant>[][] observers = newObservers(
+			INITIAL_CAPACITY );
+
+	private int[] thresholds = new int[INITIAL_CAPACITY];
+
+	private long reschedules = 0;
+
+	public AccumulatorBank( final Scheduler scheduler,
+		final Unit<Q> amountUnit )
+	{
+		this.scheduler = scheduler;
+		this.amountUnit = amountUnit;
+		this.timeUnit = scheduler.timeUnit();
+		this.rateUnit = amountUnit.divide( this.timeUnit );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static Consumer<Instant>[][] newObservers( final int capacity )
+	{
+		return new Consumer[capacity][];
+	}
+
+	@Override
+	public Scheduler scheduler()
+	{
+		return this.scheduler;
+	}
+
+	/** @return the {@link Unit} of accumulated amounts */
+	public Unit<Q> amountUnit()
+	{
+		return this.amountUnit;
+	}
+
+	/** @return the {@link Unit} of time, i.e. rates are per time unit */
+	public Unit<?> timeUnit()
+	{
+		return this.timeUnit;
+	}
+
+	/** @return the number of accumulators */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/** @return the number of crossings (re)scheduled so far */
+	public long reschedules()
+	{
+		return this.reschedules;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[" + this.size + " x "
+				+ this.amountUnit + "|t=" + now() + "]";
+	}
+
+	/** @return the current tick, in {@link #timeUnit()} */
+	private double tick()
+	{
+		final Instant t = now();
+		final Unit<?> unit = t.unit();
+		return unit.equals( this.timeUnit ) || unit.equals( TimeUnits.STEPS )
+				? t.value().doubleValue()
+				: QuantityUtil.toNumber( t.unwrap(), this.timeUnit )
+						.doubleValue();
+	}
+
+	private void ensureCapacity( final int capacity )
+	{
+		if( capacity <= this.amount.length ) return;
+		final int n = Math.max( capacity, this.amount.length << 1 );
+		this.amount = Arrays.copyOf( this.amount, n );
+		this.since = Arrays.copyOf( this.since, n );
+		this.rate = Arrays.copyOf( this.rate, n );
+		this.due = Arrays.copyOf( this.due, n );
+		this.pending = Arrays.copyOf( this.pending, n );
+		this.levels = Arrays.copyOf( this.levels, n );
+		this.observers = Arrays.copyOf( this.observers, n );
+		this.thresholds = Arrays.copyOf( this.thresholds, n );
+	}
+
+	/**
+	 * @param initialAmount the initial amount, in {@link #amountUnit()}
+	 * @param initialRate the initial rate, in {@link #amountUnit()} per
+	 *            {@link #timeUnit()}
+	 * @return the index of the new accumulator
+	 */
+	public int add( final double initialAmount, final double initialRate )
+	{
+		ensureCapacity( this.size + 1 );
+		final int i = this.size++;
+		this.amount[i] = initialAmount;
+		this.since[i] = tick();
+		this.rate[i] = initialRate;
+		this.due[i] = Double.NaN;
+		this.levels[i] = new double[2];
+		this.observers[i] = newObserverRow( 2 );
+		return i;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static Consumer<Instant>[] newObserverRow( final int capacity )
+	{
+		return new Consumer[capacity];
+	}
+
+	/**
+	 * @param initialAmount the initial amount
+	 * @param initialRate the initial rate, some amount per time
+	 * @return the index of the new accumulator
+	 */
+	public int add( final Quantity<Q> initialAmount,
+		final Quantity<?> initialRate )
+	{
+		return add( toAmount( initialAmount ), toRate( initialRate ) );
+	}
+
+	private double toAmount( final Quantity<Q> amount )
+	{
+		return QuantityUtil.toNumber( amount, this.amountUnit ).doubleValue();
+	}
+
+	private double toRate( final Quantity<?> rate )
+	{
+		return QuantityUtil.toNumber( rate, this.rateUnit ).doubleValue();
+	}
+
+	private void checkIndex( final int i )
+	{
+		if( i < 0 || i >= this.size )
+			Thrower.throwNew( IndexOutOfBoundsException::new,
+					() -> "Accumulator " + i + " not in [0," + this.size
+							+ ")" );
+	}
+
+	private double amountAt( final int i, final double tick )
+	{
+		return this.amount[i] + this.rate[i] * (tick - this.since[i]);
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @return the current amount, in {@link #amountUnit()}
+	 */
+	public double amount( final int i )
+	{
+		checkIndex( i );
+		return amountAt( i, tick() );
+	}
+
+	/**
+	 * evaluates all amounts in closed form at once
+	 *
+	 * @param result the array to fill, or {@code null} to allocate
+	 * @return the current amounts, in {@link #amountUnit()}
+	 */
+	public double[] amounts( final double[] result )
+	{
+		final double t = tick();
+		final double[] amounts = result != null && result.length >= this.size
+				? result : new double[this.size];
+		final double[] amount = this.amount, rate = this.rate,
+				since = this.since;
+		for( int i = 0; i < this.size; i++ )
+			amounts[i] = amount[i] + rate[i] * (t - since[i]);
+		return amounts;
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @return the current amount
+	 */
+	public Quantity<Q> getAmount( final int i )
+	{
+		return QuantityUtil.valueOf( amount( i ), this.amountUnit );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @return the current rate, in {@link #amountUnit()} per
+	 *         {@link #timeUnit()}
+	 */
+	public double rate( final int i )
+	{
+		checkIndex( i );
+		return this.rate[i];
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param amount the new amount, in {@link #amountUnit()}
+	 */
+	public void setAmount( final int i, final double amount )
+	{
+		checkIndex( i );
+		this.amount[i] = amount;
+		this.since[i] = tick();
+		reschedule( i );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param amount the new amount
+	 */
+	public void setAmount( final int i, final Quantity<Q> amount )
+	{
+		setAmount( i, toAmount( amount ) );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param rate the new rate, in {@link #amountUnit()} per
+	 *            {@link #timeUnit()}
+	 */
+	public void setRate( final int i, final double rate )
+	{
+		checkIndex( i );
+		final double t = tick();
+		this.amount[i] = amountAt( i, t );
+		this.since[i] = t;
+		this.rate[i] = rate;
+		reschedule( i );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param rate the new rate, some amount per time
+	 */
+	public void setRate( final int i, final Quantity<?> rate )
+	{
+		setRate( i, toRate( rate ) );
+	}
+
+	/**
+	 * sets the rates of many accumulators at once, e.g. each time step
+	 *
+	 * @param indices the accumulator indices
+	 * @param rates the new rates, in {@link #amountUnit()} per
+	 *            {@link #timeUnit()}
+	 * @param n the number of rates to set
+	 */
+	public void setRates( final int[] indices, final double[] rates,
+		final int n )
+	{
+		final double t = tick();
+		for( int k = 0; k < n; k++ )
+		{
+			final int i = indices[k];
+			checkIndex( i );
+			this.amount[i] = amountAt( i, t );
+			this.since[i] = t;
+			this.rate[i] = rates[k];
+			reschedule( i );
+		}
+	}
+
+	/**
+	 * observes each crossing of some threshold level by some accumulator, as
+	 * in {@link Accumulator#at(Quantity, Consumer)}
+	 *
+	 * @param i the accumulator index
+	 * @param level the threshold amount, in {@link #amountUnit()}
+	 * @param observer the {@link Consumer} of crossing {@link Instant}s
+	 */
+	public void at( final int i, final double level,
+		final Consumer<Instant> observer )
+	{
+		checkIndex( i );
+		final int n = this.thresholds[i];
+		if( n == this.levels[i].length )
+		{
+			this.levels[i] = Arrays.copyOf( this.levels[i], n << 1 );
+			this.observers[i] = Arrays.copyOf( this.observers[i], n << 1 );
+		}
+		// insert after equal levels, retaining registration order
+		int k = n;
+		while( k > 0 && this.levels[i][k - 1] > level )
+			k--;
+		System.arraycopy( this.levels[i], k, this.levels[i], k + 1, n - k );
+		System.arraycopy( this.observers[i], k, this.observers[i], k + 1,
+				n - k );
+		this.levels[i][k] = level;
+		this.observers[i][k] = observer;
+		this.thresholds[i] = n + 1;
+		reschedule( i );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param level the threshold amount
+	 * @param observer the {@link Consumer} of crossing {@link Instant}s
+	 */
+	public void at( final int i, final Quantity<Q> level,
+		final Consumer<Instant> observer )
+	{
+		at( i, toAmount( level ), observer );
+	}
+
+	/**
+	 * @param i the accumulator index
+	 * @param from the current amount
+	 * @return the next threshold level crossed given the current rate, or
+	 *         {@link Double#NaN} if none
+	 */
+	private double nextLevel( final int i, final double from )
+	{
+		final double r = this.rate[i];
+		final double[] levels = this.levels[i];
+		final int n = this.thresholds[i];
+		if( r > 0 )
+		{
+			// lowest level above current amount
+			int lo = 0, hi = n;
+			while( lo < hi )
+			{
+				final int mid = (lo + hi) >>> 1;
+				if( levels[mid] <= from )
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo < n ? levels[lo] : Double.NaN;
+		}
+		if( r < 0 )
+		{
+			// highest level below current amount
+			int lo = 0, hi = n;
+			while( lo < hi )
+			{
+				final int mid = (lo + hi) >>> 1;
+				if( levels[mid] < from )
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo > 0 ? levels[lo - 1] : Double.NaN;
+		}
+		return Double.NaN;
+	}
+
+	private void reschedule( final int i )
+	{
+		final double t = tick();
+		final double level = nextLevel( i, amountAt( i, t ) );
+		final double next = Double.isNaN( level ) ? Double.NaN
+				: this.since[i] + (level - this.amount[i]) / this.rate[i];
+		if( Double.compare( next, this.due[i] ) == 0 ) return; // unchanged
+		if( this.pending[i] != null ) this.pending[i].remove();
+		this.due[i] = next;
+		this.pending[i] = null;
+		if( Double.isNaN( next ) ) return;
+		this.reschedules++;
+		this.pending[i] = at( Instant.of( Math.max( t, next ), this.timeUnit ) )
+				.call( when -> onCrossing( i, level ) );
+	}
+
+	private void onCrossing( final int i, final double level )
+	{
+		this.pending[i] = null;
+		this.due[i] = Double.NaN;
+		// rebase exactly onto the level, avoiding rounding drift
+		this.amount[i] = level;
+		this.since[i] = tick();
+		final Instant t = now();
+		final double[] levels = this.levels[i];
+		final Consumer<Instant>[] observers = this.observers[i];
+		for( int k = 0, n = this.thresholds[i]; k < n; k++ )
+			if( levels[k] == level ) observers[k].accept( t );
+		LOG.trace( "accumulator {} crossed {} {} at t={}", i, level,
+				this.amountUnit, t );
+		reschedule( i );
+	}
+}
@@ -0,0 +1,325 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.coala.function.ThrowingConsumer;
+
+/**
+ * {@link Checkpoint} is an immutable snapshot of some (paused)
+ * {@link Scheduler#isCheckpointable() checkpointable} replication (e.g. of
+ * some {@link EventListScheduler}), i.e. its current time, its pending
+ * events (each with its {@link Instant} in its original unit) referring to
+ * (re-bindable) {@link Scheduler#register named actions}, and the
+ * binary state of each registered {@link Stateful}
+ * component, e.g. some {@link io.coala.random.PseudoRandom.JavaRandom
+ * JavaRandom}. A single {@link Checkpoint} may be
+ * {@link Scheduler#restore restored} into any number of fresh
+ * schedulers, e.g. to branch what-if runs from a common warm-up period
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class Checkpoint
+{
+
+	/** the file format identifier */
+	private static final int MAGIC = 0xC0A1A7C9;
+
+	/** the file format version */
+	private static final int VERSION = 2;
+
+	/**
+	 * {@link Stateful} components save and restore their state in binary form
+	 */
+	public interface Stateful
+	{
+		/**
+		 * @param out the {@link DataOutput} to write the current state to
+		 * @throws IOException if writing failed
+		 */
+		void save( DataOutput out ) throws IOException;
+
+		/**
+		 * @param in the {@link DataInput} to read the saved state from
+		 * @throws IOException if reading failed
+		 */
+		void restore( DataInput in ) throws IOException;
+
+		/**
+		 * @param save the state writer
+		 * @param restore the state reader
+		 * @return a {@link Stateful} adapter, e.g.
+		 *         {@code Stateful.of( rng::save, rng::restore )}
+		 */
+		static Stateful of( final ThrowingConsumer<DataOutput, IOException> save,
+			final ThrowingConsumer<DataInput, IOException> restore )
+		{
+			return new Stateful()
+			{
+				@Override
+				public void save( final DataOutput out ) throws IOException
+				{
+					save.accept( out );
+				}
+
+				@Override
+				public void restore( final DataInput in ) throws IOException
+				{
+					restore.accept( in );
+				}
+			};
+		}
+	}
+
+	/**
+	 * @param in the {@link InputStream} to read from, e.g. some file
+	 * @return the {@link Checkpoint} as previously {@link #write written}
+	 * @throws IOException if reading failed or the format is unknown
+	 */
+	public static Checkpoint read( final InputStream in ) throws IOException
+	{
+		final DataInputStream data = new DataInputStream(
+				new InflaterInputStream( in ) );
+		if( data.readInt() != MAGIC ) throw new IOException( "Not a checkpoint" );
+		final int version = data.readInt();
+		if( version != VERSION )
+			throw new IOException( "Unsupported checkpoint version: " + version );
+		final String id = data.readUTF();
+		final double tick = data.readDouble();
+		final Instant now = readInstant( data );
+		final int n = data.readInt();
+		final double[] ticks = new double[n];
+		final Instant[] instants = new Instant[n];
+		final String[] actions = new String[n];
+		for( int i = 0; i < n; i++ )
+		{
+			ticks[i] = data.readDouble();
+			instants[i] = readInstant( data );
+			actions[i] = data.readUTF();
+		}
+		final int m = data.readInt();
+		final Map<String, byte[]> states = new LinkedHashMap<>();
+		for( int i = 0; i < m; i++ )
+		{
+			final String key = data.readUTF();
+			final byte[] state = new byte[data.readInt()];
+			data.readFully( state );
+			states.put( key, state );
+		}
+		return new Checkpoint( id, tick, now, ticks, instants, actions,
+				states );
+	}
+
+	/**
+	 * reads an {@link Instant} as its decimal value and unit label, e.g. for
+	 * restoring some {@link Stateful} component
+	 * 
+	 * @param in the {@link DataInput} to read from
+	 * @return the {@link Instant} as {@link #writeInstant written}
+	 * @throws IOException if reading failed
+	 */
+	public static Instant readInstant( final DataInput in ) throws IOException
+	{
+		final BigDecimal value = new BigDecimal( in.readUTF() );
+		return Instant.of( value, UnitCache.parse( in.readUTF() ) );
+	}
+
+	/**
+	 * writes an {@link Instant} as its decimal value and unit label, e.g. for
+	 * saving some {@link Stateful} component
+	 * 
+	 * @param out the {@link DataOutput} to write to
+	 * @param instant the {@link Instant} to write
+	 * @throws IOException if writing failed
+	 */
+	public static void writeInstant( final DataOutput out,
+		final Instant instant ) throws IOException
+	{
+		out.writeUTF( instant.decimal().toString() );
+		out.writeUTF( TimeUnits.UNIT_FORMAT.format( instant.unit() ) );
+	}
+
+	private final String id;
+
+	private final double tick;
+
+	private final Instant now;
+
+	private final double[] ticks;
+
+	private final Instant[] instants;
+
+	private final String[] actions;
+
+	private final Map<String, byte[]> states;
+
+	Checkpoint( final String id, final double tick, final Instant now,
+		final double[] ticks, final Instant[] instants,
+		final String[] actions, final Map<String, byte[]> states )
+	{
+		this.id = id;
+		this.tick = tick;
+		this.now = now;
+		this.ticks = ticks;
+		this.instants = instants;
+		this.actions = actions;
+		this.states = Collections.unmodifiableMap( states );
+	}
+
+	/** @return the id of the checkpointed replication */
+	public String id()
+	{
+		return this.id;
+	}
+
+	/** @return the checkpointed time, in ticks of the base time unit */
+	public double tick()
+	{
+		return this.tick;
+	}
+
+	/** @return the checkpointed time, in its original unit */
+	public Instant now()
+	{
+		return this.now;
+	}
+
+	/** @return the number of pending events */
+	public int size()
+	{
+		return this.ticks.length;
+	}
+
+	/**
+	 * @param i the index of the pending event, in order of occurrence
+	 * @return its tick
+	 */
+	double tick( final int i )
+	{
+		return this.ticks[i];
+	}
+
+	/**
+	 * @param i the index of the pending event, in order of occurrence
+	 * @return its {@link Instant}, in its original unit
+	 */
+	Instant instant( final int i )
+	{
+		return this.instants[i];
+	}
+
+	/**
+	 * @param i the index of the pending event, in order of occurrence
+	 * @return its action key
+	 */
+	String action( final int i )
+	{
+		return this.actions[i];
+	}
+
+	/** @return the saved state per {@link Stateful} key */
+	Map<String, byte[]> states()
+	{
+		return this.states;
+	}
+
+	/**
+	 * @param state the {@link Stateful} to restore
+	 * @param key its registered key
+	 * @return {@code true} iff some state was saved for the key
+	 * @throws IOException if reading failed
+	 */
+	boolean restore( final Stateful state, final String key )
+		throws IOException
+	{
+		final byte[] bytes = this.states.get( key );
+		if( bytes == null ) return false;
+		state.restore(
+				new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+		return true;
+	}
+
+	/**
+	 * @param state the {@link Stateful} to save
+	 * @return its current state in binary form
+	 * @throws IOException if writing failed
+	 */
+	static byte[] save( final Stateful state ) throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream( bytes );
+		state.save( out );
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * writes this {@link Checkpoint} in compact (deflated) binary form
+	 *
+	 * @param out the {@link OutputStream} to write to, e.g. some file
+	 * @throws IOException if writing failed
+	 */
+	public void write( final OutputStream out ) throws IOException
+	{
+		final DeflaterOutputStream deflater = new DeflaterOutputStream( out );
+		final DataOutputStream data = new DataOutputStream( deflater );
+		data.writeInt( MAGIC );
+		data.writeInt( VERSION );
+		data.writeUTF( this.id == null ? "" : this.id );
+		data.writeDouble( this.tick );
+		writeInstant( data, this.now );
+		data.writeInt( this.ticks.length );
+		for( int i = 0; i < this.ticks.length; i++ )
+		{
+			data.writeDouble( this.ticks[i] );
+			writeInstant( data, this.instants[i] );
+			data.writeUTF( this.actions[i] );
+		}
+		data.writeInt( this.states.size() );
+		for( Map.Entry<String, byte[]> entry : this.states.entrySet() )
+		{
+			data.writeUTF( entry.getKey() );
+			data.writeInt( entry.getValue().length );
+			data.write( entry.getValue() );
+		}
+		data.flush();
+		deflater.finish();
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "[" + this.id + "|t=" + this.tick
+				+ "|" + this.ticks.length + " events|" + this.states.size()
+				+ " states]";
+	}
+}
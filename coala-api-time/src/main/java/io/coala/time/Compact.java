@@ -0,0 +1,138 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.measure.Unit;
+
+import io.coala.math.QuantityUtil;
+import tec.uom.se.ComparableQuantity;
+
+/**
+ * {@link Compact} provides utilities for the compact (fixed-point) form of
+ * {@link Instant} and {@link Duration} amounts, i.e. as a {@code long} scaled
+ * by {@link #SCALE} decimals with an interned {@link Unit} identifier, so
+ * that comparison and arithmetic between amounts of equal units need not
+ * allocate (decimal) quantities
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+final class Compact
+{
+
+	/** the number of decimals in compact form */
+	static final int SCALE = 9;
+
+	/** the unit id of amounts lacking a compact form */
+	static final int NONE = -1;
+
+	private static final long FACTOR = 1_000_000_000L;
+
+	private static final BigDecimal MIN = BigDecimal.valueOf( Long.MIN_VALUE,
+			SCALE );
+
+	private static final BigDecimal MAX = BigDecimal.valueOf( Long.MAX_VALUE,
+			SCALE );
+
+	private static final AtomicInteger UNIT_COUNT = new AtomicInteger();
+
+	private static final Map<Unit<?>, Integer> UNIT_IDS = new ConcurrentHashMap<>();
+
+	private Compact()
+	{
+		// singleton
+	}
+
+	/**
+	 * @param unit the {@link Unit} to intern
+	 * @return the interned unit identifier
+	 */
+	static int unitId( final Unit<?> unit )
+	{
+		return UNIT_IDS.computeIfAbsent( unit,
+				key -> UNIT_COUNT.getAndIncrement() );
+	}
+
+	/**
+	 * @param value the {@link Number} to represent
+	 * @return the value scaled by {@link #SCALE} decimals, or {@code null} if
+	 *         it can't be represented exactly
+	 */
+	static Long scaled( final Number value )
+	{
+		if( value instanceof Integer || value instanceof Long
+				|| value instanceof Short || value instanceof Byte )
+		{
+			final long v = value.longValue();
+			return v > Long.MAX_VALUE / FACTOR || v < Long.MIN_VALUE / FACTOR
+					? null : v * FACTOR;
+		}
+		final BigDecimal decimal;
+		if( value instanceof BigDecimal )
+			decimal = (BigDecimal) value;
+		else if( value instanceof BigInteger )
+			decimal = new BigDecimal( (BigInteger) value );
+		else if( value instanceof Double || value instanceof Float )
+		{
+			final double d = value.doubleValue();
+			if( Double.isNaN( d ) || Double.isInfinite( d ) ) return null;
+			decimal = BigDecimal.valueOf( d );
+		} else
+			return null;
+		if( decimal.compareTo( MIN ) < 0 || decimal.compareTo( MAX ) > 0 )
+			return null;
+		final BigDecimal result = decimal.movePointRight( SCALE );
+		if( result.signum() == 0 ) return 0L;
+		return result.stripTrailingZeros().scale() > 0 ? null
+				: Long.valueOf( result.longValue() );
+	}
+
+	/**
+	 * @param scaled the value scaled by {@link #SCALE} decimals
+	 * @return the value as {@link Long} if integral, or {@link BigDecimal}
+	 */
+	static Number value( final long scaled )
+	{
+		return scaled % FACTOR == 0 ? (Number) Long.valueOf( scaled / FACTOR )
+				: BigDecimal.valueOf( scaled, SCALE ).stripTrailingZeros();
+	}
+
+	/**
+	 * @param scaled the value scaled by {@link #SCALE} decimals
+	 * @return the value truncated (toward zero) to a whole number
+	 */
+	static long truncate( final long scaled )
+	{
+		return scaled / FACTOR;
+	}
+
+	/**
+	 * @param scaled the value scaled by {@link #SCALE} decimals
+	 * @param unit the {@link Unit}
+	 * @return a new {@link ComparableQuantity}
+	 */
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	static ComparableQuantity quantity( final long scaled, final Unit unit )
+	{
+		return QuantityUtil.valueOf( value( scaled ), unit );
+	}
+}
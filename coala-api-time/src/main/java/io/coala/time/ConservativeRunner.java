@@ -0,0 +1,190 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import io.coala.exception.Thrower;
+import io.coala.log.LogUtil;
+
+/**
+ * {@link ConservativeRunner} executes a number of logical processes, each
+ * with its own {@link EventListScheduler} (partition), concurrently under a
+ * conservative time-window synchronization protocol: given a minimum
+ * {@link #lookahead} for any interaction between partitions, all partitions
+ * may safely execute their events due before the earliest pending event plus
+ * lookahead. Interactions produced during some window are exchanged at the
+ * subsequent barrier, e.g. by some buffered (message) exchange that
+ * schedules deliveries at the receiving partitions in a deterministic order,
+ * so results are independent of the number of partitions.
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class ConservativeRunner implements Runnable
+{
+
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( ConservativeRunner.class );
+
+	private static final AtomicInteger THREADS = new AtomicInteger();
+
+	/**
+	 * @param lookahead the minimum delay of interactions between partitions
+	 * @param barrier called between windows, when all partitions are idle
+	 * @param partitions the {@link EventListScheduler}s to synchronize
+	 * @return a new {@link ConservativeRunner}
+	 */
+	public static ConservativeRunner of( final Duration lookahead,
+		final Runnable barrier, final Scheduler... partitions )
+	{
+		return new ConservativeRunner( lookahead, barrier,
+				Arrays.asList( partitions ) );
+	}
+
+	private final Duration lookahead;
+
+	private final Runnable barrier;
+
+	private final List<EventListScheduler> partitions;
+
+	private final Map<Scheduler, Throwable> failures = new ConcurrentHashMap<>();
+
+	private long windows = 0;
+
+	public ConservativeRunner( final Duration lookahead,
+		final Runnable barrier, final List<? extends Scheduler> partitions )
+	{
+		if( partitions.isEmpty() ) Thrower
+				.throwNew( IllegalArgumentException::new, () -> "No partitions" );
+		this.lookahead = lookahead;
+		this.barrier = barrier;
+		this.partitions = new ArrayList<>( partitions.size() );
+		for( Scheduler partition : partitions )
+			if( partition instanceof EventListScheduler )
+				this.partitions.add( (EventListScheduler) partition );
+			else
+				Thrower.throwNew( IllegalArgumentException::new,
+						() -> "Unsupported partition type: "
+								+ partition.getClass().getName() + ", use "
+								+ EventListScheduler.class.getName() );
+	}
+
+	/** @return the minimum delay of interactions between partitions */
+	public Duration lookahead()
+	{
+		return this.lookahead;
+	}
+
+	/** @return the number of synchronization windows executed so far */
+	public long windows()
+	{
+		return this.windows;
+	}
+
+	@Override
+	public void run()
+	{
+		final double lookahead = this.partitions.get( 0 )
+				.toTick( Instant.of( this.lookahead.unwrap() ) );
+		if( !(lookahead > 0) ) Thrower.throwNew(
+				IllegalArgumentException::new,
+				() -> "Lookahead must be positive, was: " + this.lookahead );
+		final ExecutorService pool = Executors.newFixedThreadPool(
+				Math.min( this.partitions.size(),
+						Runtime.getRuntime().availableProcessors() ),
+				r ->
+				{
+					final Thread t = new Thread( r,
+							"partition-" + THREADS.incrementAndGet() );
+					t.setDaemon( true );
+					return t;
+				} );
+		try
+		{
+			this.partitions.forEach( p -> p.time().subscribe( t ->
+			{
+			}, e -> this.failures.put( p, e ) ) );
+			// reset all partitions, exchanging any initial interactions
+			window( pool, Double.NEGATIVE_INFINITY );
+			for( double start = nextTick(); start != Double.POSITIVE_INFINITY
+					&& this.failures.isEmpty(); start = nextTick() )
+				window( pool, start + lookahead );
+			if( !this.failures.isEmpty() )
+			{
+				final Throwable cause = this.failures.values().iterator()
+						.next();
+				this.partitions.stream()
+						.filter( p -> !this.failures.containsKey( p ) )
+						.forEach( p -> p.fail( cause ) );
+			} else
+				// complete all partitions
+				this.partitions.forEach( EventListScheduler::resume );
+			LOG.trace( "Synchronized {} partitions in {} windows",
+					this.partitions.size(), this.windows );
+		} finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	private double nextTick()
+	{
+		double result = Double.POSITIVE_INFINITY;
+		for( EventListScheduler partition : this.partitions )
+			result = Math.min( result, partition.nextTick() );
+		return result;
+	}
+
+	private void window( final ExecutorService pool, final double bound )
+	{
+		final List<Callable<Void>> tasks = new ArrayList<>(
+				this.partitions.size() );
+		for( EventListScheduler partition : this.partitions )
+			tasks.add( () ->
+			{
+				partition.resumeBefore( bound );
+				return null;
+			} );
+		try
+		{
+			for( Future<Void> task : pool.invokeAll( tasks ) )
+				task.get();
+		} catch( final InterruptedException e )
+		{
+			Thread.currentThread().interrupt();
+			Thrower.rethrowUnchecked( e );
+		} catch( final ExecutionException e )
+		{
+			Thrower.rethrowUnchecked( e.getCause() );
+		}
+		this.windows++;
+		if( this.barrier != null ) this.barrier.run();
+	}
+}
@@ -132,7 +132,7 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	{
 		try
 		{
-			return of( QuantityUtil.valueOf( value, TimeUnits.UNIT_FORMAT ) );
+			return of( UnitCache.valueOf( value ) );
 		} catch( final Throwable e )
 		{
 			LogUtil.getLogger( Duration.class )
@@ -210,9 +210,76 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	/** a pure/{@link Dimensionless} duration of one */
 	public static final Duration ONE = Duration.of( QuantityUtil.ONE );
 
+	/** the compact form's value, scaled by {@link Compact#SCALE} decimals */
+	transient long scaled = 0;
+
+	/** the compact form's interned unit id, or {@link Compact#NONE} */
+	transient int unitId = Compact.NONE;
+
+	/** the compact form's {@link Unit}, or {@code null} */
+	private transient Unit compactUnit = null;
+
+	// for JSON deserialization
+	public Duration()
+	{
+
+	}
+
+	/** compact form, wrapped {@link ComparableQuantity} created lazily */
+	Duration( final long scaled, final Unit unit, final int unitId )
+	{
+		this.scaled = scaled;
+		this.compactUnit = unit;
+		this.unitId = unitId;
+	}
+
+	@Override
+	public Wrapper<ComparableQuantity> wrap( final ComparableQuantity value )
+	{
+		super.wrap( value );
+		final Long scaled = value == null || value.getValue() == null ? null
+				: Compact.scaled( value.getValue() );
+		this.scaled = scaled == null ? 0 : scaled;
+		this.compactUnit = scaled == null ? null : value.getUnit();
+		this.unitId = scaled == null ? Compact.NONE
+				: Compact.unitId( this.compactUnit );
+		return this;
+	}
+
+	@Override
+	public ComparableQuantity unwrap()
+	{
+		final ComparableQuantity result = super.unwrap();
+		if( result != null || this.compactUnit == null ) return result;
+		final ComparableQuantity value = Compact.quantity( this.scaled,
+				this.compactUnit );
+		super.wrap( value ); // materialize, retaining compact form
+		return value;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.unitId == Compact.NONE ? super.hashCode()
+				: getClass().hashCode() + 31 * (this.compactUnit.hashCode()
+						^ Long.hashCode( this.scaled ));
+	}
+
+	@Override
+	public boolean equals( final Object that )
+	{
+		if( this == that ) return true;
+		if( that == null || that.getClass() != getClass() ) return false;
+		final Duration other = (Duration) that;
+		if( this.unitId != Compact.NONE && other.unitId != Compact.NONE )
+			return this.unitId == other.unitId && this.scaled == other.scaled;
+		return super.equals( that );
+	}
+
 	public Unit<?> unit()
 	{
-		return unwrap().getUnit();
+		return this.compactUnit != null ? this.compactUnit
+				: unwrap().getUnit();
 	}
 
 	public Number value()
@@ -227,7 +294,8 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public int signum()
 	{
-		return DecimalUtil.signum( value() );
+		return this.unitId != Compact.NONE ? Long.signum( this.scaled )
+				: DecimalUtil.signum( value() );
 	}
 
 	@JsonIgnore
@@ -264,6 +332,9 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	@Override // make dimensionless #ZERO, #ONE commensurable with other units
 	public int compareTo( final Comparable that )
 	{
+		final Duration other = (Duration) that;
+		if( this.unitId != Compact.NONE && this.unitId == other.unitId )
+			return Long.compare( this.scaled, other.scaled );
 		final int thatSignum = QuantityUtil
 				.signum( ((Duration) that).unwrap() );
 		return signum() == 0 ? thatSignum * -1
@@ -297,6 +368,15 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public Duration to( final Unit unit )
 	{
+		if( this.unitId != Compact.NONE )
+		{
+			if( this.compactUnit.equals( unit ) ) return this;
+			final Unit target = UnitCache.intern( unit );
+			final Long scaled = UnitCache.conversion( this.compactUnit, target )
+					.scale( this.scaled );
+			if( scaled != null ) return new Duration( scaled, target,
+					Compact.unitId( target ) );
+		}
 		return of( unwrap().to( unit ) );
 	}
 
@@ -307,12 +387,24 @@ public class Duration extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public long toMillisLong()
 	{
-		return QuantityUtil.longValue( unwrap(), TimeUnits.MILLIS );
+		return toLong( TimeUnits.MILLIS );
 	}
 
 	public long toNanosLong()
 	{
-		return QuantityUtil.longValue( unwrap(), TimeUnits.NANOS );
+		return toLong( TimeUnits.NANOS );
+	}
+
+	/** @return the total amount of some unit, truncated */
+	private long toLong( final Unit unit )
+	{
+		if( this.unitId != Compact.NONE )
+		{
+			final Long result = UnitCache.conversion( this.compactUnit, unit )
+					.truncate( this.scaled );
+			if( result != null ) return result;
+		}
+		return QuantityUtil.longValue( unwrap(), unit );
 	}
 
 	/** @return a JAXP {@link javax.xml.datatype.Duration} */
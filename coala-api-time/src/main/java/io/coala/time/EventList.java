@@ -0,0 +1,551 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * {@link EventList} is a priority queue of pending events keyed by primitive
+ * {@code double} ticks (i.e. amounts of some base time unit), where events
+ * pending at equal ticks are removed in (stable) FIFO order of insertion
+ *
+ * @param <E> the type of event
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public interface EventList<E>
+{
+
+	/** @return the number of pending events */
+	int size();
+
+	/** @return {@code true} iff no events are pending */
+	default boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * @param tick the (absolute) tick at which the event is due
+	 * @param event the event, due after any other events pending at the same
+	 *            tick
+	 */
+	void add( double tick, E event );
+
+	/**
+	 * @param ticks the (absolute) ticks at which respective events are due
+	 * @param events the events, due after any other events pending at the
+	 *            same tick
+	 * @param n the number of ticks and events to add
+	 */
+	default void addAll( final double[] ticks, final E[] events, final int n )
+	{
+		for( int i = 0; i < n; i++ )
+			add( ticks[i], events[i] );
+	}
+
+	/**
+	 * @return the tick of the first pending event, or {@link Double#NaN} if
+	 *         none are pending
+	 */
+	double firstTick();
+
+	/** @return the first pending event, or {@code null} */
+	E first();
+
+	/** @return the first pending event after removal, or {@code null} */
+	E removeFirst();
+
+	/** removes all pending events */
+	void clear();
+
+	/**
+	 * purges pending events in bulk, e.g. those that were (lazily) cancelled
+	 * 
+	 * @param filter the {@link Predicate} matching events to remove
+	 * @return the number of events removed
+	 */
+	int removeIf( Predicate<? super E> filter );
+
+	/**
+	 * {@link BinaryHeap} is an {@link EventList} implementation using parallel
+	 * primitive arrays in a binary min-heap layout, ordered by tick and
+	 * insertion sequence number, to avoid boxing and comparator overhead
+	 *
+	 * @param <E> the type of event
+	 */
+	class BinaryHeap<E> implements EventList<E>
+	{
+		private static final int DEFAULT_CAPACITY = 1024;
+
+		private double[] ticks;
+
+		private long[] seqs;
+
+		private Object[] events;
+
+		private int size = 0;
+
+		private long seq = 0;
+
+		public BinaryHeap()
+		{
+			this( DEFAULT_CAPACITY );
+		}
+
+		public BinaryHeap( final int initialCapacity )
+		{
+			final int capacity = Math.max( 2, initialCapacity );
+			this.ticks = new double[capacity];
+			this.seqs = new long[capacity];
+			this.events = new Object[capacity];
+		}
+
+		@Override
+		public int size()
+		{
+			return this.size;
+		}
+
+		@Override
+		public void add( final double tick, final E event )
+		{
+			if( this.size == this.ticks.length ) grow();
+			siftUp( this.size++, tick, this.seq++, event );
+		}
+
+		@Override
+		public void addAll( final double[] ticks, final E[] events,
+			final int n )
+		{
+			if( n < this.size )
+			{
+				EventList.super.addAll( ticks, events, n );
+				return;
+			}
+			// append and re-heapify bottom-up in O(size+n)
+			while( this.size + n > this.ticks.length )
+				grow();
+			for( int i = 0; i < n; i++ )
+				set( this.size++, ticks[i], this.seq++, events[i] );
+			for( int i = (this.size >>> 1) - 1; i >= 0; i-- )
+				siftDown( i, this.ticks[i], this.seqs[i], this.events[i] );
+		}
+
+		@Override
+		public double firstTick()
+		{
+			return this.size == 0 ? Double.NaN : this.ticks[0];
+		}
+
+		@SuppressWarnings( "unchecked" )
+		@Override
+		public E first()
+		{
+			return this.size == 0 ? null : (E) this.events[0];
+		}
+
+		@SuppressWarnings( "unchecked" )
+		@Override
+		public E removeFirst()
+		{
+			if( this.size == 0 ) return null;
+			final E result = (E) this.events[0];
+			final int last = --this.size;
+			final double tick = this.ticks[last];
+			final long seq = this.seqs[last];
+			final Object event = this.events[last];
+			this.events[last] = null; // allow gc
+			if( last > 0 ) siftDown( 0, tick, seq, event );
+			return result;
+		}
+
+		@Override
+		public void clear()
+		{
+			Arrays.fill( this.events, 0, this.size, null );
+			this.size = 0;
+		}
+
+		@Override
+		public int removeIf( final Predicate<? super E> filter )
+		{
+			int n = 0;
+			for( int i = 0; i < this.size; i++ )
+			{
+				@SuppressWarnings( "unchecked" )
+				final E event = (E) this.events[i];
+				if( !filter.test( event ) ) move( i, n++ );
+			}
+			final int removed = this.size - n;
+			if( removed == 0 ) return 0;
+			Arrays.fill( this.events, n, this.size, null );
+			this.size = n;
+			// restore heap order bottom-up
+			for( int i = (n >>> 1) - 1; i >= 0; i-- )
+				siftDown( i, this.ticks[i], this.seqs[i], this.events[i] );
+			return removed;
+		}
+
+		private void grow()
+		{
+			final int capacity = this.ticks.length + (this.ticks.length >> 1);
+			this.ticks = Arrays.copyOf( this.ticks, capacity );
+			this.seqs = Arrays.copyOf( this.seqs, capacity );
+			this.events = Arrays.copyOf( this.events, capacity );
+		}
+
+		private static boolean before( final double tick1, final long seq1,
+			final double tick2, final long seq2 )
+		{
+			return tick1 < tick2 || (tick1 == tick2 && seq1 < seq2);
+		}
+
+		private void set( final int i, final double tick, final long seq,
+			final Object event )
+		{
+			this.ticks[i] = tick;
+			this.seqs[i] = seq;
+			this.events[i] = event;
+		}
+
+		private void move( final int from, final int to )
+		{
+			set( to, this.ticks[from], this.seqs[from], this.events[from] );
+		}
+
+		private void siftUp( int i, final double tick, final long seq,
+			final Object event )
+		{
+			while( i > 0 )
+			{
+				final int parent = (i - 1) >>> 1;
+				if( !before( tick, seq, this.ticks[parent],
+						this.seqs[parent] ) )
+					break;
+				move( parent, i );
+				i = parent;
+			}
+			set( i, tick, seq, event );
+		}
+
+		private void siftDown( int i, final double tick, final long seq,
+			final Object event )
+		{
+			final int half = this.size >>> 1;
+			while( i < half )
+			{
+				int child = (i << 1) + 1;
+				final int right = child + 1;
+				if( right < this.size && before( this.ticks[right],
+						this.seqs[right], this.ticks[child],
+						this.seqs[child] ) )
+					child = right;
+				if( !before( this.ticks[child], this.seqs[child], tick, seq ) )
+					break;
+				move( child, i );
+				i = child;
+			}
+			set( i, tick, seq, event );
+		}
+	}
+
+	/**
+	 * {@link Calendar} is an {@link EventList} implementation after R. Brown
+	 * (1988), "Calendar queues: a fast O(1) priority queue implementation for
+	 * the simulation event set problem", <em>Communications of the ACM</em>
+	 * <b>31</b>(10):1220&ndash;1227. Pending events are hashed by tick into
+	 * a (power of two) number of day buckets of some width, each holding a
+	 * short list that is sorted by tick and insertion sequence number. Both
+	 * bucket count and width are resized as the number of pending events
+	 * changes, so that {@link #add} and {@link #removeFirst} take O(1)
+	 * amortized time for most (stationary) event time distributions.
+	 * <p>
+	 * Removed nodes are recycled via a free list, so that steady-state
+	 * {@link #add}s need not allocate. As simulators are single-threaded, no
+	 * locking is applied. Cancelled
+	 * events should be (lazily) skipped upon removal and/or
+	 * {@link #removeIf purged} in bulk
+	 * 
+	 * @param <E> the type of event
+	 */
+	class Calendar<E> implements EventList<E>
+	{
+		private static final int MIN_BUCKETS = 16;
+
+		private static final int SAMPLE_SIZE = 25;
+
+		private static final class Node<E>
+		{
+			double tick;
+
+			long seq;
+
+			E event;
+
+			/** the (unbounded) bucket number, i.e. {@code floor(tick/width)} */
+			long day;
+
+			/** the next {@link Node} in its bucket, or in the free list */
+			Node<E> next;
+
+			boolean before( final Node<E> that )
+			{
+				return this.tick < that.tick
+						|| (this.tick == that.tick && this.seq < that.seq);
+			}
+		}
+
+		private Node<E>[] buckets;
+
+		private int mask;
+
+		private double width;
+
+		/** the current (unbounded) bucket number */
+		private long day = 0;
+
+		private int size = 0;
+
+		private long seq = 0;
+
+		/** the first recycled {@link Node}, or {@code null} */
+		private Node<E> free = null;
+
+		public Calendar()
+		{
+			this( MIN_BUCKETS, 1d );
+		}
+
+		/**
+		 * @param initialBuckets the initial number of buckets (rounded up to
+		 *            a power of two)
+		 * @param initialWidth the initial bucket width, in ticks
+		 */
+		public Calendar( final int initialBuckets, final double initialWidth )
+		{
+			this.width = initialWidth > 0 ? initialWidth : 1d;
+			this.buckets = newBuckets( Math.max( MIN_BUCKETS, Integer
+					.highestOneBit( Math.max( 1, initialBuckets - 1 ) ) << 1 ) );
+			this.mask = this.buckets.length - 1;
+		}
+
+		@SuppressWarnings( "unchecked" )
+		private static <E> Node<E>[] newBuckets( final int count )
+		{
+			return new Node[count];
+		}
+
+		@Override
+		public int size()
+		{
+			return this.size;
+		}
+
+		@Override
+		public void add( final double tick, final E event )
+		{
+			Node<E> node = this.free;
+			if( node == null )
+				node = new Node<>();
+			else
+				this.free = node.next;
+			node.tick = tick;
+			node.seq = this.seq++;
+			node.event = event;
+			insert( node );
+			this.size++;
+			if( this.size > this.buckets.length << 1 )
+				resize( this.buckets.length << 1 );
+		}
+
+		private void insert( final Node<E> node )
+		{
+			node.day = (long) Math.floor( node.tick / this.width );
+			// (re)start search at earlier days, e.g. when scheduling 'now'
+			if( this.size == 0 || node.day < this.day ) this.day = node.day;
+			final int i = (int) (node.day & this.mask);
+			Node<E> prev = null, next = this.buckets[i];
+			while( next != null && !node.before( next ) )
+			{
+				prev = next;
+				next = next.next;
+			}
+			node.next = next;
+			if( prev == null )
+				this.buckets[i] = node;
+			else
+				prev.next = node;
+		}
+
+		/** @return the first pending {@link Node}, now at the current day */
+		private Node<E> locate()
+		{
+			if( this.size == 0 ) return null;
+			for( int n = 0; n <= this.mask; n++, this.day++ )
+			{
+				final Node<E> head = this.buckets[(int) (this.day & this.mask)];
+				if( head != null && head.day <= this.day ) return head;
+			}
+			// sparse year: search all bucket heads directly
+			Node<E> first = null;
+			for( Node<E> head : this.buckets )
+				if( head != null && (first == null || head.before( first )) )
+					first = head;
+			this.day = first.day;
+			return first;
+		}
+
+		@Override
+		public double firstTick()
+		{
+			final Node<E> first = locate();
+			return first == null ? Double.NaN : first.tick;
+		}
+
+		@Override
+		public E first()
+		{
+			final Node<E> first = locate();
+			return first == null ? null : first.event;
+		}
+
+		private Node<E> poll()
+		{
+			final Node<E> first = locate();
+			if( first == null ) return null;
+			this.buckets[(int) (this.day & this.mask)] = first.next;
+			first.next = null;
+			this.size--;
+			return first;
+		}
+
+		/** recycles some removed {@link Node}, releasing its event */
+		private void release( final Node<E> node )
+		{
+			node.event = null;
+			node.next = this.free;
+			this.free = node;
+		}
+
+		@Override
+		public E removeFirst()
+		{
+			final Node<E> first = poll();
+			if( first == null ) return null;
+			final E result = first.event;
+			release( first );
+			if( this.buckets.length > MIN_BUCKETS
+					&& this.size < this.buckets.length >>> 1 )
+				resize( this.buckets.length >>> 1 );
+			return result;
+		}
+
+		@Override
+		public void clear()
+		{
+			Arrays.fill( this.buckets, null );
+			this.size = 0;
+			this.day = 0;
+		}
+
+		@Override
+		public int removeIf( final Predicate<? super E> filter )
+		{
+			int removed = 0;
+			for( int i = 0; i <= this.mask; i++ )
+			{
+				Node<E> prev = null, next;
+				for( Node<E> node = this.buckets[i]; node != null; node = next )
+				{
+					next = node.next;
+					if( !filter.test( node.event ) )
+						prev = node;
+					else
+					{
+						if( prev == null )
+							this.buckets[i] = next;
+						else
+							prev.next = next;
+						release( node );
+						removed++;
+					}
+				}
+			}
+			this.size -= removed;
+			if( this.buckets.length > MIN_BUCKETS
+					&& this.size < this.buckets.length >>> 1 )
+				resize( Math.max( MIN_BUCKETS, Integer
+						.highestOneBit( Math.max( 1, this.size ) ) << 1 ) );
+			return removed;
+		}
+
+		/**
+		 * re-hashes all pending events into a new number of buckets, with
+		 * bucket width estimated as three times the average separation of the
+		 * first few pending events, ignoring any outliers
+		 * 
+		 * @param count the new (power of two) number of buckets
+		 */
+		private void resize( final int count )
+		{
+			final int size = this.size;
+			@SuppressWarnings( "unchecked" )
+			final Node<E>[] nodes = new Node[size];
+			final int samples = Math.min( size, SAMPLE_SIZE );
+			int n = 0;
+			while( n < samples )
+				nodes[n++] = poll();
+			for( Node<E> head : this.buckets )
+				for( Node<E> node = head; node != null; node = node.next )
+					nodes[n++] = node;
+
+			final double estimate = estimateWidth( nodes, samples );
+			if( estimate > 0 && !Double.isInfinite( estimate ) )
+				this.width = estimate;
+			this.buckets = newBuckets( count );
+			this.mask = count - 1;
+			this.size = 0;
+			for( Node<E> node : nodes )
+			{
+				node.next = null;
+				insert( node );
+				this.size++;
+			}
+		}
+
+		private static double estimateWidth( final Node<?>[] sorted,
+			final int samples )
+		{
+			if( samples < 2 ) return Double.NaN;
+			final double average = (sorted[samples - 1].tick - sorted[0].tick)
+					/ (samples - 1);
+			double sum = 0;
+			int n = 0;
+			for( int i = 1; i < samples; i++ )
+			{
+				final double gap = sorted[i].tick - sorted[i - 1].tick;
+				if( gap <= 2 * average )
+				{
+					sum += gap;
+					n++;
+				}
+			}
+			return n == 0 ? Double.NaN : 3 * sum / n;
+		}
+	}
+}
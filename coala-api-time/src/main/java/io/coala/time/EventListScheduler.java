@@ -0,0 +1,1121 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.measure.Unit;
+
+import org.apache.logging.log4j.Logger;
+
+import io.coala.bind.InjectConfig;
+import io.coala.bind.LocalBinder;
+import io.coala.exception.Thrower;
+import io.coala.function.ThrowingConsumer;
+import io.coala.function.ThrowingRunnable;
+import io.coala.log.LogUtil;
+import io.coala.math.QuantityUtil;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * {@link EventListScheduler} is a built-in single-threaded {@link Scheduler}
+ * that keeps its pending events in an {@link EventList} keyed by primitive
+ * {@code double} ticks of the {@link #timeUnit() base time unit}, with stable
+ * FIFO ordering of events due at the same tick, as configured by
+ * {@link SchedulerConfig#eventListType()}. Each scheduled {@link Instant}
+ * is converted to ticks once, and only passed on as is via {@link #now()} and
+ * {@link #time()} upon its occurrence. Cancelled events are marked as
+ * tombstones and skipped upon removal, or purged in bulk once they make up
+ * most of the pending events.
+ * <p>
+ * Events {@link #post posted} without {@link Expectation} (i.e. fire and
+ * forget) or {@link #expect expected} with a compact {@code long} handle (an
+ * index into this scheduler's event pool and the generation of its slot) are
+ * recycled upon occurrence or removal, so that steady-state scheduling need
+ * not allocate, while {@link #cancel(long) cancellation} needs no search.
+ * <p>
+ * Unlike the (asynchronous) DSOL3 adapter, {@link #resume()} executes events
+ * in the calling thread until the event list is exhausted or the configured
+ * {@link SchedulerConfig#duration() duration} is reached. Dimensionless
+ * {@link Instant}s (e.g. {@link Instant#ZERO}) are interpreted in base units.
+ * If some {@link SchedulerConfig#speed() speed} is configured, each distinct
+ * tick is {@link Pacer paced} to the wall-clock before its events execute.
+ * <p>
+ * If some {@link SchedulerConfig#parallelism() parallelism} is configured,
+ * independent events due at the same tick (i.e. {@link #post(Instant, Object,
+ * ThrowingConsumer) posted} in distinct partitions) execute in parallel on a
+ * {@link ForkJoinPool}, each partition's events in order of insertion. Their
+ * effects on this scheduler (i.e. newly scheduled or cancelled events,
+ * failures, and other {@link #merge merged} effects) are buffered per
+ * partition, and applied once all have completed, in order of each
+ * partition's first event, so that results do not depend on thread timing.
+ * <p>
+ * A paused replication may be {@link #checkpoint() checkpointed} provided its
+ * pending events refer to {@link #register(String, ThrowingConsumer) named
+ * actions}, and {@link #restore(Checkpoint) restored} into fresh schedulers
+ * that re-register these actions (and {@link Checkpoint.Stateful stateful}
+ * components) upon {@link #onReset reset}.
+ * <p>
+ * Select using {@link SchedulerConfig#IMPLEMENTATION_KEY}, e.g.
+ * {@code impl=io.coala.time.EventListScheduler}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+@Singleton
+public class EventListScheduler implements Scheduler
+{
+
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( EventListScheduler.class );
+
+	/** the minimum number of cancelled events before purging */
+	private static final int PURGE_THRESHOLD = 1024;
+
+	/** the handle returned by {@link #expect} if scheduling failed */
+	public static final long NO_HANDLE = -1L;
+
+	private final PublishSubject<Scheduler> reset = PublishSubject.create();
+
+	private final PublishSubject<Instant> time = PublishSubject.create();
+
+	private final String binderId;
+
+	@InjectConfig
+	private SchedulerConfig config;
+
+	private EventList<Event> events = null;
+
+	/** the number of cancelled events still pending */
+	private int tombstones = 0;
+
+	private volatile Instant now = null;
+
+	private double nowTick = Double.NaN;
+
+	private double endTick;
+
+	private boolean running = false;
+
+	private ZonedDateTime offsetCache;
+
+	private Unit<?> baseUnitCache;
+
+	/**
+	 * the named actions, re-bound upon each reset, concurrent as independent
+	 * events may (un)register theirs in parallel
+	 */
+	private final Map<String, ThrowingConsumer<Instant, ?>> actions = new ConcurrentHashMap<>();
+
+	/** the stateful components, re-bound upon each reset */
+	private final Map<String, Checkpoint.Stateful> states = new LinkedHashMap<>();
+
+	/** the {@link Checkpoint} to restore upon reset, or {@code null} */
+	private Checkpoint restoring = null;
+
+	/** the wall-clock {@link Pacer}, or {@code null} if as fast as possible */
+	private Pacer pacer = null;
+
+	/** the metrics {@link SchedulerStats.Recorder}, or {@code null} */
+	private SchedulerStats.Recorder recorder = null;
+
+	/** the pooled {@link Event}s, indexed by their slot */
+	private Event[] slots = new Event[0];
+
+	/** the number of pooled {@link Event}s */
+	private int slotCount = 0;
+
+	/** the head of the free list of pooled {@link Event}s, or {@code null} */
+	private Event free = null;
+
+	/** the workers for independent events, or {@code null} if sequential */
+	private ForkJoinPool workers = null;
+
+	/** {@code true} iff independent events are executing in parallel */
+	private boolean parallel = false;
+
+	/** the {@link Partition} executing in the current worker thread */
+	private final ThreadLocal<Partition> executing = new ThreadLocal<>();
+
+	@Inject
+	public EventListScheduler( final LocalBinder binder )
+	{
+		this.binderId = binder.id().toString();
+	}
+
+	public EventListScheduler( final SchedulerConfig config )
+	{
+		this.binderId = config.rawId();
+		this.config = config;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "["
+				+ (this.config == null || this.config.rawId() == null
+						? this.binderId : this.config.rawId())
+				+ "|t=" + this.now + "]";
+	}
+
+	@Override
+	public ZonedDateTime offset()
+	{
+		return this.offsetCache != null ? this.offsetCache
+				: (this.offsetCache = Objects
+						.requireNonNull( this.config, "not configured?" )
+						.offset());
+	}
+
+	@Override
+	public Unit<?> timeUnit()
+	{
+		return this.baseUnitCache != null ? this.baseUnitCache
+				: (this.baseUnitCache = Objects
+						.requireNonNull( this.config, "not configured?" )
+						.timeUnit());
+	}
+
+	@Override
+	public SchedulerConfig config()
+	{
+		return this.config;
+	}
+
+	@Override
+	public Instant now()
+	{
+		return this.now;
+	}
+
+	@Override
+	public Observable<Instant> time()
+	{
+		return this.time;
+	}
+
+	@Override
+	public Observable<SchedulerStats> stats()
+	{
+		if( this.recorder == null )
+			this.recorder = Objects
+					.requireNonNull( this.config, "not configured?" )
+					.statsRecorder();
+		return this.recorder == null ? Observable.empty()
+				: this.recorder.stats();
+	}
+
+	@Override
+	public void fail( final Throwable e )
+	{
+		final Partition partition = partition();
+		if( partition != null )
+		{
+			partition.effects.add( () -> fail( e ) );
+			return;
+		}
+		if( this.recorder != null ) this.recorder.complete( this.now, 0 );
+		this.events = null;
+		shutdownWorkers();
+		if( this.time.hasComplete() || this.time.hasThrowable() )
+			LOG.warn( "Failure after termination", e );
+		else
+			this.time.onError( e );
+	}
+
+	@Override
+	public Disposable onReset( final ThrowingConsumer<Scheduler, ?> consumer )
+	{
+		return this.reset.subscribe( scheduler ->
+		{
+			try
+			{
+				LOG.trace( "Using config: {}", this.config.toJSON() );
+				consumer.accept( scheduler );
+			} catch( final Throwable e )
+			{
+				fail( e );
+			}
+		}, this::fail );
+	}
+
+	/**
+	 * @return the wall-clock {@link Pacer} with its lag metrics, or
+	 *         {@code null} if running as fast as possible
+	 */
+	public Pacer pacer()
+	{
+		return this.pacer;
+	}
+
+	/**
+	 * @param instant the {@link Instant} to convert
+	 * @return the amount of {@link #timeUnit() base units} as primitive tick
+	 */
+	protected double toTick( final Instant instant )
+	{
+		final Unit<?> unit = instant.unit();
+		return unit.equals( timeUnit() ) || unit.equals( TimeUnits.STEPS )
+				? instant.value().doubleValue()
+				: QuantityUtil.toNumber( instant.unwrap(), timeUnit() )
+						.doubleValue();
+	}
+
+	private void advanceTo( final double tick, final Instant t )
+	{
+		this.now = t;
+		if( tick != this.nowTick )
+		{
+			this.nowTick = tick;
+			final SchedulerStats.Recorder recorder = this.recorder;
+			if( recorder == null )
+				this.time.onNext( t );
+			else
+			{
+				final long t0 = System.nanoTime();
+				this.time.onNext( t );
+				recorder.emitted( t0 );
+			}
+		}
+	}
+
+	@Override
+	public void resume()
+	{
+		if( this.running ) return; // already resumed, e.g. by some event
+		resumeBefore( Double.POSITIVE_INFINITY );
+		if( this.events == null ) return; // failed
+		// complete time instants at replication end
+		if( this.pacer != null )
+		{
+			this.pacer.pace( this.endTick );
+			LOG.info( "Paced {}: {}", this, this.pacer );
+		}
+		advanceTo( this.endTick,
+				Instant.of( this.config.rawDuration(), timeUnit() ) );
+		this.events.clear();
+		this.tombstones = 0;
+		releaseAll();
+		shutdownWorkers();
+		if( this.recorder != null ) this.recorder.complete( this.now, 0 );
+		this.time.onComplete();
+	}
+
+	private void shutdownWorkers()
+	{
+		if( this.workers == null ) return;
+		this.workers.shutdown();
+		this.workers = null;
+	}
+
+	/**
+	 * initializes (i.e. {@link #onReset resets}) this scheduler if necessary,
+	 * then executes only those events due before some (exclusive) bound, e.g.
+	 * the end of some synchronization window, without completing
+	 * {@link #time()}
+	 * 
+	 * @param bound the (exclusive) upper bound, in ticks of the base
+	 *            {@link #timeUnit()}
+	 * @see #nextTick()
+	 */
+	public void resumeBefore( final double bound )
+	{
+		if( this.running ) return; // already resumed, e.g. by some event
+		if( this.events == null )
+		{
+			if( this.time.hasComplete() || this.time.hasThrowable() ) return;
+			try
+			{
+				if( this.recorder == null )
+					this.recorder = this.config.statsRecorder();
+				this.events = this.config.eventList();
+				final BigDecimal duration = Objects.requireNonNull(
+						this.config.rawDuration(),
+						SchedulerConfig.DURATION_KEY + " not set" );
+				this.endTick = duration.doubleValue();
+				advanceTo( 0d, Instant.of( BigDecimal.ZERO, timeUnit() ) );
+				// scheduler ready, publish
+				this.reset.onNext( this );
+				if( this.restoring != null && this.events != null )
+					restore( this.events, this.restoring );
+				this.pacer = this.config.pacer();
+				if( this.pacer != null ) this.pacer.start( this.nowTick );
+				final int parallelism = this.config.parallelism();
+				if( parallelism > 0 && this.events != null )
+					this.workers = new ForkJoinPool( parallelism );
+			} catch( final Throwable e )
+			{
+				fail( e );
+			}
+		}
+		this.running = true;
+		try
+		{
+			for( double tick = nextTick(); tick < bound; tick = nextTick() )
+			{
+				if( this.pacer != null && tick != this.nowTick )
+					this.pacer.pace( tick );
+				final Event event = this.events.removeFirst();
+				advanceTo( tick, event.when );
+				if( event.partition != null && this.workers != null )
+					fireIndependent( tick, event );
+				else
+				{
+					event.fire();
+					release( event );
+				}
+			}
+		} finally
+		{
+			this.running = false;
+		}
+	}
+
+	/**
+	 * executes some independent event and all independent events following
+	 * it at the same tick, in parallel per partition, then merges their
+	 * buffered effects in order of each partition's first event
+	 */
+	private void fireIndependent( final double tick, final Event first )
+	{
+		final Map<Object, Partition> partitions = new LinkedHashMap<>();
+		for( Event event = first; event != null; event = nextTick() == tick
+				&& this.events.first().partition != null
+						? this.events.removeFirst() : null )
+			partitions.computeIfAbsent( event.partition, k -> new Partition() )
+					.events.add( event );
+		this.parallel = true;
+		try
+		{
+			this.workers.invokeAll( partitions.values() );
+		} finally
+		{
+			this.parallel = false;
+		}
+		for( Partition partition : partitions.values() )
+		{
+			for( ThrowingRunnable<?> effect : partition.effects )
+				try
+				{
+					effect.run();
+				} catch( final Throwable e )
+				{
+					fail( e );
+				}
+			for( Event event : partition.events )
+				release( event );
+		}
+	}
+
+	/**
+	 * @return the {@link Partition} executing in the current thread, or
+	 *         {@code null} if sequential
+	 */
+	private Partition partition()
+	{
+		return this.parallel ? this.executing.get() : null;
+	}
+
+	@Override
+	public void merge( final ThrowingRunnable<?> effect )
+	{
+		final Partition partition = partition();
+		if( partition != null )
+			partition.effects.add( effect );
+		else
+			Scheduler.super.merge( effect );
+	}
+
+	/**
+	 * @return the tick of the first pending (non-cancelled) event due within
+	 *         the replication's duration, or {@link Double#POSITIVE_INFINITY}
+	 *         if none remain, or this scheduler was not yet reset or has
+	 *         failed
+	 */
+	public double nextTick()
+	{
+		final EventList<Event> events = this.events;
+		if( events == null ) return Double.POSITIVE_INFINITY;
+		while( !events.isEmpty() )
+		{
+			final double tick = events.firstTick();
+			if( tick > this.endTick ) break;
+			if( !events.first().isCancelled() ) return tick;
+			release( events.removeFirst() ); // skip tombstone
+			this.tombstones--;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public Expectation schedule( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		return schedule( when, what, null );
+	}
+
+	/** schedules a pooled {@link Event}, recycled upon occurrence */
+	@Override
+	public void post( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		add( when, what, null, null, true );
+	}
+
+	/** schedules a pooled independent {@link Event} */
+	@Override
+	public void post( final Instant when, final Object partition,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		add( when, what, null, partition, true );
+	}
+
+	/**
+	 * schedules a pooled {@link Event}, recycled upon occurrence or removal,
+	 * rather than allocating an {@link Expectation}
+	 * 
+	 * @param when the {@link Instant} of execution
+	 * @param what the {@link ThrowingConsumer} to call upon occurrence
+	 * @return a compact handle for {@link #cancel(long)}, or
+	 *         {@link #NO_HANDLE} if scheduling failed
+	 */
+	public long expect( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		return expect( when, null, what );
+	}
+
+	/**
+	 * schedules a pooled independent {@link Event}, recycled upon occurrence
+	 * or removal, rather than allocating an {@link Expectation}
+	 * 
+	 * @param when the {@link Instant} of execution
+	 * @param partition the partition key, or {@code null} if not independent
+	 * @param what the {@link ThrowingConsumer} to call upon occurrence
+	 * @return a compact handle for {@link #cancel(long)}, or
+	 *         {@link #NO_HANDLE} if scheduling failed
+	 * @see #post(Instant, Object, ThrowingConsumer)
+	 */
+	public long expect( final Instant when, final Object partition,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		final Event event = add( when, what, null, partition, true );
+		return event == null ? NO_HANDLE : event.handle();
+	}
+
+	/**
+	 * @param handle the handle of some {@link #expect expected} event
+	 * @return {@code true} iff the event was still pending, i.e. had neither
+	 *         occurred nor been cancelled yet
+	 */
+	public boolean cancel( final long handle )
+	{
+		final Event event = pooledSafely( handle );
+		if( event == null || event.isCancelled() ) return false;
+		event.dispose();
+		return true;
+	}
+
+	/**
+	 * @param handle the handle of some {@link #expect expected} event
+	 * @return {@code true} iff the event is still pending
+	 */
+	public boolean isPending( final long handle )
+	{
+		final Event event = pooledSafely( handle );
+		return event != null && !event.isCancelled();
+	}
+
+	/**
+	 * @param when the {@link Instant} of execution
+	 * @param action the key of some {@link #register registered} action
+	 * @return the {@link Expectation} of the (checkpointable) event
+	 */
+	@Override
+	public Expectation schedule( final Instant when, final String action )
+	{
+		final ThrowingConsumer<Instant, ?> what = this.actions.get( action );
+		if( what == null ) Thrower.throwNew( IllegalArgumentException::new,
+				() -> "No action registered: " + action );
+		return schedule( when, what, action );
+	}
+
+	private Expectation schedule( final Instant when,
+		final ThrowingConsumer<Instant, ?> what, final String action )
+	{
+		final Event event = add( when, what, action, null, false );
+		return event == null ? null : Expectation.of( this, when, event );
+	}
+
+	/**
+	 * @param pooled whether to recycle the {@link Event}, i.e. iff no
+	 *            {@link Expectation} refers to it
+	 * @return the {@link Event} added, or {@code null} if failed
+	 */
+	private Event add( final Instant when,
+		final ThrowingConsumer<Instant, ?> what, final String action,
+		final Object partition, final boolean pooled )
+	{
+		final EventList<Event> events = this.events;
+		if( events == null ) return null; // sim/model failed
+		try
+		{
+			final double tick = when == this.now ? this.nowTick
+					: toTick( when );
+			if( tick < this.nowTick )
+				Thrower.throwNew( IllegalArgumentException::new,
+						() -> "Can't schedule in past: " + when + " < (now) "
+								+ this.now );
+			final Partition context = partition();
+			final Event event;
+			if( !pooled )
+				event = new Event( when, tick, what, null, action );
+			else if( context == null )
+				event = acquire( when, tick, what );
+			else
+				synchronized( this.executing )
+				{
+					event = acquire( when, tick, what );
+				}
+			event.partition = partition;
+			if( context != null )
+			{
+				// insert upon merge, in deterministic order
+				context.effects.add( () -> added( tick, event ) );
+				return event;
+			}
+			added( tick, event );
+			return event;
+		} catch( final Exception e )
+		{
+			fail( e );
+			return null;
+		}
+	}
+
+	private void added( final double tick, final Event event )
+	{
+		final EventList<Event> events = this.events;
+		if( events == null ) return; // sim/model failed
+		events.add( tick, event );
+		if( this.recorder != null ) this.recorder.scheduled( 1 );
+		purgeIfMostlyCancelled( events );
+	}
+
+	/** @return a recycled or new pooled {@link Event} */
+	private Event acquire( final Instant when, final double tick,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		final Event event = this.free;
+		if( event == null )
+		{
+			if( this.slotCount == this.slots.length ) this.slots = Arrays
+					.copyOf( this.slots, Math.max( 16, this.slotCount << 1 ) );
+			final Event result = new Event( when, tick, what, null, null );
+			result.slot = this.slotCount;
+			this.slots[this.slotCount++] = result;
+			return result;
+		}
+		this.free = event.nextFree;
+		event.nextFree = null;
+		event.when = when;
+		event.tick = tick;
+		event.what = what;
+		event.cancelled = false;
+		return event;
+	}
+
+	/** recycles a pooled {@link Event}, invalidating its handle */
+	private void release( final Event event )
+	{
+		if( event.slot < 0 ) return; // not pooled
+		event.generation++;
+		event.when = null; // allow gc
+		event.what = null;
+		event.partition = null;
+		event.cancelled = true;
+		event.nextFree = this.free;
+		this.free = event;
+	}
+
+	/** recycles all pooled {@link Event}s, e.g. after clearing the list */
+	private void releaseAll()
+	{
+		this.free = null;
+		for( int i = this.slotCount - 1; i >= 0; i-- )
+			release( this.slots[i] );
+	}
+
+	/** @return the pooled {@link Event}, guarded if in parallel */
+	private Event pooledSafely( final long handle )
+	{
+		if( partition() == null ) return pooled( handle );
+		synchronized( this.executing )
+		{
+			return pooled( handle );
+		}
+	}
+
+	/** @return the pending pooled {@link Event}, or {@code null} */
+	private Event pooled( final long handle )
+	{
+		final int slot = (int) handle;
+		if( slot < 0 || slot >= this.slotCount ) return null;
+		final Event event = this.slots[slot];
+		return event.generation == (int) (handle >>> 32) ? event : null;
+	}
+
+	/**
+	 * inserts the batch into the {@link EventList} at once, sorted by tick
+	 * (stable, i.e. retaining iteration order for equal ticks)
+	 */
+	@Override
+	public Disposable scheduleAll( final Iterable<Instant> when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		final Batch batch = new Batch();
+		final EventList<Event> events = this.events;
+		if( events == null ) return batch; // sim/model failed
+		try
+		{
+			final List<Event> pending = new ArrayList<>();
+			for( Instant t : when )
+			{
+				final double tick = t == this.now ? this.nowTick : toTick( t );
+				if( tick < this.nowTick )
+					Thrower.throwNew( IllegalArgumentException::new,
+							() -> "Can't schedule in past: " + t + " < (now) "
+									+ this.now );
+				if( tick <= this.endTick ) // otherwise never occurs
+					pending.add( new Event( t, tick, what, batch, null ) );
+			}
+			final int n = pending.size();
+			final Event[] sorted = pending.toArray( new Event[n] );
+			Arrays.sort( sorted, ( e1, e2 ) -> Double.compare( e1.tick,
+					e2.tick ) ); // stable
+			final double[] ticks = new double[n];
+			for( int i = 0; i < n; i++ )
+				ticks[i] = sorted[i].tick;
+			batch.pending = n;
+			final Partition context = partition();
+			if( context != null )
+				// insert upon merge, in deterministic order
+				context.effects.add( () -> addedAll( ticks, sorted, n ) );
+			else
+				addedAll( ticks, sorted, n );
+		} catch( final Exception e )
+		{
+			fail( e );
+		}
+		return batch;
+	}
+
+	private void addedAll( final double[] ticks, final Event[] sorted,
+		final int n )
+	{
+		final EventList<Event> events = this.events;
+		if( events == null ) return; // sim/model failed
+		events.addAll( ticks, sorted, n );
+		if( this.recorder != null ) this.recorder.scheduled( n );
+		purgeIfMostlyCancelled( events );
+	}
+
+	/** counts some cancelled (pending) events, upon merge if in parallel */
+	private void cancelled( final int n )
+	{
+		final Partition context = partition();
+		if( context != null )
+		{
+			context.effects.add( () -> cancelled( n ) );
+			return;
+		}
+		this.tombstones += n;
+		if( this.recorder != null ) this.recorder.cancelled( n );
+	}
+
+	/** records some callback's duration, upon merge if in parallel */
+	private void fired( final SchedulerStats.Recorder recorder,
+		final Object what, final Instant when, final long t0 )
+	{
+		final Partition context = partition();
+		if( context != null )
+		{
+			final long nanos = System.nanoTime() - t0;
+			context.effects.add( () -> fired( recorder, what, when,
+					System.nanoTime() - nanos ) );
+			return;
+		}
+		final EventList<Event> events = this.events;
+		if( recorder.fired( what, t0 ) && events != null )
+			recorder.sample( when, events.size() );
+	}
+
+	private void purgeIfMostlyCancelled( final EventList<Event> events )
+	{
+		if( this.tombstones > PURGE_THRESHOLD
+				&& this.tombstones > events.size() >>> 1 )
+		{
+			// mostly cancelled, purge in bulk
+			events.removeIf( this::purge );
+			this.tombstones = 0;
+		}
+	}
+
+	private boolean purge( final Event event )
+	{
+		if( !event.isCancelled() ) return false;
+		release( event );
+		return true;
+	}
+
+	/**
+	 * binds some (model) action to a key, e.g. upon each {@link #onReset
+	 * reset}, so that events {@link #schedule(Instant, String) scheduled} by
+	 * this key can be {@link #checkpoint() checkpointed} and
+	 * {@link #restore(Checkpoint) restored}
+	 * 
+	 * @param key the action key, unique within the replication
+	 * @param action the action to (re)bind
+	 */
+	@Override
+	public void register( final String key,
+		final ThrowingConsumer<Instant, ?> action )
+	{
+		this.actions.put( Objects.requireNonNull( key ),
+				Objects.requireNonNull( action ) );
+	}
+
+	/**
+	 * binds some {@link Checkpoint.Stateful} component (e.g. some
+	 * {@link io.coala.random.PseudoRandom.JavaRandom JavaRandom}) to a key,
+	 * e.g. upon each {@link #onReset reset}, for its state to be
+	 * {@link #checkpoint() checkpointed} and {@link #restore(Checkpoint)
+	 * restored}
+	 * 
+	 * @param key the state key, unique within the replication
+	 * @param state the {@link Checkpoint.Stateful} to (re)bind
+	 */
+	@Override
+	public void register( final String key, final Checkpoint.Stateful state )
+	{
+		this.states.put( Objects.requireNonNull( key ),
+				Objects.requireNonNull( state ) );
+	}
+
+	/**
+	 * unbinds some {@link #register registered} action and/or state, e.g.
+	 * once its owner terminates; events already scheduled by this key still
+	 * occur, but are no longer {@link #checkpoint() checkpointed}
+	 * 
+	 * @param key the action and/or state key
+	 */
+	@Override
+	public void unregister( final String key )
+	{
+		this.actions.remove( key );
+		this.states.remove( key );
+	}
+
+	@Override
+	public boolean isCheckpointable()
+	{
+		return true;
+	}
+
+	/**
+	 * takes a {@link Checkpoint} of the current time, pending events and
+	 * registered states, e.g. from within some event or between
+	 * {@link #resumeBefore windows}
+	 * 
+	 * @return the {@link Checkpoint}
+	 * @throws IllegalStateException if not yet reset, or if some pending event
+	 *             refers to an anonymous (unregistered) action, e.g. as
+	 *             {@link #post posted} or {@link #expect expected}
+	 */
+	@Override
+	public Checkpoint checkpoint()
+	{
+		final EventList<Event> events = this.events;
+		if( events == null ) Thrower.throwNew( IllegalStateException::new,
+				() -> "Not reset or already terminated: " + this );
+		// drain (live) events in order of occurrence, then reinsert
+		final List<Event> pending = new ArrayList<>( events.size() );
+		while( !events.isEmpty() )
+		{
+			final Event event = events.removeFirst();
+			if( !event.isCancelled() )
+				pending.add( event );
+			else
+				release( event );
+		}
+		this.tombstones = 0;
+		final int n = pending.size();
+		final Event[] sorted = pending.toArray( new Event[n] );
+		final double[] ticks = new double[n];
+		final Instant[] instants = new Instant[n];
+		final String[] actions = new String[n];
+		for( int i = 0; i < n; i++ )
+		{
+			ticks[i] = sorted[i].tick;
+			instants[i] = sorted[i].when;
+			actions[i] = sorted[i].action;
+		}
+		events.addAll( ticks, sorted, n );
+		// skip events of unregistered actions, e.g. lazily cancelled ones
+		int m = 0;
+		final double[] keptTicks = new double[n];
+		final Instant[] keptInstants = new Instant[n];
+		final String[] keptActions = new String[n];
+		for( int i = 0; i < n; i++ )
+			if( actions[i] == null )
+			{
+				final Instant when = instants[i];
+				final boolean posted = sorted[i].slot >= 0;
+				Thrower.throwNew( IllegalStateException::new,
+						() -> (posted ? "Can't checkpoint posted event due at t="
+								: "Can't checkpoint anonymous action due at t=")
+								+ when + ", register its key and schedule"
+								+ " by key instead" );
+			} else if( this.actions.containsKey( actions[i] ) )
+			{
+				keptTicks[m] = ticks[i];
+				keptInstants[m] = instants[i];
+				keptActions[m] = actions[i];
+				m++;
+			}
+		final Map<String, byte[]> states = new LinkedHashMap<>();
+		try
+		{
+			for( Map.Entry<String, Checkpoint.Stateful> entry : this.states
+					.entrySet() )
+				states.put( entry.getKey(),
+						Checkpoint.save( entry.getValue() ) );
+		} catch( final IOException e )
+		{
+			Thrower.rethrowUnchecked( e );
+		}
+		return new Checkpoint( this.config.rawId(), this.nowTick, this.now,
+				Arrays.copyOf( keptTicks, m ), Arrays.copyOf( keptInstants, m ),
+				Arrays.copyOf( keptActions, m ), states );
+	}
+
+	/**
+	 * restores some {@link Checkpoint} upon (i.e. directly after) the next
+	 * {@link #onReset reset}, which must (re){@link #register} the actions and
+	 * states involved. Any events scheduled during the reset are discarded and
+	 * replaced by the checkpointed ones, after restoring the states, which may
+	 * thus (re)register the actions of their own pending events
+	 * 
+	 * @param checkpoint the {@link Checkpoint} to restore
+	 * @throws IllegalStateException if already reset
+	 */
+	@Override
+	public void restore( final Checkpoint checkpoint )
+	{
+		if( this.events != null || this.time.hasComplete()
+				|| this.time.hasThrowable() )
+			Thrower.throwNew( IllegalStateException::new,
+					() -> "Already reset: " + this );
+		this.restoring = Objects.requireNonNull( checkpoint );
+	}
+
+	private void restore( final EventList<Event> events,
+		final Checkpoint checkpoint ) throws IOException
+	{
+		this.restoring = null;
+		events.clear();
+		this.tombstones = 0;
+		releaseAll();
+		advanceTo( checkpoint.tick(), checkpoint.now() );
+		// restore states first, as they may (re)register their actions
+		for( Map.Entry<String, Checkpoint.Stateful> entry : new ArrayList<>(
+				this.states.entrySet() ) )
+			if( !checkpoint.restore( entry.getValue(), entry.getKey() ) )
+				LOG.warn( "No state checkpointed for: {}", entry.getKey() );
+		final int n = checkpoint.size();
+		final Event[] restored = new Event[n];
+		final double[] ticks = new double[n];
+		for( int i = 0; i < n; i++ )
+		{
+			final String action = checkpoint.action( i );
+			final ThrowingConsumer<Instant, ?> what = this.actions
+					.get( action );
+			if( what == null ) Thrower.throwNew( IllegalStateException::new,
+					() -> "No action registered: " + action );
+			ticks[i] = checkpoint.tick( i );
+			restored[i] = new Event( checkpoint.instant( i ), ticks[i], what,
+					null, action );
+		}
+		events.addAll( ticks, restored, n );
+		LOG.trace( "Restored {}", checkpoint );
+	}
+
+	/**
+	 * {@link Batch} is a bulk cancellation handle for pending events
+	 * scheduled via {@link #scheduleAll}
+	 */
+	class Batch implements Disposable
+	{
+		/** the number of events yet to occur */
+		int pending = 0;
+
+		boolean disposed = false;
+
+		@Override
+		public boolean isDisposed()
+		{
+			return this.disposed;
+		}
+
+		@Override
+		public void dispose()
+		{
+			if( this.disposed ) return;
+			this.disposed = true;
+			cancelled( this.pending );
+		}
+	}
+
+	/**
+	 * {@link Event} is a pending occurrence that may be cancelled (lazily
+	 * removed) through its {@link Disposable} interface, or through its
+	 * {@link #handle()} if pooled
+	 */
+	class Event implements Disposable
+	{
+		Instant when;
+
+		double tick;
+
+		ThrowingConsumer<Instant, ?> what;
+
+		final Batch batch;
+
+		/** the registered action key, or {@code null} if anonymous */
+		final String action;
+
+		boolean cancelled = false;
+
+		/** the index into {@link #slots}, or {@code -1} if not pooled */
+		int slot = -1;
+
+		/** the number of times this pooled {@link Event} was recycled */
+		int generation = 0;
+
+		/** the next free pooled {@link Event}, or {@code null} */
+		Event nextFree = null;
+
+		/** the partition key if independent, or {@code null} */
+		Object partition = null;
+
+		Event( final Instant when, final double tick,
+			final ThrowingConsumer<Instant, ?> what, final Batch batch,
+			final String action )
+		{
+			this.when = when;
+			this.tick = tick;
+			this.what = what;
+			this.batch = batch;
+			this.action = action;
+		}
+
+		/** @return the slot index and generation, for {@link #cancel(long)} */
+		long handle()
+		{
+			return ((long) this.generation << 32) | this.slot;
+		}
+
+		boolean isCancelled()
+		{
+			return this.cancelled || (this.batch != null && this.batch.disposed);
+		}
+
+		void fire()
+		{
+			this.cancelled = true; // occurred, so no longer cancellable
+			if( this.batch != null ) this.batch.pending--;
+			final SchedulerStats.Recorder recorder = EventListScheduler.this.recorder;
+			final long t0 = recorder == null ? 0 : System.nanoTime();
+			try
+			{
+				this.what.accept( this.when );
+			} catch( final Throwable e )
+			{
+				fail( e );
+			}
+			if( recorder != null ) fired( recorder, this.what, this.when, t0 );
+		}
+
+		@Override
+		public boolean isDisposed()
+		{
+			return isCancelled();
+		}
+
+		@Override
+		public void dispose()
+		{
+			if( isCancelled() ) return;
+			this.cancelled = true;
+			cancelled( 1 );
+		}
+	}
+
+	/**
+	 * {@link Partition} executes the independent {@link Event}s of some
+	 * partition key due at the current tick, in order of insertion, and
+	 * buffers their effects on this scheduler for merging
+	 */
+	class Partition implements Callable<Void>
+	{
+		/** the {@link Event}s to execute */
+		final List<Event> events = new ArrayList<>();
+
+		/** the effects to merge, in order of occurrence */
+		final List<ThrowingRunnable<?>> effects = new ArrayList<>();
+
+		@Override
+		public Void call()
+		{
+			executing.set( this );
+			try
+			{
+				for( Event event : this.events )
+					event.fire();
+			} finally
+			{
+				executing.remove();
+			}
+			return null;
+		}
+	}
+}
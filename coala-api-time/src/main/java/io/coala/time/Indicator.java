@@ -57,6 +57,7 @@ public class Indicator<Q extends Quantity<Q>>
 	public void setValue( final Quantity<Q> amount )
 	{
 		this.value.set( QuantityUtil.valueOf( amount ) );
+		invalidate();
 	}
 
 	/**
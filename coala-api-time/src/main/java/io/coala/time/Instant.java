@@ -146,6 +146,9 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	 */
 	public static Instant of( final String value )
 	{
+		// e.g. "123 ms", parsing each unit label only once
+		if( value != null && UnitCache.isAmountWithLabel( value ) )
+			return of( UnitCache.valueOf( value ) );
 		return of( QuantityUtil.parseDuration( value ) );
 	}
 
@@ -227,6 +230,15 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 		return new Instant( value );
 	}
 
+	/** the compact form's value, scaled by {@link Compact#SCALE} decimals */
+	transient long scaled = 0;
+
+	/** the compact form's interned unit id, or {@link Compact#NONE} */
+	transient int unitId = Compact.NONE;
+
+	/** the compact form's {@link Unit}, or {@code null} */
+	private transient Unit compactUnit = null;
+
 	// for JSON deserialization
 	public Instant()
 	{
@@ -238,10 +250,83 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 		wrap( value );
 	}
 
+	/** compact form, wrapped {@link ComparableQuantity} created lazily */
+	Instant( final long scaled, final Unit unit, final int unitId )
+	{
+		this.scaled = scaled;
+		this.compactUnit = unit;
+		this.unitId = unitId;
+	}
+
+	@Override
+	public Wrapper<ComparableQuantity> wrap( final ComparableQuantity value )
+	{
+		super.wrap( value );
+		final Long scaled = value == null || value.getValue() == null ? null
+				: Compact.scaled( value.getValue() );
+		this.scaled = scaled == null ? 0 : scaled;
+		this.compactUnit = scaled == null ? null : value.getUnit();
+		this.unitId = scaled == null ? Compact.NONE
+				: Compact.unitId( this.compactUnit );
+		return this;
+	}
+
+	@Override
+	public ComparableQuantity unwrap()
+	{
+		final ComparableQuantity result = super.unwrap();
+		if( result != null || this.compactUnit == null ) return result;
+		final ComparableQuantity value = Compact.quantity( this.scaled,
+				this.compactUnit );
+		super.wrap( value ); // materialize, retaining compact form
+		return value;
+	}
+
+	/** @return {@code true} iff both have a compact form of the same unit */
+	private boolean isCompact( final Instant that )
+	{
+		return this.unitId != Compact.NONE && this.unitId == that.unitId;
+	}
+
+	/** @return {@code true} iff both have a compact form of the same unit */
+	private boolean isCompact( final Duration that )
+	{
+		return this.unitId != Compact.NONE && this.unitId == that.unitId;
+	}
+
+	/** @return a compact {@link Instant} of this unit, or {@code null} */
+	private Instant compactSum( final long scaled )
+	{
+		final long sum = this.scaled + scaled;
+		// on overflow, fall back to quantity arithmetic
+		return ((this.scaled ^ sum) & (scaled ^ sum)) < 0 ? null
+				: new Instant( sum, this.compactUnit, this.unitId );
+	}
+
 	@JsonIgnore
 	public boolean isZero()
 	{
-		return DecimalUtil.isZero( value() );
+		return this.unitId != Compact.NONE ? this.scaled == 0
+				: DecimalUtil.isZero( value() );
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.unitId == Compact.NONE ? super.hashCode()
+				: getClass().hashCode() + 31 * (this.compactUnit.hashCode()
+						^ Long.hashCode( this.scaled ));
+	}
+
+	@Override
+	public boolean equals( final Object that )
+	{
+		if( this == that ) return true;
+		if( that == null || that.getClass() != getClass() ) return false;
+		final Instant other = (Instant) that;
+		if( this.unitId != Compact.NONE && other.unitId != Compact.NONE )
+			return this.unitId == other.unitId && this.scaled == other.scaled;
+		return super.equals( that );
 	}
 
 	@JsonValue
@@ -255,6 +340,7 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	public int compareTo( final Comparable o )
 	{
 		final Instant that = (Instant) o;
+		if( isCompact( that ) ) return Long.compare( this.scaled, that.scaled );
 		try
 		{
 			return Comparison.compare( this.unwrap(), that.unwrap() );
@@ -267,7 +353,8 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public Unit<?> unit()
 	{
-		return unwrap().getUnit();
+		return this.compactUnit != null ? this.compactUnit
+				: unwrap().getUnit();
 	}
 
 	public Number value()
@@ -302,6 +389,12 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public Instant add( final Duration augend )
 	{
+		if( isCompact( augend ) )
+		{
+			if( augend.scaled == 0 ) return this;
+			final Instant result = compactSum( augend.scaled );
+			if( result != null ) return result;
+		}
 		if( augend.isZero() ) return this;
 		return add( augend.unwrap() );
 	}
@@ -315,17 +408,37 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	public Instant add( final Number augend )
 	{
 		if( DecimalUtil.signum( augend ) == 0 ) return this;
+		if( this.unitId != Compact.NONE )
+		{
+			final Long scaled = Compact.scaled( augend );
+			final Instant result = scaled == null ? null : compactSum( scaled );
+			if( result != null ) return result;
+		}
 		return add( QuantityUtil.valueOf( augend, unit() ) );
 	}
 
 	public Instant subtract( final Duration subtrahend )
 	{
+		if( isCompact( subtrahend ) && subtrahend.scaled != Long.MIN_VALUE )
+		{
+			if( subtrahend.scaled == 0 ) return this;
+			final Instant result = compactSum( -subtrahend.scaled );
+			if( result != null ) return result;
+		}
 		if( subtrahend.isZero() ) return this;
 		return of( unwrap().subtract( subtrahend.unwrap() ) );
 	}
 
 	public Duration subtract( final Instant subtrahend )
 	{
+		if( isCompact( subtrahend ) )
+		{
+			final long diff = this.scaled - subtrahend.scaled;
+			// on overflow, fall back to quantity arithmetic
+			if( ((this.scaled ^ subtrahend.scaled)
+					& (this.scaled ^ diff)) >= 0 )
+				return new Duration( diff, this.compactUnit, this.unitId );
+		}
 		return Duration.of( unwrap().subtract( subtrahend.unwrap() ) );
 	}
 
@@ -343,7 +456,16 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 
 	public Instant to( final Unit unit )
 	{
-		return unit().equals( unit ) ? this : of( unwrap().to( unit ) );
+		if( unit().equals( unit ) ) return this;
+		if( this.unitId != Compact.NONE )
+		{
+			final Unit target = UnitCache.intern( unit );
+			final Long scaled = UnitCache.conversion( this.compactUnit, target )
+					.scale( this.scaled );
+			if( scaled != null ) return new Instant( scaled, target,
+					Compact.unitId( target ) );
+		}
+		return of( unwrap().to( unit ) );
 	}
 
 	public Instant to( final TimeUnit unit )
@@ -354,13 +476,25 @@ public class Instant extends Wrapper.SimpleOrdinal<ComparableQuantity>
 	/** @return the total amount of (virtual) milliseconds */
 	public long toMillisLong()
 	{
-		return to( TimeUnits.MILLIS ).value().longValue();
+		return toLong( TimeUnits.MILLIS );
 	}
 
 	/** @return the total amount of (virtual) nanoseconds */
 	public long toNanosLong()
 	{
-		return to( TimeUnits.NANOS ).value().longValue();
+		return toLong( TimeUnits.NANOS );
+	}
+
+	/** @return the total amount of some unit, truncated */
+	private long toLong( final Unit unit )
+	{
+		if( this.unitId != Compact.NONE )
+		{
+			final Long result = UnitCache.conversion( this.compactUnit, unit )
+					.truncate( this.scaled );
+			if( result != null ) return result;
+		}
+		return to( unit ).value().longValue();
 	}
 
 	/** @return a posix {@link Date} */
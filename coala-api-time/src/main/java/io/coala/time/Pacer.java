@@ -0,0 +1,180 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Time;
+
+import io.coala.exception.Thrower;
+import tec.uom.se.unit.Units;
+
+/**
+ * {@link Pacer} synchronizes virtual time with the wall-clock (i.e.
+ * {@link System#nanoTime()}) at some {@link SchedulerConfig#speed() speed},
+ * e.g. for hardware-in-the-loop or live dashboards. A {@link Scheduler}
+ * calls {@link #pace(double)} once per distinct tick, i.e. before executing
+ * the batch of events due at that tick, which blocks until the tick's
+ * wall-clock due time or, if already overdue, records the lag as overrun.
+ * <p>
+ * Note that pacing is per virtual tick, not per wall-clock period: nothing
+ * happens while the scheduler waits for its next tick, e.g. no periodic
+ * refresh occurs during a long idle stretch of virtual time, unless some
+ * (possibly empty) event is scheduled periodically to that end
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class Pacer
+{
+
+	/** the lag (in nanoseconds) tolerated before counting an overrun */
+	public static final long TOLERANCE_NANOS = 1_000_000L;
+
+	/**
+	 * @param speed the amount of virtual time per (equal) wall-clock time,
+	 *            e.g. 1 for real-time or 60 for an hour per minute
+	 * @param timeUnit the base time {@link Unit} of virtual ticks, with
+	 *            dimensionless {@link TimeUnits#STEPS} taken as seconds
+	 * @return a new {@link Pacer}
+	 */
+	public static Pacer of( final double speed, final Unit<?> timeUnit )
+	{
+		if( !(speed > 0) || Double.isInfinite( speed ) )
+			Thrower.throwNew( IllegalArgumentException::new,
+					() -> "Speed must be positive and finite, was: " + speed );
+		if( timeUnit == null || timeUnit.equals( TimeUnits.STEPS ) )
+			return new Pacer( 1e9 / speed );
+		if( !timeUnit.isCompatible( Units.SECOND ) )
+			Thrower.throwNew( IllegalArgumentException::new,
+					() -> "Can't pace non-time unit: " + timeUnit );
+		final double seconds = timeUnit.asType( Time.class )
+				.getConverterTo( Units.SECOND ).convert( 1d );
+		return new Pacer( seconds * 1e9 / speed );
+	}
+
+	private final double nanosPerTick;
+
+	private long originNanos;
+
+	private double originTick = Double.NaN;
+
+	private long paced = 0;
+
+	private long overruns = 0;
+
+	private long lagNanos = 0;
+
+	private long maxLagNanos = 0;
+
+	private long totalLagNanos = 0;
+
+	public Pacer( final double nanosPerTick )
+	{
+		this.nanosPerTick = nanosPerTick;
+	}
+
+	/**
+	 * (re)starts pacing, e.g. upon reset or resume
+	 *
+	 * @param tick the current virtual tick, aligned with the wall-clock now
+	 */
+	public void start( final double tick )
+	{
+		this.originTick = tick;
+		this.originNanos = System.nanoTime();
+	}
+
+	/**
+	 * blocks the calling (scheduler) thread until some virtual tick is due in
+	 * wall-clock time, or records its lag if overdue
+	 *
+	 * @param tick the next virtual tick to execute
+	 * @return the lag in nanoseconds, i.e. zero if on time
+	 */
+	public long pace( final double tick )
+	{
+		if( Double.isNaN( this.originTick ) ) start( tick );
+		final long due = this.originNanos
+				+ (long) ((tick - this.originTick) * this.nanosPerTick);
+		this.paced++;
+		for( long wait = due - System.nanoTime(); wait > 0; wait = due
+				- System.nanoTime() )
+		{
+			LockSupport.parkNanos( this, wait );
+			if( Thread.interrupted() )
+			{
+				Thread.currentThread().interrupt();
+				return this.lagNanos = 0; // stop pacing, e.g. upon shutdown
+			}
+		}
+		final long lag = System.nanoTime() - due;
+		this.lagNanos = lag;
+		this.totalLagNanos += lag;
+		if( lag > this.maxLagNanos ) this.maxLagNanos = lag;
+		if( lag > TOLERANCE_NANOS ) this.overruns++;
+		return lag;
+	}
+
+	/** @return the wall-clock nanoseconds per virtual tick */
+	public double nanosPerTick()
+	{
+		return this.nanosPerTick;
+	}
+
+	/** @return the number of ticks paced so far */
+	public long paced()
+	{
+		return this.paced;
+	}
+
+	/**
+	 * @return the number of ticks that were overdue by more than
+	 *         {@link #TOLERANCE_NANOS}
+	 */
+	public long overruns()
+	{
+		return this.overruns;
+	}
+
+	/** @return the lag of the last paced tick, in nanoseconds */
+	public long lagNanos()
+	{
+		return this.lagNanos;
+	}
+
+	/** @return the maximum lag of any paced tick, in nanoseconds */
+	public long maxLagNanos()
+	{
+		return this.maxLagNanos;
+	}
+
+	/** @return the mean lag of paced ticks, in nanoseconds */
+	public double meanLagNanos()
+	{
+		return this.paced == 0 ? 0 : (double) this.totalLagNanos / this.paced;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+				"%s[%d ticks, %d overruns, lag mean %.3fms, max %.3fms]",
+				getClass().getSimpleName(), this.paced, this.overruns,
+				meanLagNanos() / 1e6, this.maxLagNanos / 1e6 );
+	}
+}
@@ -19,9 +19,11 @@
  */
 package io.coala.time;
 
+import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.function.Supplier;
@@ -318,6 +320,71 @@ public interface Proactive extends Timed
 		return scheduler().schedule( when, what );
 	}
 
+	/**
+	 * @param when the {@link Timing} pattern of {@link Instant}s to schedule
+	 * @return an {@link Observable} stream of {@link Instant}s pushed to any
+	 *         {@link Observable#subscribe} caller upon each {@link Instant}'s
+	 *         scheduled occurrence
+	 */
+	default Observable<Instant> atEach( final Timing when )
+	{
+		try
+		{
+			return atEach( when.iterate( scheduler() ) );
+		} catch( final ParseException e )
+		{
+			return Observable.error( e );
+		}
+	}
+
+	/**
+	 * For a finite {@link Timing} (i.e. with {@link Timing#max()}), all
+	 * {@link Instant}s are {@link Scheduler#scheduleAll scheduled at once},
+	 * emitting a single {@link Expectation} (due at the first {@link Instant})
+	 * whose {@link Expectation#remove() removal} cancels all pending
+	 * occurrences in bulk. Otherwise, each next {@link Instant} is scheduled
+	 * upon occurrence of the previous
+	 * 
+	 * @param when the {@link Timing} pattern of {@link Instant}s to schedule
+	 * @param what the {@link ThrowingConsumer} function to call each time
+	 * @return {@link Observable} stream of {@link Expectation}s pushed to any
+	 *         {@link Observable#subscribe} caller
+	 */
+	default Observable<Expectation> atEach( final Timing when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		try
+		{
+			final Iterable<Instant> instants = when.iterate( scheduler() );
+			if( when.max() == null ) return atEach( instants, what );
+			final Iterator<Instant> it = instants.iterator();
+			if( !it.hasNext() ) return Observable.empty();
+			final Instant first = it.next();
+			return Observable.just( Expectation.of( this, first,
+					scheduler().scheduleAll( () -> new Iterator<Instant>()
+					{
+						private boolean started = false;
+
+						@Override
+						public boolean hasNext()
+						{
+							return !this.started || it.hasNext();
+						}
+
+						@Override
+						public Instant next()
+						{
+							if( this.started ) return it.next();
+							this.started = true;
+							return first;
+						}
+					}, what ) ) );
+		} catch( final ParseException e )
+		{
+			return Observable.error( e );
+		}
+	}
+
 	/**
 	 * {@link FutureSelf} is a decorator of a {@link Proactive} object that is
 	 * itself {@link Proactive} but with its {@link #now()} at a fixed (future)
@@ -339,7 +406,8 @@ public interface Proactive extends Timed
 		// test
 		default Expectation call( final Callable<?> call )
 		{
-			return scheduler().schedule( now(), t -> call.call() );
+			return scheduler().schedule( now(),
+					SchedulerStats.Callback.of( call ) );
 		}
 
 		// test
@@ -367,6 +435,16 @@ public interface Proactive extends Timed
 			return scheduler().schedule( now(), call );
 		}
 
+		/**
+		 * @param call the {@link Callable} (method) to call when time comes,
+		 *            without {@link Expectation} for cancellation
+		 * @see Scheduler#post(Instant, ThrowingConsumer)
+		 */
+		default void post( final ThrowingConsumer<Instant, ?> call )
+		{
+			scheduler().post( now(), call );
+		}
+
 		/**
 		 * @param call the {@link Callable} (method) to call when time comes
 		 * @return the {@link Expectation} for potential cancellation
@@ -0,0 +1,332 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Logger;
+
+import io.coala.function.ThrowingConsumer;
+import io.coala.function.ThrowingFunction;
+import io.coala.log.LogUtil;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * {@link Replicator} runs (independent) replications in parallel on a
+ * bounded worker pool, each with its own {@link Scheduler} (and typically its
+ * own {@link io.coala.bind.LocalBinder LocalBinder}) as created by some
+ * factory method, e.g.
+ *
+ * <pre>
+ * Replicator.of( 32, id -&gt; LocalConfig.builder().withId( id )
+ * 		.withProvider( Scheduler.class, ... ).build().createBinder()
+ * 		.inject( Scheduler.class ) ).run( ids, model::init )
+ * </pre>
+ *
+ * Failures are isolated per {@link Replication}, and aggregate throughput is
+ * logged upon completion of each run, or available via {@link #stats()} for
+ * the latest run
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class Replicator
+{
+
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( Replicator.class );
+
+	private static final AtomicInteger THREADS = new AtomicInteger();
+
+	/**
+	 * @param parallelism the maximum number of concurrent replications, e.g.
+	 *            {@link Runtime#availableProcessors()}
+	 * @param factory creates a new {@link Scheduler} per replication id
+	 * @return a new {@link Replicator}
+	 */
+	public static Replicator of( final int parallelism,
+		final ThrowingFunction<String, Scheduler, ?> factory )
+	{
+		return new Replicator( parallelism, factory );
+	}
+
+	private final int parallelism;
+
+	private final ThrowingFunction<String, Scheduler, ?> factory;
+
+	private final AtomicInteger completed = new AtomicInteger();
+
+	private final AtomicInteger failed = new AtomicInteger();
+
+	private final AtomicLong busyNanos = new AtomicLong();
+
+	private final AtomicLong startNanos = new AtomicLong();
+
+	private final AtomicLong endNanos = new AtomicLong();
+
+	public Replicator( final int parallelism,
+		final ThrowingFunction<String, Scheduler, ?> factory )
+	{
+		if( parallelism < 1 ) throw new IllegalArgumentException(
+				"parallelism < 1: " + parallelism );
+		this.parallelism = parallelism;
+		this.factory = factory;
+	}
+
+	/**
+	 * @param ids the replication ids, e.g. {@link SchedulerConfig#ID_KEY}
+	 *            values
+	 * @param onReset the (model) initializer called upon each
+	 *            {@link Scheduler#onReset reset}, or {@code null}
+	 * @return an {@link Observable} stream of {@link Replication} results in
+	 *         order of completion, including failed ones, which resets the
+	 *         {@link #stats()} upon each subscription
+	 */
+	public Observable<Replication> run( final Observable<String> ids,
+		final ThrowingConsumer<Scheduler, ?> onReset )
+	{
+		return Observable.defer( () ->
+		{
+			final ExecutorService pool = Executors.newFixedThreadPool(
+					this.parallelism, r ->
+					{
+						final Thread t = new Thread( r,
+								"replicator-" + THREADS.incrementAndGet() );
+						t.setDaemon( true );
+						return t;
+					} );
+			final io.reactivex.Scheduler workers = Schedulers.from( pool );
+			this.completed.set( 0 );
+			this.failed.set( 0 );
+			this.busyNanos.set( 0 );
+			this.endNanos.set( 0 );
+			this.startNanos.set( System.nanoTime() );
+			return ids.flatMap( id -> Observable
+					.fromCallable( () -> replicate( id, onReset ) )
+					.subscribeOn( workers ), this.parallelism )
+					.doFinally( () ->
+					{
+						pool.shutdown();
+						this.endNanos.set( System.nanoTime() );
+						LOG.info( "Replications done: {}", stats() );
+					} );
+		} );
+	}
+
+	/**
+	 * runs a single replication in the calling thread, blocking until its
+	 * {@link Scheduler#time()} completes or fails
+	 *
+	 * @param id the replication id
+	 * @param onReset the (model) initializer, or {@code null}
+	 * @return the {@link Replication} result, possibly {@link Replication#failed}
+	 */
+	protected Replication replicate( final String id,
+		final ThrowingConsumer<Scheduler, ?> onReset )
+	{
+		final long t0 = System.nanoTime();
+		Scheduler scheduler = null;
+		final AtomicReference<Instant> end = new AtomicReference<>();
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		try
+		{
+			scheduler = this.factory.apply( id );
+			if( onReset != null ) scheduler.onReset( onReset );
+			final CountDownLatch done = new CountDownLatch( 1 );
+			scheduler.time().subscribe( end::set, e ->
+			{
+				error.set( e );
+				done.countDown();
+			}, done::countDown );
+			scheduler.resume();
+			done.await();
+		} catch( final Throwable e )
+		{
+			error.set( e );
+		}
+		final long nanos = System.nanoTime() - t0;
+		this.busyNanos.addAndGet( nanos );
+		this.completed.incrementAndGet();
+		if( error.get() != null )
+		{
+			this.failed.incrementAndGet();
+			LOG.warn( "Replication {} failed at t={}", id,
+					scheduler == null ? null : scheduler.now(), error.get() );
+		}
+		return new Replication( id, scheduler, end.get(), error.get(),
+				nanos );
+	}
+
+	/**
+	 * @return a snapshot of this {@link Replicator}'s aggregate statistics of
+	 *         the latest (or current) run
+	 */
+	public Stats stats()
+	{
+		final long start = this.startNanos.get();
+		final long end = this.endNanos.get();
+		return new Stats( this.completed.get(), this.failed.get(),
+				start == 0 ? 0 : (end == 0 ? System.nanoTime() : end) - start,
+				this.busyNanos.get() );
+	}
+
+	/**
+	 * {@link Replication} holds the result of a single replication
+	 */
+	public static class Replication
+	{
+		private final String id;
+
+		private final Scheduler scheduler;
+
+		private final Instant end;
+
+		private final Throwable error;
+
+		private final long nanos;
+
+		public Replication( final String id, final Scheduler scheduler,
+			final Instant end, final Throwable error, final long nanos )
+		{
+			this.id = id;
+			this.scheduler = scheduler;
+			this.end = end;
+			this.error = error;
+			this.nanos = nanos;
+		}
+
+		/** @return the replication id */
+		public String id()
+		{
+			return this.id;
+		}
+
+		/** @return the {@link Scheduler}, or {@code null} if creation failed */
+		public Scheduler scheduler()
+		{
+			return this.scheduler;
+		}
+
+		/** @return the last {@link Instant} reached, or {@code null} */
+		public Instant end()
+		{
+			return this.end;
+		}
+
+		/** @return the failure cause, or {@code null} */
+		public Throwable error()
+		{
+			return this.error;
+		}
+
+		/** @return {@code true} iff this replication failed */
+		public boolean failed()
+		{
+			return this.error != null;
+		}
+
+		/** @return the wall-clock duration in nanoseconds */
+		public long nanos()
+		{
+			return this.nanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + "[" + this.id + "|t="
+					+ this.end + (failed() ? "|failed: " + this.error : "")
+					+ "]";
+		}
+	}
+
+	/**
+	 * {@link Stats} holds aggregate throughput statistics
+	 */
+	public static class Stats
+	{
+		private final int completed;
+
+		private final int failed;
+
+		private final long wallNanos;
+
+		private final long busyNanos;
+
+		public Stats( final int completed, final int failed,
+			final long wallNanos, final long busyNanos )
+		{
+			this.completed = completed;
+			this.failed = failed;
+			this.wallNanos = wallNanos;
+			this.busyNanos = busyNanos;
+		}
+
+		/** @return the number of replications completed, including failures */
+		public int completed()
+		{
+			return this.completed;
+		}
+
+		/** @return the number of replications failed */
+		public int failed()
+		{
+			return this.failed;
+		}
+
+		/** @return the wall-clock nanoseconds elapsed since the run started */
+		public long wallNanos()
+		{
+			return this.wallNanos;
+		}
+
+		/** @return the summed wall-clock nanoseconds of all replications */
+		public long busyNanos()
+		{
+			return this.busyNanos;
+		}
+
+		/** @return the number of replications completed per second */
+		public double throughput()
+		{
+			return this.wallNanos == 0 ? 0
+					: this.completed * 1e9 / this.wallNanos;
+		}
+
+		/** @return the average number of replications running concurrently */
+		public double concurrency()
+		{
+			return this.wallNanos == 0 ? 0
+					: (double) this.busyNanos / this.wallNanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format(
+					"%d replications (%d failed) in %.3fs: %.2f/s, "
+							+ "concurrency %.2f",
+					this.completed, this.failed, this.wallNanos / 1e9,
+					throughput(), concurrency() );
+		}
+	}
+}
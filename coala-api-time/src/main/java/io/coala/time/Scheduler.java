@@ -2,7 +2,9 @@ package io.coala.time;
 
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
@@ -18,11 +20,13 @@ import io.coala.bind.LocalBinding;
 import io.coala.config.ConfigUtil;
 import io.coala.exception.Thrower;
 import io.coala.function.ThrowingConsumer;
+import io.coala.function.ThrowingFunction;
 import io.coala.function.ThrowingRunnable;
 import io.coala.util.Instantiator;
 import io.reactivex.Observable;
 import io.reactivex.Observer;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
 
@@ -73,6 +77,16 @@ public interface Scheduler extends Proactive, Runnable
 	/** @return an {@link Observable} stream of {@link Instant}s */
 	Observable<Instant> time();
 
+	/**
+	 * @return an {@link Observable} stream of {@link SchedulerStats} samples,
+	 *         if enabled via {@link SchedulerConfig#statsInterval()} and
+	 *         supported by the implementation, or an empty stream otherwise
+	 */
+	default Observable<SchedulerStats> stats()
+	{
+		return Observable.empty();
+	}
+
 	Disposable onReset( ThrowingConsumer<Scheduler, ?> consumer );
 
 	default Disposable onReset( final ThrowingRunnable<?> runnable )
@@ -127,6 +141,176 @@ public interface Scheduler extends Proactive, Runnable
 	 */
 	Expectation schedule( Instant when, ThrowingConsumer<Instant, ?> what );
 
+	/**
+	 * fire-and-forget variant of {@link #schedule(Instant, ThrowingConsumer)}
+	 * for the many events that are never cancelled, so implementations need
+	 * not allocate any {@link Expectation} or cancellation handle
+	 * 
+	 * @param when the {@link Instant} of execution
+	 * @param what the {@link ThrowingConsumer} to call upon occurrence
+	 */
+	default void post( final Instant when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		schedule( when, what );
+	}
+
+	/**
+	 * fire-and-forget variant for events declared independent of those in
+	 * other partitions, e.g. of other organizations, which implementations may
+	 * execute in parallel when due at the same {@link Instant}, provided they
+	 * {@link #merge} any effects shared across partitions
+	 * 
+	 * @param when the {@link Instant} of execution
+	 * @param partition the partition key, e.g. some organization's id
+	 * @param what the {@link ThrowingConsumer} to call upon occurrence
+	 * @see SchedulerConfig#parallelism()
+	 */
+	default void post( final Instant when, final Object partition,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		post( when, what );
+	}
+
+	/**
+	 * runs some effect shared across partitions (e.g. publishing a committed
+	 * fact) immediately, or, if called from an independent event executing in
+	 * parallel, once all events due at the current {@link Instant} have
+	 * completed, in deterministic (i.e. sequential) order of their partitions
+	 * 
+	 * @param effect the {@link ThrowingRunnable} to run
+	 * @see #post(Instant, Object, ThrowingConsumer)
+	 */
+	default void merge( final ThrowingRunnable<?> effect )
+	{
+		try
+		{
+			effect.run();
+		} catch( final Throwable e )
+		{
+			Thrower.rethrowUnchecked( e );
+		}
+	}
+
+	/**
+	 * @return {@code true} iff this {@link Scheduler} supports named actions
+	 *         and {@link Checkpoint.Stateful stateful} components, and their
+	 *         {@link #checkpoint() checkpoints}
+	 */
+	default boolean isCheckpointable()
+	{
+		return false;
+	}
+
+	/**
+	 * binds some (model) action to a key, e.g. upon each {@link #onReset
+	 * reset}, so that events {@link #schedule(Instant, String) scheduled} by
+	 * this key can be {@link #checkpoint() checkpointed} and
+	 * {@link #restore(Checkpoint) restored}
+	 * 
+	 * @param key the action key, unique within the replication
+	 * @param action the action to (re)bind
+	 * @throws UnsupportedOperationException unless {@link #isCheckpointable()}
+	 */
+	default void register( final String key,
+		final ThrowingConsumer<Instant, ?> action )
+	{
+		Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Named actions unsupported by " + getClass().getName() );
+	}
+
+	/**
+	 * binds some {@link Checkpoint.Stateful} component (e.g. some
+	 * {@link io.coala.random.PseudoRandom.JavaRandom JavaRandom}) to a key,
+	 * e.g. upon each {@link #onReset reset}, for its state to be
+	 * {@link #checkpoint() checkpointed} and {@link #restore(Checkpoint)
+	 * restored}
+	 * 
+	 * @param key the state key, unique within the replication
+	 * @param state the {@link Checkpoint.Stateful} to (re)bind
+	 * @throws UnsupportedOperationException unless {@link #isCheckpointable()}
+	 */
+	default void register( final String key, final Checkpoint.Stateful state )
+	{
+		Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Stateful components unsupported by "
+						+ getClass().getName() );
+	}
+
+	/**
+	 * unbinds some {@link #register registered} action and/or state, e.g.
+	 * once its owner terminates; events already scheduled by this key still
+	 * occur, but are no longer {@link #checkpoint() checkpointed}
+	 * 
+	 * @param key the action and/or state key
+	 */
+	default void unregister( final String key )
+	{
+		// nothing registered
+	}
+
+	/**
+	 * @param when the {@link Instant} of execution
+	 * @param action the key of some {@link #register registered} action
+	 * @return the {@link Expectation} of the (checkpointable) event
+	 * @throws UnsupportedOperationException unless {@link #isCheckpointable()}
+	 */
+	default Expectation schedule( final Instant when, final String action )
+	{
+		return Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Named actions unsupported by " + getClass().getName() );
+	}
+
+	/**
+	 * takes a {@link Checkpoint} of the current time, pending events and
+	 * {@link #register registered} states, e.g. from within some event
+	 * 
+	 * @return the {@link Checkpoint}
+	 * @throws UnsupportedOperationException unless {@link #isCheckpointable()}
+	 */
+	default Checkpoint checkpoint()
+	{
+		return Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Checkpoints unsupported by " + getClass().getName() );
+	}
+
+	/**
+	 * restores some {@link Checkpoint} upon the next {@link #onReset reset},
+	 * which must (re){@link #register} the actions and states involved
+	 * 
+	 * @param checkpoint the {@link Checkpoint} to restore
+	 * @throws UnsupportedOperationException unless {@link #isCheckpointable()}
+	 */
+	default void restore( final Checkpoint checkpoint )
+	{
+		Thrower.throwNew( UnsupportedOperationException::new,
+				() -> "Checkpoints unsupported by " + getClass().getName() );
+	}
+
+	/**
+	 * Schedule a (finite) batch of occurrences at once, rather than each next
+	 * {@link Instant} upon occurrence of the previous, as in
+	 * {@link #schedule(Iterable, ThrowingConsumer)}
+	 * 
+	 * @param when the finite {@link Iterable} of {@link Instant}s, consumed
+	 *            eagerly
+	 * @param what the {@link ThrowingConsumer} to call upon each occurrence
+	 * @return a {@link Disposable} to cancel all pending occurrences in bulk
+	 */
+	default Disposable scheduleAll( final Iterable<Instant> when,
+		final ThrowingConsumer<Instant, ?> what )
+	{
+		final List<Expectation> result = new ArrayList<>();
+		for( Instant t : when )
+		{
+			final Expectation exp = schedule( t, what );
+			if( exp == null ) break; // sim/model failed
+			result.add( exp );
+		}
+		return Disposables
+				.fromAction( () -> result.forEach( Expectation::remove ) );
+	}
+
 	/**
 	 * @param when the {@link Instant} of execution
 	 * @param what the {@link Runnable}
@@ -135,7 +319,7 @@ public interface Scheduler extends Proactive, Runnable
 	default Expectation schedule( final Instant when,
 		final ThrowingRunnable<?> what )
 	{
-		return schedule( when, t -> what.run() );
+		return schedule( when, SchedulerStats.Callback.of( what ) );
 	}
 
 	/**
@@ -182,7 +366,7 @@ public interface Scheduler extends Proactive, Runnable
 	default <T> Observable<Expectation> schedule( final Iterable<Instant> when,
 		final ThrowingRunnable<?> what )
 	{
-		return schedule( when, t -> what.run() );
+		return schedule( when, SchedulerStats.Callback.of( what ) );
 	}
 
 	/**
@@ -203,7 +387,7 @@ public interface Scheduler extends Proactive, Runnable
 		final ThrowingConsumer<Instant, ?> what )
 	{
 		final Subject<Expectation> result = PublishSubject.create();
-		schedule( when, result ).subscribe( t ->
+		schedule( when, result, what ).subscribe( t ->
 		{
 			try
 			{
@@ -232,7 +416,8 @@ public interface Scheduler extends Proactive, Runnable
 	default <R> Observable<R> schedule( final Iterable<Instant> when,
 		final Callable<R> what )
 	{
-		return schedule( when ).map( t -> what.call() );
+		return schedule( when, (Observer<Expectation>) null, what )
+				.map( t -> what.call() );
 	}
 
 	/**
@@ -247,20 +432,38 @@ public interface Scheduler extends Proactive, Runnable
 	 */
 	default Observable<Instant> schedule( final Iterable<Instant> when,
 		final Observer<Expectation> expecter )
+	{
+		return schedule( when, expecter, null );
+	}
+
+	/**
+	 * @param when the {@link Iterable} stream of {@link Instant}s
+	 * @param expecter (optional) {@link Observer} of {@link Expectation}s for
+	 *            each upcoming {@link Instant}
+	 * @param source (optional) the subscribing callback, to attribute
+	 *            {@link SchedulerStats} to
+	 * @return transformed {@link Observable} stream of delayed {@link Instant}s
+	 *         pushed to any {@link Observable#subscribe} caller
+	 * @see #schedule(Iterable, Observer)
+	 */
+	default Observable<Instant> schedule( final Iterable<Instant> when,
+		final Observer<Expectation> expecter, final Object source )
 	{
 		final Subject<Instant> delayedCopy = PublishSubject.create();
+		final ThrowingConsumer<Instant, ?> onNext = SchedulerStats.Callback
+				.of( source, delayedCopy::onNext );
 		// schedule first element from iterator
 		final Iterator<Instant> it = when.iterator();
 		if( !it.hasNext() ) return Observable.empty();
 		final Instant t0 = it.next();
-		final Expectation exp0 = schedule( t0, delayedCopy::onNext );
+		final Expectation exp0 = schedule( t0, onNext );
 		if( exp0 == null ) expecter.onComplete(); // sim/model failed
 		if( expecter != null ) expecter.onNext( exp0 );
 		// schedule each following element upon merge with delayed previous
 		atEnd( delayedCopy::onComplete, delayedCopy::onError );
 		return delayedCopy.zipWith( () -> it, ( t, t_next ) ->
 		{
-			final Expectation exp = schedule( t_next, delayedCopy::onNext );
+			final Expectation exp = schedule( t_next, onNext );
 			if( expecter != null ) expecter.onNext( exp );
 			return t;
 		} )/* .serialize() */;
@@ -296,7 +499,7 @@ public interface Scheduler extends Proactive, Runnable
 	default <T> Observable<Expectation> schedule(
 		final Observable<Instant> when, final ThrowingRunnable<?> what )
 	{
-		return schedule( when, t -> what.run() );
+		return schedule( when, SchedulerStats.Callback.of( what ) );
 	}
 
 	/**
@@ -316,7 +519,7 @@ public interface Scheduler extends Proactive, Runnable
 		final ThrowingConsumer<Instant, ?> what )
 	{
 		final Subject<Expectation> result = PublishSubject.create();
-		schedule( when, result ).subscribe( t ->
+		schedule( when, result, what ).subscribe( t ->
 		{
 			try
 			{
@@ -348,7 +551,7 @@ public interface Scheduler extends Proactive, Runnable
 	default <R> Observable<R> schedule( final Observable<Instant> when,
 		final Callable<R> what )
 	{
-		return schedule( when ).map( t ->
+		return schedule( when, (Observer<Expectation>) null, what ).map( t ->
 		{
 			try
 			{
@@ -376,11 +579,29 @@ public interface Scheduler extends Proactive, Runnable
 	 */
 	default Observable<Instant> schedule( final Observable<Instant> when,
 		final Observer<Expectation> what )
+	{
+		return schedule( when, what, null );
+	}
+
+	/**
+	 * @param when the {@link Observable} stream of {@link Instant}s
+	 * @param what (optional) {@link Observer} of {@link Expectation}s for each
+	 *            upcoming {@link Instant}
+	 * @param source (optional) the subscribing callback, to attribute
+	 *            {@link SchedulerStats} to
+	 * @return transformed {@link Observable} stream of delayed {@link Instant}s
+	 *         pushed to any {@link Observable#subscribe} caller
+	 * @see #schedule(Observable, Observer)
+	 */
+	default Observable<Instant> schedule( final Observable<Instant> when,
+		final Observer<Expectation> what, final Object source )
 	{
 		final Subject<Instant> delayedCopy = PublishSubject.create();
+		final ThrowingConsumer<Instant, ?> onNext = SchedulerStats.Callback
+				.of( source, delayedCopy::onNext );
 		return when.map( t ->
 		{
-			final Expectation exp = schedule( t, delayedCopy::onNext );
+			final Expectation exp = schedule( t, onNext );
 			if( what != null ) what.onNext( exp );
 			return t;
 		} ).zipWith(
@@ -425,6 +646,58 @@ public interface Scheduler extends Proactive, Runnable
 					sub::onError, sub::onComplete ) );
 		}
 
+		/**
+		 * @param ids the replication ids
+		 * @param parallelism the maximum number of concurrent replications
+		 * @param onReset the (model) initializer called upon each reset
+		 * @param imports the {@link SchedulerConfig} imports
+		 * @return an {@link Observable} stream of {@link Replicator.Replication}
+		 *         results in order of completion, with failures isolated
+		 * @see Replicator
+		 */
+		default Observable<Replicator.Replication> createAndRun(
+			final Observable<String> ids, final int parallelism,
+			final ThrowingConsumer<Scheduler, ?> onReset,
+			final Map<?, ?>... imports )
+		{
+			return Replicator.of( parallelism, id -> create( id, imports ) )
+					.run( ids, onReset );
+		}
+
+		/**
+		 * runs each replication with its own {@link LocalBinder}, e.g. for
+		 * models that inject their {@link Scheduler} and actors, such as
+		 * 
+		 * <pre>
+		 * createAndRun( ids, 32, id -&gt; LocalConfig.builder().withId( id )
+		 * 		.withProvider( Scheduler.class, ... ).build().createBinder(),
+		 * 		binder -&gt; binder.inject( MyModel.class ) )
+		 * </pre>
+		 * 
+		 * @param ids the replication ids
+		 * @param parallelism the maximum number of concurrent replications
+		 * @param binders creates a new {@link LocalBinder} per replication id,
+		 *            providing its {@link Scheduler}
+		 * @param init the (model) initializer called with each new
+		 *            {@link LocalBinder} before its {@link Scheduler} is
+		 *            injected and run, or {@code null}
+		 * @return an {@link Observable} stream of {@link Replicator.Replication}
+		 *         results in order of completion, with failures isolated
+		 * @see Replicator
+		 */
+		default Observable<Replicator.Replication> createAndRun(
+			final Observable<String> ids, final int parallelism,
+			final ThrowingFunction<String, LocalBinder, ?> binders,
+			final ThrowingConsumer<LocalBinder, ?> init )
+		{
+			return Replicator.of( parallelism, id ->
+			{
+				final LocalBinder binder = binders.apply( id );
+				if( init != null ) init.accept( binder );
+				return binder.inject( Scheduler.class );
+			} ).run( ids, null );
+		}
+
 		@Deprecated
 		@Singleton
 		class Rebinder implements Factory, LocalBinding
@@ -40,6 +40,7 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import io.coala.bind.ProviderConfig;
 import io.coala.config.ConfigUtil;
 import io.coala.json.JsonUtil;
+import io.coala.util.Instantiator;
 
 /**
  * {@link SchedulerConfig}
@@ -57,6 +58,14 @@ public interface SchedulerConfig extends ProviderConfig
 
 	String OFFSET_KEY = "replication.offset";
 
+	String EVENT_LIST_KEY = "replication.event-list";
+
+	String SPEED_KEY = "replication.speed";
+
+	String STATS_INTERVAL_KEY = "replication.stats-interval";
+
+	String PARALLELISM_KEY = "replication.parallelism";
+
 	@Key( ID_KEY )
 //	@DefaultValue( "repl0" )
 	String rawId();
@@ -84,7 +93,7 @@ public interface SchedulerConfig extends ProviderConfig
 		final String value = Objects.requireNonNull( rawTimeUnit(),
 				TIME_UNIT_KEY + " not set" );
 		return value == null ? TimeUnits.STEPS
-				: TimeUnits.UNIT_FORMAT.parse( value );
+				: UnitCache.parse( value );
 	}
 
 	@Key( OFFSET_KEY )
@@ -144,6 +153,72 @@ public interface SchedulerConfig extends ProviderConfig
 				DURATION_KEY + " not set" ), timeUnit() );
 	}
 
+	/**
+	 * @return the type of {@link EventList} holding pending events, if
+	 *         supported by the {@link #implementation()}, e.g.
+	 *         {@link EventList.BinaryHeap} or {@link EventList.Calendar}
+	 */
+	@SuppressWarnings( "rawtypes" )
+	@Key( EVENT_LIST_KEY )
+	@DefaultValue( "io.coala.time.EventList$BinaryHeap" )
+	Class<? extends EventList> eventListType();
+
+	@SuppressWarnings( "unchecked" )
+	default <E> EventList<E> eventList()
+	{
+		return Instantiator.instantiate( Objects.requireNonNull(
+				eventListType(), EVENT_LIST_KEY + " not set" ) );
+	}
+
+	/**
+	 * @return the amount of virtual time per (equal) amount of wall-clock
+	 *         time, e.g. 1 for real-time or 60 for an hour per minute, or 0
+	 *         (default) to run as fast as possible
+	 */
+	@Key( SPEED_KEY )
+	@DefaultValue( "0" )
+	double speed();
+
+	/**
+	 * @return a new {@link Pacer} for the configured {@link #speed()}, or
+	 *         {@code null} to run as fast as possible
+	 */
+	default Pacer pacer()
+	{
+		final double speed = speed();
+		return speed > 0 && !Double.isInfinite( speed )
+				? Pacer.of( speed, timeUnit() ) : null;
+	}
+
+	/**
+	 * @return the number of events per {@link SchedulerStats} sample, or 0
+	 *         (default) to disable {@link Scheduler#stats()}
+	 */
+	@Key( STATS_INTERVAL_KEY )
+	@DefaultValue( "0" )
+	int statsInterval();
+
+	/**
+	 * @return a new {@link SchedulerStats.Recorder}, or {@code null} if
+	 *         disabled
+	 */
+	default SchedulerStats.Recorder statsRecorder()
+	{
+		final int interval = statsInterval();
+		return interval > 0 ? new SchedulerStats.Recorder( interval ) : null;
+	}
+
+	/**
+	 * @return the number of worker threads executing independent events due
+	 *         at the same instant (i.e. {@link Scheduler#post(Instant, Object,
+	 *         io.coala.function.ThrowingConsumer) posted} in distinct
+	 *         partitions) in parallel, or 0 (default) to execute all events
+	 *         sequentially
+	 */
+	@Key( PARALLELISM_KEY )
+	@DefaultValue( "0" )
+	int parallelism();
+
 	static SchedulerConfig getOrCreate( final Map<?, ?>... imports )
 	{
 		return ConfigCache.getOrCreate( SchedulerConfig.class, imports );
@@ -0,0 +1,497 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import io.coala.function.ThrowingConsumer;
+import io.coala.function.ThrowingRunnable;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * {@link SchedulerStats} is a sample of some {@link Scheduler}'s hot-path
+ * metrics, as published via {@link Scheduler#stats()} every
+ * {@link SchedulerConfig#statsInterval()} events if enabled: throughput,
+ * event list size, cancellations, and the wall-clock time spent in (model)
+ * callbacks, in {@link Scheduler#time()} emissions (i.e. subscriber
+ * fan-out), or in the framework otherwise. Callback durations are also
+ * recorded in a {@link Histogram} per declaring type of the callback, e.g.
+ * some {@link Proactive} implementation
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class SchedulerStats
+{
+	private final Instant time;
+
+	private final long events;
+
+	private final long wallNanos;
+
+	private final long callbackNanos;
+
+	private final long emissions;
+
+	private final long emitNanos;
+
+	private final int pending;
+
+	private final long scheduled;
+
+	private final long cancelled;
+
+	private final Map<String, Histogram> callbacks;
+
+	public SchedulerStats( final Instant time, final long events,
+		final long wallNanos, final long callbackNanos, final long emissions,
+		final long emitNanos, final int pending, final long scheduled,
+		final long cancelled, final Map<String, Histogram> callbacks )
+	{
+		this.time = time;
+		this.events = events;
+		this.wallNanos = wallNanos;
+		this.callbackNanos = callbackNanos;
+		this.emissions = emissions;
+		this.emitNanos = emitNanos;
+		this.pending = pending;
+		this.scheduled = scheduled;
+		this.cancelled = cancelled;
+		this.callbacks = callbacks;
+	}
+
+	/** @return the virtual time of this sample */
+	public Instant time()
+	{
+		return this.time;
+	}
+
+	/** @return the number of events executed since the previous sample */
+	public long events()
+	{
+		return this.events;
+	}
+
+	/** @return the wall-clock nanoseconds elapsed since the previous sample */
+	public long wallNanos()
+	{
+		return this.wallNanos;
+	}
+
+	/** @return the number of events executed per wall-clock second */
+	public double eventsPerSecond()
+	{
+		return this.wallNanos == 0 ? 0 : this.events * 1e9 / this.wallNanos;
+	}
+
+	/** @return the wall-clock nanoseconds spent in (model) callbacks */
+	public long callbackNanos()
+	{
+		return this.callbackNanos;
+	}
+
+	/** @return the number of {@link Scheduler#time()} emissions */
+	public long emissions()
+	{
+		return this.emissions;
+	}
+
+	/**
+	 * @return the wall-clock nanoseconds spent emitting {@link Scheduler#time()}
+	 *         to its subscribers
+	 */
+	public long emitNanos()
+	{
+		return this.emitNanos;
+	}
+
+	/** @return the mean fan-out cost per {@link Scheduler#time()} emission */
+	public double emitNanosPerEmission()
+	{
+		return this.emissions == 0 ? 0
+				: (double) this.emitNanos / this.emissions;
+	}
+
+	/**
+	 * @return the wall-clock nanoseconds spent in the framework, i.e. neither
+	 *         in callbacks nor emissions
+	 */
+	public long frameworkNanos()
+	{
+		return this.wallNanos - this.callbackNanos - this.emitNanos;
+	}
+
+	/** @return the event list size, possibly including cancelled events */
+	public int pending()
+	{
+		return this.pending;
+	}
+
+	/** @return the number of events scheduled since the previous sample */
+	public long scheduled()
+	{
+		return this.scheduled;
+	}
+
+	/** @return the number of events cancelled since the previous sample */
+	public long cancelled()
+	{
+		return this.cancelled;
+	}
+
+	/** @return the ratio of cancelled vs. scheduled events */
+	public double cancellationRatio()
+	{
+		return this.scheduled == 0 ? 0
+				: (double) this.cancelled / this.scheduled;
+	}
+
+	/**
+	 * @return the callback duration {@link Histogram}s since the previous
+	 *         sample, per declaring type of the callback
+	 */
+	public Map<String, Histogram> callbacks()
+	{
+		return this.callbacks;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+				"%s[t=%s|%d events, %.0f/s|pending %d, cancelled %.1f%%"
+						+ "|callbacks %.1f%%, emit %.1f%% (%.0fns each)"
+						+ ", framework %.1f%%]",
+				getClass().getSimpleName(), this.time, this.events,
+				eventsPerSecond(), this.pending, 100 * cancellationRatio(),
+				percentOfWall( this.callbackNanos ),
+				percentOfWall( this.emitNanos ), emitNanosPerEmission(),
+				percentOfWall( frameworkNanos() ) );
+	}
+
+	private double percentOfWall( final long nanos )
+	{
+		return this.wallNanos == 0 ? 0 : 100d * nanos / this.wallNanos;
+	}
+
+	/**
+	 * {@link Histogram} counts durations in base-2 logarithmic buckets, i.e.
+	 * bucket {@code i} holds durations in {@code [2^i, 2^(i+1))} nanoseconds
+	 */
+	public static class Histogram
+	{
+		private final long[] counts = new long[Long.SIZE];
+
+		private long count = 0;
+
+		private long totalNanos = 0;
+
+		private long maxNanos = 0;
+
+		/** @param nanos the duration to record */
+		public void record( final long nanos )
+		{
+			final long value = Math.max( 1, nanos );
+			this.counts[Long.SIZE - 1 - Long.numberOfLeadingZeros( value )]++;
+			this.count++;
+			this.totalNanos += value;
+			if( value > this.maxNanos ) this.maxNanos = value;
+		}
+
+		/** @param other the {@link Histogram} to add */
+		public void add( final Histogram other )
+		{
+			for( int i = 0; i < Long.SIZE; i++ )
+				this.counts[i] += other.counts[i];
+			this.count += other.count;
+			this.totalNanos += other.totalNanos;
+			this.maxNanos = Math.max( this.maxNanos, other.maxNanos );
+		}
+
+		/** @return the number of recorded durations */
+		public long count()
+		{
+			return this.count;
+		}
+
+		/** @return the mean recorded duration, in nanoseconds */
+		public double meanNanos()
+		{
+			return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+		}
+
+		/** @return the maximum recorded duration, in nanoseconds */
+		public long maxNanos()
+		{
+			return this.maxNanos;
+		}
+
+		/**
+		 * @param fraction the quantile, e.g. 0.99
+		 * @return the upper bound of the bucket holding the quantile, in
+		 *         nanoseconds
+		 */
+		public long quantileNanos( final double fraction )
+		{
+			final long rank = (long) Math.ceil( fraction * this.count );
+			long sum = 0;
+			for( int i = 0; i < Long.SIZE; i++ )
+			{
+				sum += this.counts[i];
+				if( sum >= rank && sum > 0 )
+					return Math.min( this.maxNanos, i < Long.SIZE - 2
+							? (1L << (i + 1)) - 1 : Long.MAX_VALUE );
+			}
+			return this.maxNanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format( "n=%d, mean %.0fns, p99 %dns, max %dns",
+					this.count, meanNanos(), quantileNanos( .99 ),
+					this.maxNanos );
+		}
+	}
+
+	/**
+	 * {@link Callback} adapts some (model) callback for scheduling, e.g. a
+	 * {@link ThrowingRunnable} or the subscriber of a scheduled stream, while
+	 * retaining it as {@link #source()}, so a {@link Recorder} attributes
+	 * durations to the callback's declaring type rather than to the adapter's,
+	 * e.g. {@link Scheduler} or {@link Proactive}. Adapters replace the
+	 * lambdas otherwise allocated, so scheduling allocates no more than before
+	 */
+	public static abstract class Callback
+		implements ThrowingConsumer<Instant, Throwable>
+	{
+		/**
+		 * @param callback some scheduled callback, possibly a {@link Callback}
+		 * @return the (unwrapped) source callback
+		 */
+		public static Object sourceOf( final Object callback )
+		{
+			return callback instanceof Callback
+					? ((Callback) callback).source() : callback;
+		}
+
+		/**
+		 * @param what the {@link ThrowingRunnable} to adapt
+		 * @return a {@link Callback} running {@code what}
+		 */
+		public static Callback of( final ThrowingRunnable<?> what )
+		{
+			return new Callback( what )
+			{
+				@Override
+				public void accept( final Instant t ) throws Throwable
+				{
+					what.run();
+				}
+			};
+		}
+
+		/**
+		 * @param what the {@link Callable} to adapt
+		 * @return a {@link Callback} calling {@code what}, ignoring its result
+		 */
+		public static Callback of( final Callable<?> what )
+		{
+			return new Callback( what )
+			{
+				@Override
+				public void accept( final Instant t ) throws Throwable
+				{
+					what.call();
+				}
+			};
+		}
+
+		/**
+		 * @param source the callback to attribute durations to, or
+		 *            {@code null}
+		 * @param what the {@link ThrowingConsumer} to adapt
+		 * @return a {@link Callback} accepting via {@code what}, or
+		 *         {@code what} itself if {@code source} is {@code null}
+		 */
+		@SuppressWarnings( "unchecked" )
+		public static ThrowingConsumer<Instant, ?> of( final Object source,
+			final ThrowingConsumer<Instant, ?> what )
+		{
+			if( source == null ) return what;
+			final ThrowingConsumer<Instant, Throwable> delegate = (ThrowingConsumer<Instant, Throwable>) what;
+			return new Callback( sourceOf( source ) )
+			{
+				@Override
+				public void accept( final Instant t ) throws Throwable
+				{
+					delegate.accept( t );
+				}
+			};
+		}
+
+		private final Object source;
+
+		protected Callback( final Object source )
+		{
+			this.source = source;
+		}
+
+		/** @return the adapted callback */
+		public Object source()
+		{
+			return this.source;
+		}
+	}
+
+	/**
+	 * {@link Recorder} accumulates the metrics of a single-threaded
+	 * {@link Scheduler} and publishes a {@link SchedulerStats} sample every
+	 * {@link #interval} events. Schedulers hold no {@link Recorder} while
+	 * disabled, so their hot path neither allocates nor reads the clock
+	 */
+	public static class Recorder
+	{
+		private final PublishSubject<SchedulerStats> stats = PublishSubject
+				.create();
+
+		private final int interval;
+
+		private final Map<Class<?>, Histogram> callbacks = new HashMap<>();
+
+		private long sampleNanos = System.nanoTime();
+
+		private long events = 0;
+
+		private long callbackNanos = 0;
+
+		private long emissions = 0;
+
+		private long emitNanos = 0;
+
+		private long scheduled = 0;
+
+		private long cancelled = 0;
+
+		/** @param interval the number of events per sample */
+		public Recorder( final int interval )
+		{
+			this.interval = interval;
+		}
+
+		/** @return the {@link Observable} stream of samples */
+		public Observable<SchedulerStats> stats()
+		{
+			return this.stats;
+		}
+
+		/** @param count the number of events scheduled */
+		public void scheduled( final int count )
+		{
+			this.scheduled += count;
+		}
+
+		/** @param count the number of events cancelled */
+		public void cancelled( final int count )
+		{
+			this.cancelled += count;
+		}
+
+		/**
+		 * @param startNanos the {@link System#nanoTime()} before emission
+		 */
+		public void emitted( final long startNanos )
+		{
+			this.emissions++;
+			this.emitNanos += System.nanoTime() - startNanos;
+		}
+
+		/**
+		 * @param callback the callback executed, identifying its declaring type
+		 *            (if a {@link Callback}, that of its {@link Callback#source()})
+		 * @param startNanos the {@link System#nanoTime()} before execution
+		 * @return {@code true} iff a sample is due
+		 */
+		public boolean fired( final Object callback, final long startNanos )
+		{
+			final long nanos = System.nanoTime() - startNanos;
+			this.events++;
+			this.callbackNanos += nanos;
+			this.callbacks
+					.computeIfAbsent( Callback.sourceOf( callback ).getClass(),
+							k -> new Histogram() )
+					.record( nanos );
+			return this.events >= this.interval;
+		}
+
+		/**
+		 * publishes the metrics accumulated since the previous sample, and
+		 * resets them
+		 *
+		 * @param time the current virtual time
+		 * @param pending the current event list size
+		 */
+		public void sample( final Instant time, final int pending )
+		{
+			final long now = System.nanoTime();
+			final Map<String, Histogram> callbacks = new TreeMap<>();
+			this.callbacks.forEach( ( type, histogram ) -> callbacks
+					.computeIfAbsent( declaringType( type ),
+							k -> new Histogram() )
+					.add( histogram ) );
+			final SchedulerStats sample = new SchedulerStats( time,
+					this.events, now - this.sampleNanos, this.callbackNanos,
+					this.emissions, this.emitNanos, pending, this.scheduled,
+					this.cancelled, Collections.unmodifiableMap( callbacks ) );
+			this.sampleNanos = now;
+			this.events = 0;
+			this.callbackNanos = 0;
+			this.emissions = 0;
+			this.emitNanos = 0;
+			this.scheduled = 0;
+			this.cancelled = 0;
+			this.callbacks.clear();
+			this.stats.onNext( sample );
+		}
+
+		/**
+		 * publishes a final sample (if any events remain) and completes
+		 *
+		 * @param time the final virtual time
+		 * @param pending the final event list size
+		 */
+		public void complete( final Instant time, final int pending )
+		{
+			if( this.stats.hasComplete() ) return;
+			if( this.events > 0 ) sample( time, pending );
+			this.stats.onComplete();
+		}
+
+		private static String declaringType( final Class<?> type )
+		{
+			// e.g. "my.Model$$Lambda$12/1234" -> "my.Model"
+			final String name = type.getName();
+			final int lambda = name.indexOf( "$$Lambda" );
+			return lambda < 0 ? name : name.substring( 0, lambda );
+		}
+	}
+}
@@ -119,12 +119,28 @@ public interface Signal<T> extends Proactive
 			return this.function;
 		}
 
+		/**
+		 * forces re-evaluation upon the next {@link #current()} call, e.g.
+		 * after some state underlying the {@link #getFunction() function}
+		 * changed at the current {@link Instant}
+		 */
+		protected void invalidate()
+		{
+			this.now = null;
+		}
+
+		/**
+		 * evaluates the {@link #getFunction() function} at most once per
+		 * {@link Instant} (unless {@link #invalidate() invalidated}), and
+		 * {@link #emit() emits} the result only if it changed
+		 */
 		@Override
 		public T current()
 		{
-			if( this.now == null || !this.now.equals( now() ) )
+			final Instant t = now();
+			if( this.now != t && (this.now == null || !this.now.equals( t )) )
 			{
-				this.now = now();
+				this.now = t;
 				if( this.now == null || this.domain.gt( this.now ) )
 				{
 					this.cache = null;
@@ -153,11 +169,56 @@ public interface Signal<T> extends Proactive
 			return this.values;
 		}
 
+		/**
+		 * @return a derived {@link Signal} that evaluates lazily via this
+		 *         {@link Signal}'s (memoized) {@link #current()} value, and
+		 *         re-applies the transform only if that value changed
+		 */
 		@Override
 		public <U> Signal<U> map( final Function<T, U> transform )
 		{
-			return of( scheduler(), domain(),
-					t -> transform.apply( getFunction().apply( t ) ) );
+			return of( scheduler(), domain(), new Derived<>( this, transform ) );
+		}
+	}
+
+	/**
+	 * {@link Derived} is the memoizing function of some {@link Simple#map
+	 * mapped} {@link Signal}, evaluating its source at the current
+	 * {@link Instant} via the source's cache
+	 * 
+	 * @param <T> the type of source value
+	 * @param <U> the type of derived value
+	 */
+	class Derived<T, U> implements Function<Instant, U>
+	{
+		private final Simple<T> source;
+
+		private final Function<T, U> transform;
+
+		private boolean evaluated = false;
+
+		private T input;
+
+		private U output;
+
+		public Derived( final Simple<T> source,
+			final Function<T, U> transform )
+		{
+			this.source = source;
+			this.transform = transform;
+		}
+
+		@Override
+		public synchronized U apply( final Instant t )
+		{
+			final T input = t.equals( this.source.now() )
+					? this.source.current()
+					: this.source.getFunction().apply( t );
+			if( this.evaluated && Objects.equals( input, this.input ) )
+				return this.output;
+			this.evaluated = true;
+			this.input = input;
+			return this.output = this.transform.apply( input );
 		}
 	}
 
@@ -41,6 +41,6 @@ public class TimeQuantityConverter implements Converter<ComparableQuantity<?>>
 	public ComparableQuantity<?> convert( final Method method,
 		final String input )
 	{
-		return QuantityUtil.valueOf( input, TimeUnits.UNIT_FORMAT );
+		return UnitCache.valueOf( input );
 	}
 }
\ No newline at end of file
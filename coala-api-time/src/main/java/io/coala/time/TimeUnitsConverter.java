@@ -44,7 +44,7 @@ public class TimeUnitsConverter implements Converter<Unit<?>>
 	{
 		try
 		{
-			return TimeUnits.UNIT_FORMAT.parse( input );
+			return UnitCache.parse( input );
 		} catch( final ParserException e )
 		{
 			throw new IllegalArgumentException( e.getParsedString(), e );
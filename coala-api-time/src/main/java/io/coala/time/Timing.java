@@ -101,6 +101,10 @@ public interface Timing extends Wrapper<String>
 	default Iterable<Instant> iterate( Scheduler scheduler )
 		throws ParseException
 	{
+		// shared, precompiled up to the replication horizon, if known
+		final Iterable<Instant> compiled = TimingCache.iterate( this,
+				scheduler );
+		if( compiled != null ) return compiled;
 		final Instant now = scheduler.now();
 		return iterate( now, now.toJava8( scheduler.offset() ).toInstant(),
 				max() );
@@ -0,0 +1,239 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.apache.logging.log4j.Logger;
+
+import io.coala.exception.Thrower;
+import io.coala.log.LogUtil;
+import io.coala.math.QuantityUtil;
+
+/**
+ * {@link TimingCache} compiles {@link Timing} patterns (e.g. CRON or iCal
+ * rules) into primitive arrays of (millisecond) ticks over a replication's
+ * horizon, i.e. from its start up to its {@link SchedulerConfig#duration()},
+ * shared read-only by all {@link Timing#iterate(Scheduler) iterations} with
+ * equal pattern, replication offset and horizon, e.g. by the many actors of
+ * some replication (whatever their start time) or of parallel replications.
+ * Iterators then merely search their start index and index into the array,
+ * rather than re-walking the (quartz or rfc-2445) rule iterators, creating
+ * only the {@link Instant}s actually iterated. At most {@link #MAX_ENTRIES}
+ * compiled patterns are retained, evicting the least recently used
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public final class TimingCache
+{
+
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( TimingCache.class );
+
+	/** the maximum number of compiled patterns retained */
+	private static final int MAX_ENTRIES = 4096;
+
+	/** compiled ticks, in order of (least recent) use */
+	private static final Map<Key, long[]> COMPILED = new LinkedHashMap<Key, long[]>(
+			16, .75f, true )
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( final Map.Entry<Key, long[]> eldest )
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private TimingCache()
+	{
+		// singleton
+	}
+
+	/** @return the number of compiled patterns currently retained */
+	public static int size()
+	{
+		synchronized( COMPILED )
+		{
+			return COMPILED.size();
+		}
+	}
+
+	/** releases all compiled patterns */
+	public static void clear()
+	{
+		synchronized( COMPILED )
+		{
+			COMPILED.clear();
+		}
+	}
+
+	/**
+	 * @param timing the {@link Timing} pattern to iterate
+	 * @param scheduler the {@link Scheduler} providing the current time, the
+	 *            replication offset and the replication horizon
+	 * @return an {@link Iterable} over the compiled {@link Instant}s from the
+	 *         current time, at most {@link Timing#max()}, or {@code null} if
+	 *         the horizon is unknown
+	 * @throws ParseException if compilation failed
+	 */
+	static Iterable<Instant> iterate( final Timing timing,
+		final Scheduler scheduler ) throws ParseException
+	{
+		final SchedulerConfig config = scheduler.config();
+		final Instant now = scheduler.now();
+		if( config == null || config.rawDuration() == null || now == null )
+			return null;
+		final java.time.Instant offsetUtc = scheduler.offset().toInstant();
+		final Instant origin = Instant.of( 0, scheduler.timeUnit() );
+		final Key key = new Key( timing.unwrap(), offsetUtc,
+				Instant.of( config.rawDuration(), scheduler.timeUnit() ) );
+		long[] cached;
+		synchronized( COMPILED )
+		{
+			cached = COMPILED.get( key );
+		}
+		if( cached == null )
+		{
+			// compile outside the lock, possibly twice, keeping the first
+			final long[] compiled = compile( timing, origin, key );
+			synchronized( COMPILED )
+			{
+				cached = COMPILED.putIfAbsent( key, compiled );
+			}
+			if( cached == null ) cached = compiled;
+		}
+		final long[] millis = cached;
+		// as Timing#iterate(Instant,java.time.Instant,Long) from now
+		final int start = firstIndex( millis,
+				now.toJava8( scheduler.offset() ).toInstant().toEpochMilli()
+						- offsetUtc.toEpochMilli() );
+		final Long max = timing.max();
+		final int end = max == null || max >= millis.length - start
+				? millis.length : start + max.intValue();
+		return () -> new Iterator<Instant>()
+		{
+			private int index = start;
+
+			@Override
+			public boolean hasNext()
+			{
+				return this.index < end;
+			}
+
+			@Override
+			public Instant next()
+			{
+				if( this.index >= end ) throw new NoSuchElementException();
+				return origin.add( QuantityUtil.valueOf(
+						millis[this.index++], TimeUnits.MILLIS ) );
+			}
+		};
+	}
+
+	/**
+	 * @param millis the sorted ticks to search
+	 * @param from the (inclusive) lower bound
+	 * @return the index of the first tick {@code >= from}
+	 */
+	private static int firstIndex( final long[] millis, final long from )
+	{
+		int lo = 0, hi = millis.length;
+		while( lo < hi )
+		{
+			final int mid = (lo + hi) >>> 1;
+			if( millis[mid] < from )
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	private static long[] compile( final Timing timing, final Instant origin,
+		final Key key ) throws ParseException
+	{
+		long[] result = new long[16];
+		int n = 0;
+		for( Instant t : timing.iterate( origin, key.offsetUtc, null ) )
+		{
+			if( t.compareTo( key.end ) > 0 ) break; // beyond horizon
+			if( n == result.length )
+				result = Arrays.copyOf( result, n << 1 );
+			// patterns resolve to whole milliseconds
+			result[n++] = t.to( TimeUnits.MILLIS ).decimal()
+					.setScale( 0, RoundingMode.HALF_UP ).longValueExact();
+		}
+		LOG.trace( "Compiled {} ticks for {}", n, key );
+		return Arrays.copyOf( result, n );
+	}
+
+	/**
+	 * {@link Key} identifies some compiled {@link Timing} pattern
+	 */
+	private static final class Key
+	{
+		final String pattern;
+
+		final java.time.Instant offsetUtc;
+
+		final Instant end;
+
+		Key( final String pattern, final java.time.Instant offsetUtc,
+			final Instant end )
+		{
+			if( pattern == null ) Thrower.throwNew(
+					IllegalArgumentException::new, () -> "No pattern" );
+			this.pattern = pattern;
+			this.offsetUtc = offsetUtc;
+			this.end = end;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(
+					new Object[] { this.pattern, this.offsetUtc, this.end } );
+		}
+
+		@Override
+		public boolean equals( final Object obj )
+		{
+			if( this == obj ) return true;
+			if( !(obj instanceof Key) ) return false;
+			final Key that = (Key) obj;
+			return this.pattern.equals( that.pattern )
+					&& Objects.equals( this.offsetUtc, that.offsetUtc )
+					&& Objects.equals( this.end, that.end );
+		}
+
+		@Override
+		public String toString()
+		{
+			return "`" + this.pattern + "` from " + this.offsetUtc
+					+ " until t=" + this.end;
+		}
+	}
+}
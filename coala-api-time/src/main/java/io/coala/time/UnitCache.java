@@ -0,0 +1,300 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+import javax.measure.format.UnitFormat;
+
+import io.coala.math.DecimalUtil;
+import io.coala.math.QuantityUtil;
+import tec.uom.se.ComparableQuantity;
+
+/**
+ * {@link UnitCache} interns {@link Unit}s (e.g. as parsed from labels by
+ * {@link TimeUnits#UNIT_FORMAT}) and memoizes the {@link Conversion} between
+ * each pair of interned units, so that converting some (compact)
+ * {@link Instant} or {@link Duration} amount on the hot path multiplies by a
+ * primitive (rational) scale factor rather than asking JSR-363 for a new
+ * {@link UnitConverter} each time
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public final class UnitCache
+{
+
+	/** the number of decimals beyond which scale factors are inexact */
+	private static final int MAX_PRECISION = 18;
+
+	private static final Map<Unit<?>, Unit<?>> UNITS = new ConcurrentHashMap<>();
+
+	private static final Map<String, Unit<?>> LABELS = new ConcurrentHashMap<>();
+
+	private static final Map<Long, Conversion> CONVERSIONS = new ConcurrentHashMap<>();
+
+	/** some decimal amount followed by a single unit label, e.g. "1.5 h" */
+	private static final Pattern AMOUNT_WITH_LABEL = Pattern.compile(
+			"[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?\\s+\\S+" );
+
+	private UnitCache()
+	{
+		// singleton
+	}
+
+	/**
+	 * @param unit the {@link Unit} to intern
+	 * @return the canonical instance of an equal {@link Unit}
+	 */
+	@SuppressWarnings( "unchecked" )
+	public static <U extends Unit<?>> U intern( final U unit )
+	{
+		final Unit<?> prior = UNITS.putIfAbsent( unit, unit );
+		return prior == null ? unit : (U) prior;
+	}
+
+	/**
+	 * @param label the {@link Unit} label, e.g. {@code "ms"} or {@code "days"}
+	 * @return the interned {@link Unit} as parsed by
+	 *         {@link TimeUnits#UNIT_FORMAT}
+	 */
+	public static Unit<?> parse( final CharSequence label )
+	{
+		final String key = label.toString().trim();
+		final Unit<?> cached = LABELS.get( key );
+		return cached != null ? cached
+				: LABELS.computeIfAbsent( key,
+						k -> intern( TimeUnits.UNIT_FORMAT.parse( k ) ) );
+	}
+
+	/**
+	 * @param str the text to check, e.g. {@code "12 ms"} or {@code "PT12S"}
+	 * @return {@code true} iff {@code str} holds a decimal amount and a single
+	 *         unit label, to {@link #valueOf(CharSequence) parse} as such
+	 */
+	public static boolean isAmountWithLabel( final CharSequence str )
+	{
+		return AMOUNT_WITH_LABEL.matcher( str.toString().trim() ).matches();
+	}
+
+	/**
+	 * @param str the amount and (optional) unit label, e.g. {@code "12 ms"}
+	 * @return the parsed {@link ComparableQuantity}, as per
+	 *         {@link QuantityUtil#valueOf(CharSequence, UnitFormat)} with
+	 *         {@link TimeUnits#UNIT_FORMAT}, but parsing each label only once
+	 */
+	@SuppressWarnings( "rawtypes" )
+	public static ComparableQuantity valueOf( final CharSequence str )
+	{
+		final String[] split = str.toString().trim().split( "\\s+" );
+		return split.length < 2
+				? QuantityUtil.valueOf( DecimalUtil.valueOf( str ) )
+				: split.length > 2
+						? QuantityUtil.valueOf( str, TimeUnits.UNIT_FORMAT )
+						: QuantityUtil.valueOf( DecimalUtil.valueOf( split[0] ),
+								parse( split[1] ) );
+	}
+
+	/**
+	 * @param source the {@link Unit} to convert from
+	 * @param target the {@link Unit} to convert to
+	 * @return the memoized {@link Conversion}
+	 */
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	public static Conversion conversion( final Unit source, final Unit target )
+	{
+		final Long key = Long.valueOf( ((long) Compact.unitId( source ) << 32)
+				| (Compact.unitId( target ) & 0xFFFFFFFFL) );
+		final Conversion cached = CONVERSIONS.get( key );
+		return cached != null ? cached
+				: CONVERSIONS.computeIfAbsent( key, k -> new Conversion(
+						source.getConverterTo( target ) ) );
+	}
+
+	/**
+	 * {@link Conversion} memoizes some linear {@link UnitConverter} as a
+	 * primitive scale factor, kept as exact rational {@code numerator /
+	 * denominator} where possible, e.g. 86400000/1 from days to milliseconds
+	 * or 1/1000 from milliseconds to seconds
+	 */
+	public static final class Conversion
+	{
+		private final UnitConverter converter;
+
+		private final double factor;
+
+		/** the exact factor's numerator, or zero if inexact or non-linear */
+		private final long numerator;
+
+		/** the exact factor's denominator, or zero if inexact or non-linear */
+		private final long denominator;
+
+		Conversion( final UnitConverter converter )
+		{
+			this.converter = converter;
+			if( !converter.isLinear() )
+			{
+				this.factor = Double.NaN;
+				this.numerator = 0;
+				this.denominator = 0;
+				return;
+			}
+			final BigDecimal factor = exact(
+					converter.convert( BigDecimal.ONE ) );
+			final BigDecimal inverse = exact(
+					converter.inverse().convert( BigDecimal.ONE ) );
+			this.factor = converter.convert( 1d );
+			BigInteger num = null, den = null;
+			if( factor != null )
+			{
+				num = factor.unscaledValue();
+				den = BigInteger.TEN.pow( Math.max( 0, factor.scale() ) );
+				if( factor.scale() < 0 )
+					num = num.multiply( BigInteger.TEN.pow( -factor.scale() ) );
+			} else if( inverse != null )
+			{
+				num = BigInteger.TEN.pow( Math.max( 0, inverse.scale() ) );
+				den = inverse.unscaledValue();
+				if( inverse.scale() < 0 )
+					den = den.multiply(
+							BigInteger.TEN.pow( -inverse.scale() ) );
+			}
+			if( num != null && num.signum() != 0 )
+			{
+				final BigInteger gcd = num.gcd( den );
+				num = num.divide( gcd );
+				den = den.divide( gcd );
+				if( den.signum() < 0 )
+				{
+					num = num.negate();
+					den = den.negate();
+				}
+			}
+			final boolean exact = num != null && num.signum() != 0
+					&& num.bitLength() < Long.SIZE
+					&& den.bitLength() < Long.SIZE;
+			this.numerator = exact ? num.longValue() : 0;
+			this.denominator = exact ? den.longValue() : 0;
+		}
+
+		/**
+		 * @param value the result of converting {@link BigDecimal#ONE}
+		 * @return the (stripped) decimal value if presumably exact, i.e. not
+		 *         rounded to some {@link java.math.MathContext} precision
+		 */
+		private static BigDecimal exact( final Number value )
+		{
+			if( value == null ) return null;
+			final BigDecimal result = DecimalUtil.valueOf( value )
+					.stripTrailingZeros();
+			return result.precision() > MAX_PRECISION
+					|| result.scale() > MAX_PRECISION ? null : result;
+		}
+
+		/** @return {@code true} iff the factor is an exact rational */
+		public boolean isExact()
+		{
+			return this.denominator != 0;
+		}
+
+		/** @return the (approximate) scale factor */
+		public double factor()
+		{
+			return this.factor;
+		}
+
+		/**
+		 * @param value the amount to convert
+		 * @return the converted amount
+		 */
+		public double convert( final double value )
+		{
+			return this.denominator == 0 ? this.converter.convert( value )
+					: value * this.factor;
+		}
+
+		/**
+		 * @param value the amount to convert
+		 * @return the converted amount, exact for rational factors
+		 */
+		public Number convert( final Number value )
+		{
+			if( this.denominator != 0 && (value instanceof Integer
+					|| value instanceof Long || value instanceof Short
+					|| value instanceof Byte) )
+			{
+				final Long result = scale( value.longValue() );
+				if( result != null ) return result;
+			}
+			if( this.denominator == 1 ) return DecimalUtil.valueOf( value )
+					.multiply( BigDecimal.valueOf( this.numerator ) );
+			return this.converter.convert( value );
+		}
+
+		/**
+		 * @param value the (e.g. {@link Compact#SCALE scaled}) amount
+		 * @return the exactly converted amount, or {@code null} if inexact or
+		 *         overflowing
+		 */
+		public Long scale( final long value )
+		{
+			final Long product = multiply( value );
+			return product == null || product % this.denominator != 0 ? null
+					: Long.valueOf( product / this.denominator );
+		}
+
+		/**
+		 * @param scaled the amount, scaled by {@link Compact#SCALE} decimals
+		 * @return the converted amount truncated to whole units, as per
+		 *         {@link DecimalUtil#longValue(Number)}, or {@code null} if
+		 *         inexact or overflowing
+		 */
+		Long truncate( final long scaled )
+		{
+			final Long product = multiply( scaled );
+			// nested truncation (toward zero) equals single truncation
+			return product == null ? null
+					: Long.valueOf(
+							Compact.truncate( product / this.denominator ) );
+		}
+
+		private Long multiply( final long value )
+		{
+			if( this.denominator == 0 ) return null;
+			try
+			{
+				return Long
+						.valueOf( Math.multiplyExact( this.numerator, value ) );
+			} catch( final ArithmeticException e )
+			{
+				return null; // on overflow, fall back to decimal converters
+			}
+		}
+
+		@Override
+		public String toString()
+		{
+			return this.denominator == 0 ? this.converter.toString()
+					: this.numerator + "/" + this.denominator;
+		}
+	}
+}
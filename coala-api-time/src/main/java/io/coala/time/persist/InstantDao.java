@@ -91,8 +91,7 @@ public class InstantDao implements BindableDao<Instant, InstantDao>
 		} else
 		{
 			result.posix = instant.toDate( offset );
-			result.num = QuantityUtil
-					.decimalValue( instant.unwrap().to( unit ) );
+			result.num = instant.to( unit ).decimal();
 			result.str = instant.toString();
 		}
 		return result;
@@ -111,11 +110,19 @@ public class InstantDao implements BindableDao<Instant, InstantDao>
 	{
 		final Path<? extends Number> numPath = instantDaoPath
 				.get( NUM_ATTR_NAME );
-		final Number lower = instantRange.lowerValue();
-		conjunction.getExpressions().add( instantRange.lowerInclusive()
-				? cb.ge( numPath, lower ) : cb.gt( numPath, lower ) );
-		final Number upper = instantRange.lowerValue();
-		conjunction.getExpressions().add( instantRange.lowerInclusive()
-				? cb.le( numPath, upper ) : cb.lt( numPath, upper ) );
+		// null instants never match, not even an infinite range
+		conjunction.getExpressions().add( cb.isNotNull( numPath ) );
+		if( instantRange.lowerFinite() )
+		{
+			final Number lower = instantRange.lowerValue();
+			conjunction.getExpressions().add( instantRange.lowerInclusive()
+					? cb.ge( numPath, lower ) : cb.gt( numPath, lower ) );
+		}
+		if( instantRange.upperFinite() )
+		{
+			final Number upper = instantRange.upperValue();
+			conjunction.getExpressions().add( instantRange.upperInclusive()
+					? cb.le( numPath, upper ) : cb.lt( numPath, upper ) );
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.measure.quantity.Dimensionless;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+import io.coala.math.QuantityUtil;
+import io.coala.util.MapBuilder;
+
+/**
+ * {@link AccumulatorBankTest}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class AccumulatorBankTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( AccumulatorBankTest.class );
+
+	private static double tick( final Instant t )
+	{
+		return t.value().doubleValue();
+	}
+
+	@Test
+	public void testCrossings()
+	{
+		final Scheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "bankTest" )
+						.put( SchedulerConfig.DURATION_KEY, "20" ).build() ) );
+		final List<String> actual = new ArrayList<>();
+		final long[] reschedules = new long[1];
+		scheduler.onReset( s ->
+		{
+			final AccumulatorBank<Dimensionless> bank = AccumulatorBank.of( s,
+					QuantityUtil.PURE );
+			final int rising = bank.add( 0, 1 );
+			final int falling = bank.add( 10, -2 );
+			bank.at( rising, 5, t -> actual.add( "rising@" + tick( t ) ) );
+			bank.at( rising, 8, t -> actual.add( "rising@" + tick( t ) ) );
+			bank.at( falling, 4, t -> actual.add( "falling@" + tick( t ) ) );
+			s.after( 2 ).call( t ->
+			{
+				bank.setRate( falling, -2 ); // unchanged, not rescheduled
+				reschedules[0] = bank.reschedules();
+				bank.setRate( rising, 2 ); // 5 reached at 3.5 rather than 5
+				assertThat( "closed form", bank.amounts( null )[falling],
+						closeTo( 6, 1e-9 ) );
+			} );
+		} );
+		scheduler.run();
+
+		LOG.trace( "Crossings: {}", actual );
+		assertThat( "only changed crossings rescheduled", reschedules[0],
+				equalTo( 2L ) );
+		assertThat( "crossings in order", actual, equalTo( Arrays.asList(
+				"falling@3.0", "rising@3.5", "rising@5.0" ) ) );
+	}
+}
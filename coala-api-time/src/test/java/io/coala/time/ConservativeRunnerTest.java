@@ -0,0 +1,142 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+import io.coala.util.MapBuilder;
+
+/**
+ * {@link ConservativeRunnerTest}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class ConservativeRunnerTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( ConservativeRunnerTest.class );
+
+	private static final int ORGS = 4;
+
+	private static final int LOOKAHEAD = 2;
+
+	/** buffers messages until the next barrier, as a FactExchange would */
+	static class Exchange
+	{
+		final Queue<int[]> outbox = new ConcurrentLinkedQueue<>();
+
+		final Scheduler[] hosts = new Scheduler[ORGS];
+
+		final List<List<String>> logs = new ArrayList<>();
+
+		Exchange()
+		{
+			for( int i = 0; i < ORGS; i++ )
+				this.logs.add( new ArrayList<>() );
+		}
+
+		void send( final int from, final int to, final int hops )
+		{
+			final Instant when = this.hosts[from].now().add( LOOKAHEAD );
+			this.outbox.add( new int[] { when.value().intValue(), from, hops,
+					to } );
+		}
+
+		void flush()
+		{
+			final List<int[]> msgs = new ArrayList<>();
+			for( int[] msg = this.outbox.poll(); msg != null; msg = this.outbox
+					.poll() )
+				msgs.add( msg );
+			Collections.sort( msgs, ( m1, m2 ) -> m1[0] != m2[0]
+					? Integer.compare( m1[0], m2[0] )
+					: m1[1] != m2[1] ? Integer.compare( m1[1], m2[1] )
+							: Integer.compare( m1[2], m2[2] ) );
+			for( int[] msg : msgs )
+				this.hosts[msg[3]]
+						.at( Instant.of( msg[0], this.hosts[msg[3]].timeUnit() ) )
+						.call( t -> receive( msg[3], msg[1], msg[2], t ) );
+		}
+
+		void receive( final int org, final int from, final int hops,
+			final Instant t )
+		{
+			this.logs.get( org ).add( "t=" + t.value() + " from " + from
+					+ " hops " + hops );
+			if( hops > 0 ) send( org, (org + 1) % ORGS, hops - 1 );
+		}
+
+		void init( final int org, final Scheduler host )
+		{
+			this.hosts[org] = host;
+			host.onReset( s ->
+			{
+				send( org, (org + 1) % ORGS, 20 );
+				for( int i = 1; i < 10; i++ )
+					s.after( i * 3 ).call( t -> this.logs.get( org )
+							.add( "t=" + t.value() + " local" ) );
+			} );
+		}
+	}
+
+	private static Scheduler partition( final String id )
+	{
+		return new EventListScheduler( SchedulerConfig.create( MapBuilder
+				.<String, Object>unordered().put( SchedulerConfig.ID_KEY, id )
+				.put( SchedulerConfig.DURATION_KEY, "50" ).build() ) );
+	}
+
+	private static List<List<String>> run( final int partitions )
+	{
+		final Exchange exchange = new Exchange();
+		final Scheduler[] schedulers = new Scheduler[partitions];
+		for( int i = 0; i < partitions; i++ )
+			schedulers[i] = partition( "partition" + i );
+		for( int org = 0; org < ORGS; org++ )
+			exchange.init( org, schedulers[org % partitions] );
+		final ConservativeRunner runner = ConservativeRunner.of(
+				Duration.of( LOOKAHEAD, schedulers[0].timeUnit() ),
+				exchange::flush, schedulers );
+		runner.run();
+		LOG.trace( "{} partition(s) took {} windows", partitions,
+				runner.windows() );
+		return exchange.logs;
+	}
+
+	@Test
+	public void testPartitionIndependence()
+	{
+		final List<List<String>> sequential = run( 1 );
+		assertThat( "events occurred", sequential.get( 0 ).size(),
+				greaterThan( 10 ) );
+		assertThat( "same results", run( 2 ), equalTo( sequential ) );
+		assertThat( "same results", run( ORGS ), equalTo( sequential ) );
+	}
+}
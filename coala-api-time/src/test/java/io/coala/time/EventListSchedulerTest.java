@@ -0,0 +1,535 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.function.ThrowingRunnable;
+import io.coala.log.LogUtil;
+import io.coala.random.PseudoRandom;
+import io.coala.util.MapBuilder;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * {@link EventListSchedulerTest}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class EventListSchedulerTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( EventListSchedulerTest.class );
+
+	private static SchedulerConfig config( final String id,
+		final Class<?> eventListType )
+	{
+		return SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+				.put( SchedulerConfig.ID_KEY, id )
+				.put( SchedulerConfig.EVENT_LIST_KEY, eventListType.getName() )
+				.put( SchedulerConfig.IMPLEMENTATION_KEY,
+						EventListScheduler.class.getName() )
+				.put( SchedulerConfig.DURATION_KEY, "10" ).build() );
+	}
+
+	@Test
+	public void testEventList()
+	{
+		final EventList<String> events = new EventList.BinaryHeap<>( 2 );
+		events.add( 3, "c" );
+		events.add( 1, "a1" );
+		events.add( 2, "b" );
+		events.add( 1, "a2" );
+		events.add( 1, "a3" );
+		final List<String> actual = new ArrayList<>();
+		while( !events.isEmpty() )
+			actual.add( events.removeFirst() );
+		assertThat( "stable FIFO ordering at equal ticks", actual,
+				equalTo( Arrays.asList( "a1", "a2", "a3", "b", "c" ) ) );
+	}
+
+	@Test
+	public void testCalendar()
+	{
+		final EventList<Integer> expected = new EventList.BinaryHeap<>();
+		final EventList<Integer> actual = new EventList.Calendar<>();
+		final Random rng = new Random( 1234L );
+		double t = 0;
+		for( int i = 0; i < 10000; i++ )
+		{
+			// hold model: mostly adds at first, mostly removals later
+			if( rng.nextInt( 10000 ) > i || expected.isEmpty() )
+			{
+				final double tick = t + Math.floor( rng.nextDouble() * 100 );
+				expected.add( tick, i );
+				actual.add( tick, i );
+			} else
+			{
+				t = expected.firstTick();
+				assertThat( "first tick", actual.firstTick(), equalTo( t ) );
+				assertThat( "first event", actual.removeFirst(),
+						equalTo( expected.removeFirst() ) );
+			}
+			if( i % 1000 == 0 )
+				assertThat( "purged", actual.removeIf( e -> e % 7 == 0 ),
+						equalTo( expected.removeIf( e -> e % 7 == 0 ) ) );
+		}
+		assertThat( "size", actual.size(), equalTo( expected.size() ) );
+		while( !expected.isEmpty() )
+			assertThat( "remaining event", actual.removeFirst(),
+					equalTo( expected.removeFirst() ) );
+		assertThat( "empty", actual.isEmpty(), equalTo( true ) );
+	}
+
+	@Test
+	public void testScheduler()
+	{
+		testScheduler( config( "heapTest", EventList.BinaryHeap.class ) );
+		testScheduler( config( "calendarTest", EventList.Calendar.class ) );
+	}
+
+	private void testScheduler( final SchedulerConfig config )
+	{
+		LOG.info( "Starting event list scheduler test, config: {}",
+				config.toYAML() );
+		final Scheduler scheduler = new Scheduler.Factory()
+		{
+		}.create( config );
+		assertThat( "configured implementation", scheduler.getClass(),
+				equalTo( EventListScheduler.class ) );
+
+		final List<Integer> actual = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			s.after( 2 ).call( t -> actual.add( 2 ) );
+			s.after( 1 ).call( t -> actual.add( 1 ) );
+			s.after( 3 ).call( t -> actual.add( 3 ) ).remove();
+			s.after( 2 ).call( t -> actual.add( 4 ) );
+			s.after( 20 ).call( t -> actual.add( 20 ) ); // beyond duration
+		} );
+		scheduler.run();
+
+		assertThat( "events in order, cancelled and late events skipped",
+				actual, equalTo( Arrays.asList( 1, 2, 4 ) ) );
+		assertThat( "end time is duration", scheduler.now(),
+				comparesEqualTo( Instant.of( 10, scheduler.timeUnit() ) ) );
+		LOG.info( "Event list scheduler test complete, t={}",
+				scheduler.now() );
+	}
+
+	@Test
+	public void testScheduleAll()
+	{
+		final Scheduler scheduler = new Scheduler.Factory()
+		{
+		}.create( config( "batchTest", EventList.BinaryHeap.class ) );
+		final List<Integer> actual = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			s.scheduleAll( Arrays.asList( 3, 1, 2, 1, 30 ).stream()
+					.map( i -> Instant.of( i, s.timeUnit() ) )
+					.collect( Collectors.toList() ),
+					t -> actual.add( t.value().intValue() ) );
+			final Disposable cancelled = s.scheduleAll(
+					Arrays.asList( Instant.of( 2, s.timeUnit() ),
+							Instant.of( 4, s.timeUnit() ) ),
+					t -> actual.add( -t.value().intValue() ) );
+			s.after( 3 ).call( t -> cancelled.dispose() );
+		} );
+		scheduler.run();
+
+		assertThat( "sorted batch, remainder cancelled in bulk", actual,
+				equalTo( Arrays.asList( 1, 1, 2, -2, 3 ) ) );
+	}
+
+	private static EventListScheduler checkpointModel( final String id,
+		final List<Integer> draws )
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				config( id, EventList.BinaryHeap.class ) );
+		final PseudoRandom.JavaRandom rng = PseudoRandom.JavaRandom.of( "rng",
+				1234L );
+		scheduler.onReset( s ->
+		{
+			scheduler.register( "rng",
+					Checkpoint.Stateful.of( rng::save, rng::restore ) );
+			scheduler.register( "draw", t ->
+			{
+				draws.add( rng.nextInt( 100 ) );
+				rng.nextGaussian(); // leave a cached gaussian in the state
+				scheduler.schedule( t.add( 1 ), "draw" );
+			} );
+			scheduler.schedule( Instant.of( 1, s.timeUnit() ), "draw" );
+		} );
+		return scheduler;
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception
+	{
+		final List<Integer> expected = new ArrayList<>();
+		checkpointModel( "original", expected ).run();
+
+		final List<Integer> actual = new ArrayList<>();
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		final EventListScheduler warmup = checkpointModel( "warmup", actual );
+		warmup.resumeBefore( 5.5 );
+		warmup.checkpoint().write( file );
+		LOG.trace( "Checkpoint size: {} bytes", file.size() );
+
+		final Checkpoint checkpoint = Checkpoint
+				.read( new ByteArrayInputStream( file.toByteArray() ) );
+		for( int branch = 0; branch < 2; branch++ )
+		{
+			final List<Integer> restored = new ArrayList<>( actual );
+			final EventListScheduler resumed = checkpointModel(
+					"branch" + branch, restored );
+			resumed.restore( checkpoint );
+			resumed.run();
+			assertThat( "resumed deterministically", restored,
+					equalTo( expected ) );
+		}
+	}
+
+	private static EventListScheduler unitModel( final String id,
+		final List<String> log )
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				config( id, EventList.BinaryHeap.class ) );
+		scheduler.onReset( s ->
+		{
+			scheduler.register( "log", t -> log.add( t.toString() ) );
+			scheduler.schedule( Instant.of( 1, s.timeUnit() ), "log" );
+			scheduler.schedule( Instant.of( 36, TimeUnits.HOURS ), "log" );
+			scheduler.schedule( Instant.of( 216_000_000, TimeUnits.MILLIS ),
+					"log" );
+			scheduler.schedule( Instant.of( 4.25, TimeUnits.DAYS ), "log" );
+		} );
+		return scheduler;
+	}
+
+	@Test
+	public void testCheckpointUnits() throws Exception
+	{
+		final List<String> expected = new ArrayList<>();
+		unitModel( "original", expected ).run();
+
+		final List<String> actual = new ArrayList<>();
+		final EventListScheduler warmup = unitModel( "warmup", actual );
+		warmup.resumeBefore( 2 );
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		warmup.checkpoint().write( file );
+		final EventListScheduler resumed = unitModel( "resumed", actual );
+		resumed.restore( Checkpoint
+				.read( new ByteArrayInputStream( file.toByteArray() ) ) );
+		resumed.run();
+		LOG.trace( "Occurred at: {}", actual );
+		assertThat( "restored in original units", actual, equalTo( expected ) );
+
+		// posted events have no action key to restore by
+		warmup.post( Instant.of( 3, warmup.timeUnit() ), t -> fail() );
+		try
+		{
+			warmup.checkpoint();
+			fail( "should reject posted event" );
+		} catch( final IllegalStateException e )
+		{
+			assertThat( "reason", e.getMessage(), containsString( "posted" ) );
+		}
+	}
+
+	@Test
+	public void testCheckpointUnregistered() throws Exception
+	{
+		final List<String> actual = new ArrayList<>();
+		final Scheduler scheduler = unitModel( "unregistered", actual );
+		assertThat( "checkpointable", scheduler.isCheckpointable(),
+				equalTo( true ) );
+		((EventListScheduler) scheduler).resumeBefore( 2 );
+		assertThat( "pending", scheduler.checkpoint().size(), equalTo( 2 ) );
+
+		// unregistered actions still occur, yet are no longer checkpointed
+		scheduler.unregister( "log" );
+		assertThat( "skipped", scheduler.checkpoint().size(), equalTo( 0 ) );
+		scheduler.resume();
+		assertThat( "occurred", actual.size(), equalTo( 4 ) );
+	}
+
+	@Test
+	public void testPacing()
+	{
+		// 10 days in 200ms wall-clock time
+		final EventListScheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "pacingTest" )
+						.put( SchedulerConfig.DURATION_KEY, "10" )
+						.put( SchedulerConfig.SPEED_KEY,
+								String.valueOf( 10 * 24 * 3600 * 5 ) )
+						.build() ) );
+		final List<Long> wall = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			for( int i = 1; i <= 5; i++ )
+			{
+				s.after( 2 * i ).call( t -> wall.add( System.nanoTime() ) );
+				s.after( 2 * i ).call( t -> wall.add( System.nanoTime() ) );
+			}
+		} );
+		final long start = System.nanoTime();
+		scheduler.run();
+		final long elapsed = System.nanoTime() - start;
+
+		LOG.trace( "Pacing took {}ms: {}", elapsed / 1e6, scheduler.pacer() );
+		assertThat( "paced to wall-clock", elapsed,
+				greaterThanOrEqualTo( 200_000_000L ) );
+		assertThat( "paced once per distinct tick, and at end",
+				scheduler.pacer().paced(), equalTo( 6L ) );
+		assertThat( "all events occurred", wall.size(), equalTo( 10 ) );
+	}
+
+	@Test
+	public void testStats()
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "statsTest" )
+						.put( SchedulerConfig.DURATION_KEY, "10" )
+						.put( SchedulerConfig.STATS_INTERVAL_KEY, "2" )
+						.build() ) );
+		final List<SchedulerStats> samples = new ArrayList<>();
+		scheduler.stats().subscribe( samples::add );
+		scheduler.onReset( s ->
+		{
+			for( int i = 1; i <= 5; i++ )
+				s.after( i ).call( t -> LOG.trace( "t={}", t ) );
+			s.after( 6 ).call( t -> LOG.trace( "t={}", t ) ).remove();
+		} );
+		scheduler.run();
+
+		samples.forEach( sample -> LOG.trace( "{}: {}", sample,
+				sample.callbacks() ) );
+		assertThat( "sampled every 2 events, and at end", samples.size(),
+				equalTo( 3 ) );
+		assertThat( "events",
+				samples.stream().mapToLong( SchedulerStats::events ).sum(),
+				equalTo( 5L ) );
+		assertThat( "scheduled",
+				samples.stream().mapToLong( SchedulerStats::scheduled ).sum(),
+				equalTo( 6L ) );
+		assertThat( "cancelled",
+				samples.stream().mapToLong( SchedulerStats::cancelled ).sum(),
+				equalTo( 1L ) );
+		assertThat( "callbacks per declaring type",
+				samples.get( 0 ).callbacks().keySet(), equalTo( Collections
+						.singleton( EventListSchedulerTest.class.getName() ) ) );
+		assertThat( "disabled by default",
+				new EventListScheduler( config( "noStats",
+						EventList.BinaryHeap.class ) ).stats().isEmpty()
+								.blockingGet(),
+				equalTo( true ) );
+	}
+
+	/** schedules a {@link ThrowingRunnable} via {@link Proactive#after} */
+	static class RunnableModel implements Proactive
+	{
+		private final Scheduler scheduler;
+
+		RunnableModel( final Scheduler scheduler )
+		{
+			this.scheduler = scheduler;
+			for( int i = 1; i <= 3; i++ )
+				after( i ).call( this::tick );
+		}
+
+		@Override
+		public Scheduler scheduler()
+		{
+			return this.scheduler;
+		}
+
+		void tick()
+		{
+			LOG.trace( "tick t={}", now() );
+		}
+	}
+
+	/** schedules a stream via {@link Proactive#atEach} */
+	static class StreamModel implements Proactive
+	{
+		private final Scheduler scheduler;
+
+		StreamModel( final Scheduler scheduler )
+		{
+			this.scheduler = scheduler;
+			atEach( Arrays.asList( now().add( 1 ), now().add( 2 ) ),
+					t -> LOG.trace( "tock t={}", t ) );
+		}
+
+		@Override
+		public Scheduler scheduler()
+		{
+			return this.scheduler;
+		}
+	}
+
+	@Test
+	public void testStatsPerProactive()
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "statsPerProactive" )
+						.put( SchedulerConfig.DURATION_KEY, "10" )
+						.put( SchedulerConfig.STATS_INTERVAL_KEY, "100" )
+						.build() ) );
+		final List<SchedulerStats> samples = new ArrayList<>();
+		scheduler.stats().subscribe( samples::add );
+		scheduler.onReset( s ->
+		{
+			new RunnableModel( s );
+			new StreamModel( s );
+		} );
+		scheduler.run();
+
+		assertThat( "single sample at end", samples.size(), equalTo( 1 ) );
+		final Map<String, SchedulerStats.Histogram> callbacks = samples
+				.get( 0 ).callbacks();
+		LOG.trace( "callbacks: {}", callbacks );
+		assertThat( "callbacks per model",
+				callbacks.keySet(),
+				equalTo( new HashSet<>( Arrays.asList(
+						RunnableModel.class.getName(),
+						StreamModel.class.getName() ) ) ) );
+		assertThat( "runnable events",
+				callbacks.get( RunnableModel.class.getName() ).count(),
+				equalTo( 3L ) );
+		assertThat( "stream events",
+				callbacks.get( StreamModel.class.getName() ).count(),
+				equalTo( 2L ) );
+	}
+
+	@Test
+	public void testHandles()
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				config( "handleTest", EventList.BinaryHeap.class ) );
+		final List<Integer> actual = new ArrayList<>();
+		final long[] handles = new long[2];
+		scheduler.onReset( s ->
+		{
+			for( int i = 1; i <= 3; i++ )
+			{
+				final int value = i;
+				s.post( s.now().add( i ), t -> actual.add( value ) );
+			}
+			handles[0] = scheduler.expect( s.now().add( 4 ),
+					t -> actual.add( 4 ) );
+			handles[1] = scheduler.expect( s.now().add( 5 ),
+					t -> actual.add( 5 ) );
+			assertThat( "pending", scheduler.isPending( handles[1] ),
+					equalTo( true ) );
+			assertThat( "cancelled", scheduler.cancel( handles[1] ),
+					equalTo( true ) );
+			assertThat( "cancelled once", scheduler.cancel( handles[1] ),
+					equalTo( false ) );
+		} );
+		scheduler.onReset( s -> s.after( 6 ).call( t ->
+		{
+			// recycled slots refuse stale handles
+			assertThat( "occurred", scheduler.isPending( handles[0] ),
+					equalTo( false ) );
+			assertThat( "occurred", scheduler.cancel( handles[0] ),
+					equalTo( false ) );
+			final long handle = scheduler.expect( t.add( 1 ),
+					x -> actual.add( 7 ) );
+			assertThat( "recycled slot of last removed", (int) handle,
+					equalTo( (int) handles[1] ) );
+			assertThat( "new generation", handle,
+					not( equalTo( handles[1] ) ) );
+		} ) );
+		scheduler.run();
+
+		assertThat( "posted and expected events occurred", actual,
+				equalTo( Arrays.asList( 1, 2, 3, 4, 7 ) ) );
+	}
+
+	private static void behave( final Scheduler s, final int org,
+		final int hops, final List<String> log, final Instant t )
+	{
+		s.merge( () -> log
+				.add( "t=" + t.value() + " org " + org + " hops " + hops ) );
+		if( hops > 0 ) s.post( t.add( 1 + org % 3 ), org,
+				x -> behave( s, org, hops - 1, log, x ) );
+	}
+
+	private static List<String> runPartitioned( final int parallelism )
+	{
+		final EventListScheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "parallelTest" )
+						.put( SchedulerConfig.DURATION_KEY, "10" )
+						.put( SchedulerConfig.PARALLELISM_KEY,
+								String.valueOf( parallelism ) )
+						.build() ) );
+		final List<String> log = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			// interleave two events per organization at t=1
+			for( int i = 0; i < 2; i++ )
+				for( int org = 0; org < 8; org++ )
+				{
+					final int o = org, hops = 5 + i;
+					s.post( s.now().add( 1 ), o,
+							t -> behave( s, o, hops, log, t ) );
+				}
+		} );
+		scheduler.run();
+		return log;
+	}
+
+	@Test
+	public void testParallel()
+	{
+		final List<String> expected = runPartitioned( 1 );
+		LOG.trace( "Partitioned events: {}", expected );
+		assertThat( "events occurred", expected.size(),
+				greaterThanOrEqualTo( 16 ) );
+		assertThat( "same order regardless of parallelism",
+				runPartitioned( 4 ), equalTo( expected ) );
+		assertThat( "same order regardless of thread timing",
+				runPartitioned( 4 ), equalTo( expected ) );
+	}
+}
@@ -22,7 +22,11 @@ package io.coala.time;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
+import java.math.BigDecimal;
 import java.text.ParseException;
 
 import org.apache.logging.log4j.Logger;
@@ -103,4 +107,84 @@ public class InstantTest
 
 		LOG.info( "Completed InstantTest#testCompareZero() test" );
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCompact()
+	{
+		LOG.info( "Started InstantTest#testCompact() test" );
+
+		final Instant t1 = Instant.of( 1.5, TimeUnits.DAYS );
+		final Instant t2 = t1.add( Duration.of( 2.25, TimeUnits.DAYS ) );
+		final Instant expected = Instant.of( 3.75, TimeUnits.DAYS );
+		assertThat( "compact sum", t2, comparesEqualTo( expected ) );
+		assertThat( "compact sum", t2, equalTo( expected ) );
+		assertThat( "compact hash", t2.hashCode(),
+				equalTo( expected.hashCode() ) );
+		assertThat( "compact difference", t2.subtract( t1 ),
+				comparesEqualTo( Duration.of( 2.25, TimeUnits.DAYS ) ) );
+		assertThat( "lazy quantity", t2.toQuantity().getValue().toString(),
+				equalTo( "3.75" ) );
+		assertThat( "lazy unit", t2.unit(), equalTo( TimeUnits.DAYS ) );
+
+		// mixed units: fall back to quantity arithmetic
+		assertThat( "mixed units",
+				Instant.of( 1, TimeUnits.DAYS )
+						.add( Duration.of( 12, TimeUnits.HOURS ) ),
+				comparesEqualTo( t1 ) );
+		// exotic values: fall back to quantity arithmetic
+		final Instant tiny = Instant.of( new BigDecimal( "1E-12" ),
+				TimeUnits.DAYS );
+		assertThat( "exotic value",
+				tiny.compareTo( Instant.of( 0, TimeUnits.DAYS ) ),
+				greaterThan( 0 ) );
+		assertThat( "exotic value", tiny.add( Duration.of( 1, TimeUnits.DAYS ) )
+				.compareTo( Instant.of( 1, TimeUnits.DAYS ) ),
+				greaterThan( 0 ) );
+
+		LOG.info( "Completed InstantTest#testCompact() test" );
+	}
+
+	@Test
+	public void testUnitCache()
+	{
+		LOG.info( "Started InstantTest#testUnitCache() test" );
+
+		assertThat( "interned", UnitCache.parse( TimeUnits.MILLIS_LABEL ),
+				sameInstance( UnitCache.parse( TimeUnits.MILLIS_LABEL ) ) );
+		final UnitCache.Conversion toMillis = UnitCache
+				.conversion( TimeUnits.DAYS, TimeUnits.MILLIS );
+		assertThat( "memoized", toMillis, sameInstance(
+				UnitCache.conversion( TimeUnits.DAYS, TimeUnits.MILLIS ) ) );
+		assertThat( "exact", toMillis.isExact(), equalTo( true ) );
+		assertThat( "exact", toMillis.scale( 3 ), equalTo( 259_200_000L ) );
+		assertThat( "inexact",
+				UnitCache.conversion( TimeUnits.MILLIS, TimeUnits.DAYS )
+						.scale( 1 ),
+				nullValue() );
+
+		final Instant t = Instant.of( 3, TimeUnits.DAYS );
+		assertThat( "millis", t.toMillisLong(), equalTo( 259_200_000L ) );
+		assertThat( "nanos", Instant.of( 1.5, TimeUnits.MILLIS ).toNanosLong(),
+				equalTo( 1_500_000L ) );
+		assertThat( "truncated", Instant.of( 1.5, TimeUnits.DAYS )
+				.to( TimeUnits.HOURS ).toMillisLong(), equalTo( 129_600_000L ) );
+		assertThat( "round trip",
+				t.to( TimeUnits.HOURS ).to( TimeUnits.DAYS ).unit(),
+				equalTo( TimeUnits.DAYS ) );
+		assertThat( "same as quantity", t.to( TimeUnits.HOURS ),
+				comparesEqualTo( Instant.of( 72, TimeUnits.HOURS ) ) );
+		assertThat( "same as quantity",
+				Duration.of( 1500, TimeUnits.MILLIS ).to( TimeUnits.SECOND ),
+				comparesEqualTo( Duration.valueOf( "1.5 s" ) ) );
+		assertThat( "parsed", Instant.valueOf( "36 hr" ),
+				comparesEqualTo( Instant.of( 1.5, TimeUnits.DAYS ) ) );
+		assertThat( "amount with label",
+				UnitCache.isAmountWithLabel( "-1.5E2 ms" ), equalTo( true ) );
+		assertThat( "ISO period", UnitCache.isAmountWithLabel( "PT36H" ),
+				equalTo( false ) );
+		assertThat( "parsed ISO", Instant.valueOf( "PT36H" ),
+				comparesEqualTo( Instant.of( 1.5, TimeUnits.DAYS ) ) );
+
+		LOG.info( "Completed InstantTest#testUnitCache() test" );
+	}
+}
@@ -0,0 +1,154 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.bind.LocalBinder;
+import io.coala.log.LogUtil;
+import io.coala.util.MapBuilder;
+import io.reactivex.Observable;
+
+/**
+ * {@link ReplicatorTest}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class ReplicatorTest
+{
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( ReplicatorTest.class );
+
+	@Test
+	public void testParallelReplications()
+	{
+		final Map<String, Object> imports = MapBuilder
+				.<String, Object>unordered()
+				.put( SchedulerConfig.IMPLEMENTATION_KEY,
+						EventListScheduler.class.getName() )
+				.put( SchedulerConfig.DURATION_KEY, "100" ).build();
+		final String failing = "repl3";
+		final List<Replicator.Replication> results = new Scheduler.Factory()
+		{
+		}.createAndRun( Observable.range( 0, 8 ).map( i -> "repl" + i ), 4,
+				s ->
+				{
+					s.after( 10 ).call( t -> LOG.trace( "t={}", t ) );
+					if( failing.equals( s.config().rawId() ) )
+						s.after( 50 ).call( t ->
+						{
+							throw new IllegalStateException( "fail" );
+						} );
+				}, imports ).toList().blockingGet();
+
+		assertThat( "all replications reported", results.size(),
+				equalTo( 8 ) );
+		for( Replicator.Replication result : results )
+		{
+			LOG.trace( "Result: {}", result );
+			if( failing.equals( result.id() ) )
+				assertThat( "failure isolated", result.failed(),
+						equalTo( true ) );
+			else
+				assertThat( "completed", result.end(), comparesEqualTo(
+						Instant.of( 100, result.scheduler().timeUnit() ) ) );
+		}
+	}
+
+	@Test
+	public void testStatsPerRun() throws InterruptedException
+	{
+		final Replicator replicator = Replicator.of( 2,
+				id -> new EventListScheduler( SchedulerConfig.create( MapBuilder
+						.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, id )
+						.put( SchedulerConfig.DURATION_KEY, "10" ).build() ) ) );
+		replicator.run( Observable.just( "a", "b" ), null ).blockingSubscribe();
+		assertThat( "first run", replicator.stats().completed(), equalTo( 2 ) );
+		Thread.sleep( 100 );
+
+		final long start = System.nanoTime();
+		replicator.run( Observable.just( "c", "d", "e" ), null )
+				.blockingSubscribe();
+		final long elapsed = System.nanoTime() - start;
+		final Replicator.Stats stats = replicator.stats();
+		LOG.trace( "Second run: {}", stats );
+		assertThat( "second run", stats.completed(), equalTo( 3 ) );
+		assertThat( "timed per run", stats.wallNanos(),
+				lessThanOrEqualTo( elapsed ) );
+	}
+
+	/**
+	 * @param id the replication id
+	 * @return a {@link LocalBinder} providing a singleton {@link Scheduler}
+	 */
+	private static LocalBinder binder( final String id )
+	{
+		final Scheduler scheduler = new EventListScheduler( SchedulerConfig
+				.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, id )
+						.put( SchedulerConfig.DURATION_KEY, "10" ).build() ) );
+		return (LocalBinder) Proxy.newProxyInstance(
+				LocalBinder.class.getClassLoader(),
+				new Class<?>[] { LocalBinder.class }, ( proxy, method, args ) ->
+				{
+					if( method.getName().equals( "inject" )
+							&& args[0] == Scheduler.class )
+						return scheduler;
+					if( method.getName().equals( "toString" ) ) return id;
+					throw new UnsupportedOperationException(
+							method.getName() );
+				} );
+	}
+
+	@Test
+	public void testBinderPerReplication()
+	{
+		final Set<String> initialized = ConcurrentHashMap.newKeySet();
+		final List<Replicator.Replication> results = new Scheduler.Factory()
+		{
+		}.createAndRun( Observable.range( 0, 6 ).map( i -> "repl" + i ), 3,
+				ReplicatorTest::binder,
+				binder -> binder.inject( Scheduler.class ).onReset( s -> s
+						.after( 5 ).call( t -> initialized.add( "" + binder ) ) ) )
+				.toList().blockingGet();
+
+		assertThat( "all replications reported", results.size(),
+				equalTo( 6 ) );
+		for( Replicator.Replication result : results )
+		{
+			LOG.trace( "Result: {}", result );
+			assertThat( "completed", result.failed(), equalTo( false ) );
+			assertThat( "own scheduler", result.scheduler().config().rawId(),
+					equalTo( result.id() ) );
+		}
+		assertThat( "initialized per binder", initialized.size(),
+				equalTo( 6 ) );
+	}
+}
@@ -0,0 +1,78 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.time;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.coala.util.MapBuilder;
+
+/**
+ * {@link SignalMemoTest}
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class SignalMemoTest
+{
+
+	@Test
+	public void testDerivedSignals()
+	{
+		final Scheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "signalTest" )
+						.put( SchedulerConfig.DURATION_KEY, "10" ).build() ) );
+		final AtomicInteger sourceCalls = new AtomicInteger();
+		final AtomicInteger transformCalls = new AtomicInteger();
+		final List<Integer> emitted = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			final Signal<Integer> source = Signal.Simple.of( s, t ->
+			{
+				sourceCalls.incrementAndGet();
+				return t.value().intValue() / 2;
+			} );
+			final Signal<Integer> derived = source.map( v ->
+			{
+				transformCalls.incrementAndGet();
+				return v * 10;
+			} ).map( v -> v + 1 );
+			derived.emit().subscribe( emitted::add );
+			for( int i = 1; i <= 5; i++ )
+				s.after( i ).call( t ->
+				{
+					derived.current();
+					derived.current(); // memoized
+				} );
+		} );
+		scheduler.run();
+
+		assertThat( "source evaluated once per instant", sourceCalls.get(),
+				equalTo( 5 ) );
+		assertThat( "transform applied once per source change",
+				transformCalls.get(), equalTo( 3 ) );
+		assertThat( "only changes emitted", emitted,
+				equalTo( Arrays.asList( 1, 11, 21 ) ) );
+	}
+}
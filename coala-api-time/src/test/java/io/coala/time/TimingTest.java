@@ -2,11 +2,14 @@ package io.coala.time;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.nullValue;
 
 import java.text.ParseException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -14,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 import org.junit.Test;
 
 import io.coala.json.JsonUtil;
+import io.coala.util.MapBuilder;
 
 /**
  * {@link TimingTest}
@@ -87,4 +91,60 @@ public class TimingTest
 		LOG.info( "test: done" );
 	}
 
+	@Test
+	public void testTimingCache() throws ParseException
+	{
+		final String pattern = "0 0 8 ? * MON-FRI";
+		final Scheduler scheduler = new EventListScheduler(
+				SchedulerConfig.create( MapBuilder.<String, Object>unordered()
+						.put( SchedulerConfig.ID_KEY, "timingCacheTest" )
+						.put( SchedulerConfig.DURATION_KEY, "30" ).build() ) );
+		final List<List<Instant>> iterations = new ArrayList<>();
+		final List<Instant> later = new ArrayList<>(),
+				limited = new ArrayList<>();
+		scheduler.onReset( s ->
+		{
+			TimingCache.clear();
+			for( int actor = 0; actor < 3; actor++ )
+			{
+				final List<Instant> instants = new ArrayList<>();
+				Timing.of( pattern ).iterate( s ).forEach( instants::add );
+				iterations.add( instants );
+			}
+			assertThat( "compiled once", TimingCache.size(), equalTo( 1 ) );
+			// actors starting later share the compiled pattern
+			s.after( 10 ).call( t ->
+			{
+				Timing.of( pattern ).iterate( s ).forEach( later::add );
+				Timing.of( pattern ).max( 3L ).iterate( s )
+						.forEach( limited::add );
+				assertThat( "still compiled once", TimingCache.size(),
+						equalTo( 1 ) );
+			} );
+		} );
+		scheduler.run();
+
+		final Instant end = Instant.of( 30, scheduler.timeUnit() );
+		final List<Instant> expected = new ArrayList<>();
+		for( Instant t : Timing.of( pattern )
+				.offset( scheduler.offset().toInstant() )
+				.iterate( Instant.of( 0, scheduler.timeUnit() ) ) )
+		{
+			if( t.compareTo( end ) > 0 ) break;
+			expected.add( t );
+		}
+		LOG.trace( "Compiled {} instants: {}", expected.size(), expected );
+		assertThat( "weekdays within horizon", expected.size(),
+				greaterThan( 15 ) );
+		for( List<Instant> instants : iterations )
+			assertThat( "same instants as uncompiled", instants,
+					equalTo( expected ) );
+		final List<Instant> fromLater = expected.stream()
+				.filter( t -> t.compareTo( Instant.of( 10,
+						scheduler.timeUnit() ) ) >= 0 )
+				.collect( Collectors.toList() );
+		assertThat( "from later start", later, equalTo( fromLater ) );
+		assertThat( "max from later start", limited,
+				equalTo( fromLater.subList( 0, 3 ) ) );
+	}
 }
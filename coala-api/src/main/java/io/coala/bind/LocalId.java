@@ -34,10 +34,10 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.util.StdConverter;
 
+import io.coala.bind.persist.LocalIdCache;
 import io.coala.bind.persist.LocalIdDao;
 import io.coala.exception.Thrower;
 import io.coala.name.Id;
-import io.coala.persist.JPAUtil;
 import io.coala.persist.Persistable;
 import io.reactivex.Observable;
 
@@ -145,17 +145,11 @@ public class LocalId extends Id.OrdinalChild<Comparable, LocalId>
 		throw new IllegalArgumentException();
 	}
 
-	private transient Integer pk = null;
-
 	@Override
 	public LocalIdDao persist( final EntityManager em )
 	{
-		if( this.pk != null ) return em.find( LocalIdDao.class, this.pk ); // cached?
-		final LocalIdDao result = JPAUtil.<LocalIdDao>findOrCreate( em,
-				() -> LocalIdDao.find( em, this ),
-				() -> LocalIdDao.create( em, this ) );
-		this.pk = result.pk;
-		return result;
+		return LocalIdCache.of( em.getEntityManagerFactory() ).persist( em,
+				this );
 	}
 
 	/**
@@ -0,0 +1,138 @@
+/* $Id$
+ * 
+ * Part of ZonMW project no. 50-53000-98-156
+ * 
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * 
+ * Copyright (c) 2016 RIVM National Institute for Health and Environment 
+ */
+package io.coala.bind.persist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import com.eaio.uuid.UUID;
+
+import io.coala.bind.LocalId;
+import io.coala.persist.JPAUtil;
+
+/**
+ * {@link LocalIdCache} maps {@link LocalId}s to the primary keys of their
+ * persisted {@link LocalIdDao}s, one cache per {@link EntityManagerFactory},
+ * so that known ids resolve to managed references via
+ * {@link EntityManager#getReference(Class, Object)} rather than lookups. Ids
+ * may be {@link #register registered} in bulk, e.g. all actor ids upon
+ * startup. Ids are keyed by their (persisted) value chain rather than by
+ * {@link LocalId#equals(Object)}, so sub-types like {@code Actor.ID} resolve
+ * to the same keys as the plain {@link LocalId}s restored from the database
+ * 
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public final class LocalIdCache
+{
+
+	private static final Map<EntityManagerFactory, LocalIdCache> CACHES = Collections
+			.synchronizedMap( new WeakHashMap<>() );
+
+	/**
+	 * @param emf the {@link EntityManagerFactory}
+	 * @return the (shared) {@link LocalIdCache} for specified factory
+	 */
+	public static LocalIdCache of( final EntityManagerFactory emf )
+	{
+		return CACHES.computeIfAbsent( emf, key -> new LocalIdCache() );
+	}
+
+	/**
+	 * @param id the {@link LocalId}
+	 * @return a key independent of the {@link LocalId} (sub)type, i.e. the
+	 *         persisted values from the id up to its context
+	 */
+	private static List<String> keyOf( final LocalId id )
+	{
+		final List<String> result = new ArrayList<>();
+		for( LocalId i = id; i != null; i = i.parentRef() )
+			result.add( i.unwrap().toString() );
+		return result;
+	}
+
+	private final Map<List<String>, Integer> pks = new ConcurrentHashMap<>();
+
+	private LocalIdCache()
+	{
+		// use #of(EntityManagerFactory)
+	}
+
+	/** @return the number of cached ids */
+	public int size()
+	{
+		return this.pks.size();
+	}
+
+	/**
+	 * @param em the session or {@link EntityManager}
+	 * @param id the {@link LocalId} to persist, if not already
+	 * @return a managed (reference to the) {@link LocalIdDao}
+	 */
+	public LocalIdDao persist( final EntityManager em, final LocalId id )
+	{
+		final List<String> key = keyOf( id );
+		final Integer pk = this.pks.get( key );
+		if( pk != null ) return em.getReference( LocalIdDao.class, pk );
+		// find or create (and commit) in a nested session
+		final LocalIdDao result = JPAUtil.<LocalIdDao>findOrCreate( em,
+				() -> LocalIdDao.find( em, id ),
+				() -> LocalIdDao.create( em, id ) );
+		if( result.pk != null ) this.pks.put( key, result.pk );
+		return result;
+	}
+
+	/**
+	 * caches all ids already persisted in the contexts of specified
+	 * {@link LocalId}s using a single query per context, then persists any
+	 * remaining ones
+	 * 
+	 * @param em a fresh session or {@link EntityManager}, i.e. without pending
+	 *            changes that might still roll back
+	 * @param ids the {@link LocalId}s to register
+	 * @return this {@link LocalIdCache} for chaining
+	 */
+	public LocalIdCache register( final EntityManager em,
+		final Iterable<? extends LocalId> ids )
+	{
+		final Set<UUID> loaded = new HashSet<>();
+		for( LocalId id : ids )
+		{
+			final List<String> key = keyOf( id );
+			if( this.pks.containsKey( key ) ) continue;
+			if( loaded.add( id.contextRef() ) )
+				for( LocalIdDao dao : LocalIdDao.findAll( em,
+						id.contextRef() ) )
+					this.pks.putIfAbsent( keyOf( dao.restore( null ) ),
+							dao.pk );
+			if( !this.pks.containsKey( key ) ) persist( em, id );
+		}
+		return this;
+	}
+}
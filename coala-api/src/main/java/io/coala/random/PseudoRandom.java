@@ -15,6 +15,9 @@
  */
 package io.coala.random;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -426,7 +429,10 @@ public interface PseudoRandom extends Identified<PseudoRandom.Name>
 
 	/**
 	 * {@link JavaRandom} decorates a standard Java {@link Random} generator as
-	 * {@link PseudoRandom}
+	 * {@link PseudoRandom}, generating the same sequences though keeping its
+	 * (48-bit linear congruential) state accessible so it may be
+	 * {@link #save saved} and {@link #restore restored}, e.g. to checkpoint
+	 * some replication
 	 * 
 	 * @version $Id$
 	 * @author Rick van Krevelen
@@ -452,14 +458,82 @@ public interface PseudoRandom extends Identified<PseudoRandom.Name>
 		/** the id */
 		private Name id;
 
+		private static final long MULTIPLIER = 0x5DEECE66DL;
+
+		private static final long ADDEND = 0xBL;
+
+		private static final long MASK = (1L << 48) - 1;
+
 		/** the seed */
 		private Long seed;
 
+		/** the generator state, as in {@link Random} (set during construction) */
+		private long state;
+
+		private double nextNextGaussian;
+
+		private boolean haveNextNextGaussian;
+
 		@Override
-		public void setSeed( final long seed )
+		public synchronized void setSeed( final long seed )
 		{
 			super.setSeed( seed );
 			this.seed = seed;
+			this.state = (seed ^ MULTIPLIER) & MASK;
+			this.haveNextNextGaussian = false;
+		}
+
+		@Override
+		protected synchronized int next( final int bits )
+		{
+			this.state = (this.state * MULTIPLIER + ADDEND) & MASK;
+			return (int) (this.state >>> (48 - bits));
+		}
+
+		@Override
+		public synchronized double nextGaussian()
+		{
+			if( this.haveNextNextGaussian )
+			{
+				this.haveNextNextGaussian = false;
+				return this.nextNextGaussian;
+			}
+			double v1, v2, s;
+			do
+			{
+				v1 = 2 * nextDouble() - 1;
+				v2 = 2 * nextDouble() - 1;
+				s = v1 * v1 + v2 * v2;
+			} while( s >= 1 || s == 0 );
+			final double multiplier = StrictMath
+					.sqrt( -2 * StrictMath.log( s ) / s );
+			this.nextNextGaussian = v2 * multiplier;
+			this.haveNextNextGaussian = true;
+			return v1 * multiplier;
+		}
+
+		/**
+		 * @param out the {@link DataOutput} to write the current state to
+		 * @throws IOException if writing failed
+		 */
+		public synchronized void save( final DataOutput out ) throws IOException
+		{
+			out.writeLong( this.state );
+			out.writeBoolean( this.haveNextNextGaussian );
+			out.writeDouble( this.nextNextGaussian );
+		}
+
+		/**
+		 * @param in the {@link DataInput} to read a {@link #save saved} state
+		 *            from
+		 * @throws IOException if reading failed
+		 */
+		public synchronized void restore( final DataInput in )
+			throws IOException
+		{
+			this.state = in.readLong() & MASK;
+			this.haveNextNextGaussian = in.readBoolean();
+			this.nextNextGaussian = in.readDouble();
 		}
 
 		@Override
@@ -21,9 +21,11 @@ package io.coala.bind.persist;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.fail;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.EntityManagerFactory;
@@ -31,7 +33,9 @@ import javax.persistence.RollbackException;
 
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -40,6 +44,7 @@ import com.eaio.uuid.UUID;
 
 import io.coala.bind.LocalId;
 import io.coala.log.LogUtil;
+import io.coala.name.Id;
 import io.coala.persist.HikariHibernateJPAConfig;
 import io.coala.persist.JPAUtil;
 
@@ -83,6 +88,75 @@ public class LocalIdDaoTest
 		if( emf != null ) emf.close();
 	}
 
+	@Test
+	public void testReferenceCache()
+	{
+		final UUID contextRef = new UUID();
+		// NOTE: unique (context, parent), so at most one child per parent
+		final LocalId id1 = LocalId.of( "org", LocalId.of( contextRef ) );
+		final LocalId id2 = LocalId.of( "role", id1 );
+		final LocalIdCache cache = LocalIdCache.of( emf );
+		JPAUtil.session( emf,
+				em -> cache.register( em, Arrays.asList( id1, id2 ) ) );
+		JPAUtil.session( emf, em ->
+		{
+			// new wrapper instances should resolve to the registered keys
+			final LocalIdDao ref = LocalId.of( "role",
+					LocalId.of( "org", LocalId.of( contextRef ) ) )
+					.persist( em );
+			assertThat( "reference", ref, notNullValue() );
+			assertThat( "same key", em.getEntityManagerFactory()
+					.getPersistenceUnitUtil().getIdentifier( ref ),
+					equalTo( LocalIdDao.find( em, id2 ).pk ) );
+		} );
+	}
+
+	/** a {@link LocalId} sub-type, e.g. like {@code Actor.ID} */
+	public static class RoleId extends LocalId
+	{
+		public static RoleId of( final Comparable<?> name,
+			final LocalId parent )
+		{
+			return Id.of( new RoleId(), name, parent );
+		}
+	}
+
+	@Test
+	public void testSubtypeReferenceCache()
+	{
+		final UUID contextRef = new UUID();
+		final LocalId context = LocalId.of( contextRef );
+		// persist some plain ids, as restored by the bulk query
+		final Integer[] pks = new Integer[2];
+		JPAUtil.session( emf, em ->
+		{
+			pks[0] = LocalIdDao.create( em, LocalId.of( "org1", context ) ).pk;
+			pks[1] = LocalIdDao.create( em, LocalId.of( "org2", context ) ).pk;
+		} );
+		final Statistics stats = emf.unwrap( SessionFactory.class )
+				.getStatistics();
+		stats.setStatisticsEnabled( true );
+		final long queries = stats.getQueryExecutionCount();
+		final LocalIdCache cache = LocalIdCache.of( emf );
+		final int size = cache.size();
+		JPAUtil.session( emf, em -> cache.register( em,
+				Arrays.asList( RoleId.of( "org1", context ),
+						RoleId.of( "org2", context ) ) ) );
+		assertThat( "bulk loaded, not persisted per id", cache.size(),
+				equalTo( size + 2 ) );
+		assertThat( "single bulk query", stats.getQueryExecutionCount(),
+				equalTo( queries + 1 ) );
+		JPAUtil.session( emf, em ->
+		{
+			// sub-typed ids should resolve to the bulk-loaded keys
+			final LocalIdDao ref = RoleId.of( "org2", context ).persist( em );
+			assertThat( "same key", emf.getPersistenceUnitUtil()
+					.getIdentifier( ref ), equalTo( pks[1] ) );
+		} );
+		assertThat( "no further queries", stats.getQueryExecutionCount(),
+				equalTo( queries + 1 ) );
+	}
+
 	@Test( expected = RollbackException.class )
 	public void testSyncConstraint1() throws Exception
 	{
@@ -0,0 +1,53 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link Benchmarks} runs the JMH benchmarks in this module, accepting the
+ * usual JMH command-line options though emitting JSON results to
+ * {@link #RESULT_FILE} by default, for tracking regressions between releases
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class Benchmarks
+{
+
+	/** the default result file */
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	public static void main( final String[] args )
+		throws CommandLineOptionException, RunnerException
+	{
+		final CommandLineOptions cmd = new CommandLineOptions( args );
+		final OptionsBuilder builder = new OptionsBuilder();
+		if( !cmd.getResultFormat().hasValue() )
+			builder.resultFormat( ResultFormatType.JSON );
+		if( !cmd.getResult().hasValue() ) builder.result( RESULT_FILE );
+		if( cmd.getIncludes().isEmpty() )
+			builder.include( Benchmarks.class.getPackage().getName() + ".*" );
+		final Options options = builder.parent( cmd ).build();
+		new Runner( options ).run();
+	}
+}
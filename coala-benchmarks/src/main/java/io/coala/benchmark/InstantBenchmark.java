@@ -0,0 +1,105 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.coala.time.Duration;
+import io.coala.time.Instant;
+import io.coala.time.TimeUnits;
+
+/**
+ * {@link InstantBenchmark} measures {@link Instant} creation, comparison and
+ * arithmetic, in equal and in mixed time units
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class InstantBenchmark
+{
+	private Instant t1;
+
+	private Instant t2;
+
+	private Duration day;
+
+	private Duration hour;
+
+	private long i = 0;
+
+	@Setup
+	public void setup()
+	{
+		this.t1 = Instant.of( 1, TimeUnits.DAYS );
+		this.t2 = Instant.of( 2.5, TimeUnits.DAYS );
+		this.day = Duration.of( 1, TimeUnits.DAYS );
+		this.hour = Duration.of( 1, TimeUnits.HOURS );
+	}
+
+	@Benchmark
+	public Instant createLong()
+	{
+		return Instant.of( ++this.i, TimeUnits.DAYS );
+	}
+
+	@Benchmark
+	public Instant createDecimal()
+	{
+		return Instant.of( BigDecimal.valueOf( ++this.i, 3 ), TimeUnits.DAYS );
+	}
+
+	@Benchmark
+	public int compare()
+	{
+		return this.t1.compareTo( this.t2 );
+	}
+
+	@Benchmark
+	public Instant add()
+	{
+		return this.t1.add( this.day );
+	}
+
+	@Benchmark
+	public Instant addMixedUnits()
+	{
+		return this.t1.add( this.hour );
+	}
+
+	@Benchmark
+	public Duration subtract()
+	{
+		return this.t2.subtract( this.t1 );
+	}
+}
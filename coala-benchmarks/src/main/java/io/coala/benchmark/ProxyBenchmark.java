@@ -0,0 +1,129 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.coala.util.ReflectUtil;
+
+/**
+ * {@link ProxyBenchmark} measures calls on
+ * {@link ReflectUtil#createProxyInstance proxies}, as used for facts and
+ * actors, against direct calls on their implementation: bean property access,
+ * default and implementation methods
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ProxyBenchmark
+{
+	public interface Named
+	{
+		String name();
+
+		default String greet( final String other )
+		{
+			return other + ", " + name();
+		}
+	}
+
+	public interface Sale extends Named
+	{
+		Integer getPrice();
+
+		void setPrice( Integer price );
+	}
+
+	public static class Impl implements Named
+	{
+		@Override
+		public String name()
+		{
+			return "sale";
+		}
+	}
+
+	private Named impl;
+
+	private Sale proxy;
+
+	private int i = 0;
+
+	@Setup
+	public void setup()
+	{
+		this.impl = new Impl();
+		final Map<String, Object> properties = new HashMap<>();
+		this.proxy = ReflectUtil.createProxyInstance( this.impl, Sale.class,
+				() -> properties, null );
+		this.proxy.setPrice( 1 );
+	}
+
+	@Benchmark
+	public String implDirect()
+	{
+		return this.impl.name();
+	}
+
+	@Benchmark
+	public String implProxied()
+	{
+		return this.proxy.name();
+	}
+
+	@Benchmark
+	public String defaultDirect()
+	{
+		return this.impl.greet( "hi" );
+	}
+
+	@Benchmark
+	public String defaultProxied()
+	{
+		return this.proxy.greet( "hi" );
+	}
+
+	@Benchmark
+	public Integer beanGet()
+	{
+		return this.proxy.getPrice();
+	}
+
+	@Benchmark
+	public void beanSet()
+	{
+		this.proxy.setPrice( ++this.i );
+	}
+}
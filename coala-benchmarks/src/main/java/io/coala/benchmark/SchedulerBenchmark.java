@@ -0,0 +1,130 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.measure.Quantity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.coala.function.ThrowingConsumer;
+import io.coala.math.QuantityUtil;
+import io.coala.time.Expectation;
+import io.coala.time.Scheduler;
+import io.coala.time.SchedulerConfig;
+import io.coala.time.TimeUnits;
+import io.coala.util.MapBuilder;
+
+/**
+ * {@link SchedulerBenchmark} measures the per-event cost of complete
+ * replications on each {@link Scheduler} implementation: scheduling and
+ * firing, {@link Expectation#remove() cancellation}, and
+ * {@link io.coala.time.Proactive#infiniterate infiniterate} loops
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class SchedulerBenchmark
+{
+	/** the number of events per replication */
+	public static final int EVENTS = 10_000;
+
+	@Param( { "io.coala.dsol3.Dsol3Scheduler",
+			"io.coala.time.EventListScheduler" } )
+	public String implementation;
+
+	private long replication = 0;
+
+	private Scheduler create()
+	{
+		final Map<String, Object> imports = MapBuilder
+				.<String, Object>unordered()
+				.put( SchedulerConfig.ID_KEY, "bench" + ++this.replication )
+				.put( SchedulerConfig.IMPLEMENTATION_KEY, this.implementation )
+				.put( SchedulerConfig.DURATION_KEY, String.valueOf( EVENTS ) )
+				.build();
+		return new Scheduler.Factory()
+		{
+		}.create( SchedulerConfig.create( imports ) );
+	}
+
+	private long run( final ThrowingConsumer<Scheduler, ?> onReset )
+	{
+		final Scheduler scheduler = create();
+		scheduler.onReset( onReset );
+		scheduler.run();
+		return scheduler.now().value().longValue();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( EVENTS )
+	public long scheduleAndFire()
+	{
+		final AtomicLong fired = new AtomicLong();
+		run( s ->
+		{
+			for( int i = 1; i <= EVENTS; i++ )
+				s.after( i ).call( t -> fired.incrementAndGet() );
+		} );
+		return fired.get();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( EVENTS )
+	public long scheduleAndCancel()
+	{
+		final AtomicLong fired = new AtomicLong();
+		run( s ->
+		{
+			final List<Expectation> pending = new ArrayList<>( EVENTS );
+			for( int i = 1; i <= EVENTS; i++ )
+				pending.add( s.after( i ).call( t -> fired.incrementAndGet() ) );
+			pending.forEach( Expectation::remove );
+		} );
+		return fired.get();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( EVENTS )
+	public long infiniterate()
+	{
+		final AtomicLong fired = new AtomicLong();
+		final Quantity<?> step = QuantityUtil.valueOf( 1, TimeUnits.DAYS );
+		run( s -> s.infiniterate( () -> step, t -> fired.incrementAndGet() ) );
+		return fired.get();
+	}
+}
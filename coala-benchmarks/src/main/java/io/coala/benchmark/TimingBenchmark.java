@@ -0,0 +1,79 @@
+/* $Id$
+ *
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.coala.benchmark;
+
+import java.text.ParseException;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.coala.time.Instant;
+import io.coala.time.Timing;
+
+/**
+ * {@link TimingBenchmark} measures the per-instant cost of
+ * {@link Timing#iterate iterating} CRON and iCal patterns
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TimingBenchmark
+{
+	/** the number of instants per iteration */
+	public static final int INSTANTS = 100;
+
+	@Param( { "0 0 12 ? * MON-FRI",
+			"DTSTART:20200101T120000Z\r\nRRULE:FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR" } )
+	public String pattern;
+
+	private Timing timing;
+
+	@Setup
+	public void setup()
+	{
+		this.timing = Timing.of( this.pattern )
+				.offset( OffsetDateTime.parse( "2020-01-01T00:00:00Z" ) )
+				.max( (long) INSTANTS );
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( INSTANTS )
+	public Instant iterate() throws ParseException
+	{
+		Instant last = null;
+		for( Instant t : this.timing.iterate( Instant.ZERO ) )
+			last = t;
+		return last;
+	}
+}
@@ -21,7 +21,7 @@ package io.coala.json;
 
 import java.beans.PropertyChangeEvent;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.SortedMap;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
@@ -96,7 +96,8 @@ public interface Attributed
 		class Simple implements Reactive
 		{
 
-			private final TreeMap<String, Object> properties = new TreeMap<>();
+			private final SortedMap<String, Object> properties = new SlotMap(
+					getClass() );
 
 			private final Subject<PropertyChangeEvent> changes = PublishSubject
 					.create();
@@ -107,8 +108,17 @@ public interface Attributed
 				return getClass().getSimpleName() + properties();
 			}
 
+			/**
+			 * Note that this returns a (compact) {@link SortedMap} rather than
+			 * the {@link java.util.TreeMap TreeMap} of earlier versions, so
+			 * callers compiled against those must be recompiled, and callers
+			 * requiring a {@link java.util.NavigableMap NavigableMap} should
+			 * copy it, e.g. {@code new TreeMap<>( properties() )}
+			 * 
+			 * @return the (mutable) properties, in natural order of their names
+			 */
 			@Override
-			public TreeMap<String, Object> properties()
+			public SortedMap<String, Object> properties()
 			{
 				return this.properties;
 			}
@@ -0,0 +1,394 @@
+/* $Id$
+ * 
+ * Part of ZonMW project no. 50-53000-98-156
+ * 
+ * @license
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * 
+ * Copyright (c) 2016 RIVM National Institute for Health and Environment 
+ */
+package io.coala.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SlotMap} is a compact {@link SortedMap} of bean properties backed by
+ * an {@code Object[]}, whose property names are resolved to slot indexes
+ * once per {@link Schema}, e.g. shared by all instances of some bean type.
+ * This saves a tree node per property (and per instance) and the string
+ * comparisons of a {@link TreeMap} lookup, while iterating in the same
+ * (natural) key order. Names beyond the {@link Schema#capacity()} are kept
+ * in a per-instance {@link TreeMap} instead. Note that {@link #subMap},
+ * {@link #headMap} and {@link #tailMap} return copies rather than views
+ * 
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class SlotMap extends AbstractMap<String, Object>
+	implements SortedMap<String, Object>
+{
+
+	/** marks slots holding a {@code null} value, i.e. unlike empty slots */
+	private static final Object NULL = new Object();
+
+	private static final Object[] EMPTY = {};
+
+	/**
+	 * {@link Schema} maps property names to slot indexes, append-only up to
+	 * its {@link #capacity()}
+	 */
+	public static class Schema
+	{
+		/** the default maximum number of slots per {@link Schema} */
+		public static final int DEFAULT_CAPACITY = 64;
+
+		private static final Map<Class<?>, Schema> CACHE = new ConcurrentHashMap<>();
+
+		/**
+		 * @param type the bean type
+		 * @return the (shared) {@link Schema} for specified type
+		 */
+		public static Schema of( final Class<?> type )
+		{
+			return CACHE.computeIfAbsent( type,
+					key -> new Schema( DEFAULT_CAPACITY ) );
+		}
+
+		private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+		private final int capacity;
+
+		/** slot indexes in natural order of their names */
+		private volatile int[] sorted = {};
+
+		private volatile String[] names = {};
+
+		/**
+		 * @param capacity the maximum number of slots
+		 */
+		public Schema( final int capacity )
+		{
+			this.capacity = capacity;
+		}
+
+		/**
+		 * @param name the property name
+		 * @return its slot index, or -1 if unknown
+		 */
+		public int indexOf( final String name )
+		{
+			final Integer result = this.slots.get( name );
+			return result == null ? -1 : result;
+		}
+
+		/**
+		 * @param name the property name
+		 * @return its (new) slot index, or -1 if unknown and at capacity
+		 */
+		public int slot( final String name )
+		{
+			final int result = indexOf( name );
+			return result < 0 ? append( name ) : result;
+		}
+
+		private synchronized int append( final String name )
+		{
+			final Integer existing = this.slots.get( name );
+			if( existing != null ) return existing;
+			final int slot = this.names.length;
+			if( slot >= this.capacity ) return -1;
+			final String[] names = Arrays.copyOf( this.names, slot + 1 );
+			names[slot] = name;
+			// insert into sorted order
+			final int[] sorted = new int[slot + 1];
+			int i = 0;
+			for( ; i < slot && names[this.sorted[i]].compareTo( name ) < 0; i++ )
+				sorted[i] = this.sorted[i];
+			sorted[i] = slot;
+			System.arraycopy( this.sorted, i, sorted, i + 1, slot - i );
+			this.names = names;
+			this.sorted = sorted;
+			this.slots.put( name, slot );
+			return slot;
+		}
+
+		/** @return the number of slots */
+		public int size()
+		{
+			return this.names.length;
+		}
+
+		/** @return the maximum number of slots */
+		public int capacity()
+		{
+			return this.capacity;
+		}
+	}
+
+	private final Schema schema;
+
+	private Object[] values = EMPTY;
+
+	/** the number of occupied slots */
+	private int size = 0;
+
+	/** properties named beyond the {@link Schema#capacity()}, if any */
+	private TreeMap<String, Object> overflow = null;
+
+	/**
+	 * @param type the bean type, sharing its {@link Schema}
+	 */
+	public SlotMap( final Class<?> type )
+	{
+		this( Schema.of( type ) );
+	}
+
+	/**
+	 * @param schema the {@link Schema}
+	 */
+	public SlotMap( final Schema schema )
+	{
+		this.schema = schema;
+	}
+
+	private int indexOf( final Object key )
+	{
+		if( key instanceof String == false ) return -1;
+		final int i = this.schema.indexOf( (String) key );
+		return i < this.values.length ? i : -1;
+	}
+
+	private boolean overflows( final Object key )
+	{
+		return this.overflow != null && key instanceof String
+				&& this.schema.indexOf( (String) key ) < 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return this.overflow == null ? this.size
+				: this.size + this.overflow.size();
+	}
+
+	@Override
+	public boolean containsKey( final Object key )
+	{
+		if( overflows( key ) ) return this.overflow.containsKey( key );
+		final int i = indexOf( key );
+		return i >= 0 && this.values[i] != null;
+	}
+
+	@Override
+	public Object get( final Object key )
+	{
+		if( overflows( key ) ) return this.overflow.get( key );
+		final int i = indexOf( key );
+		return i < 0 ? null : unmask( this.values[i] );
+	}
+
+	@Override
+	public Object put( final String key, final Object value )
+	{
+		final int i = this.schema.slot( key );
+		if( i < 0 )
+		{
+			if( this.overflow == null ) this.overflow = new TreeMap<>();
+			return this.overflow.put( key, value );
+		}
+		// grow only as far as needed, as other instances may use other slots
+		if( i >= this.values.length )
+			this.values = Arrays.copyOf( this.values, i + 1 );
+		final Object previous = this.values[i];
+		this.values[i] = value == null ? NULL : value;
+		if( previous == null ) this.size++;
+		return unmask( previous );
+	}
+
+	@Override
+	public Object remove( final Object key )
+	{
+		if( overflows( key ) ) return this.overflow.remove( key );
+		final int i = indexOf( key );
+		if( i < 0 || this.values[i] == null ) return null;
+		final Object previous = this.values[i];
+		this.values[i] = null;
+		this.size--;
+		return unmask( previous );
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill( this.values, null );
+		this.size = 0;
+		this.overflow = null;
+	}
+
+	private static Object unmask( final Object value )
+	{
+		return value == NULL ? null : value;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<String, Object>>()
+		{
+			@Override
+			public int size()
+			{
+				return SlotMap.this.size();
+			}
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator()
+			{
+				return new Entries();
+			}
+		};
+	}
+
+	/**
+	 * iterates the occupied slots merged with the overflow entries, in
+	 * natural key order
+	 */
+	private class Entries implements Iterator<Map.Entry<String, Object>>
+	{
+		private final int[] sorted = schema.sorted;
+
+		private final String[] names = schema.names;
+
+		private int next = -1;
+
+		/** navigated by key, so removals do not invalidate this iterator */
+		private Map.Entry<String, Object> nextOverflow = overflow == null
+				? null : overflow.firstEntry();
+
+		private String last = null;
+
+		Entries()
+		{
+			advance();
+		}
+
+		private void advance()
+		{
+			do
+				this.next++;
+			while( this.next < this.sorted.length
+					&& (this.sorted[this.next] >= values.length
+							|| values[this.sorted[this.next]] == null) );
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return this.next < this.sorted.length || this.nextOverflow != null;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next()
+		{
+			if( !hasNext() ) throw new NoSuchElementException();
+			final Object value;
+			if( this.next >= this.sorted.length || (this.nextOverflow != null
+					&& this.nextOverflow.getKey().compareTo(
+							this.names[this.sorted[this.next]] ) < 0) )
+			{
+				this.last = this.nextOverflow.getKey();
+				value = this.nextOverflow.getValue();
+				this.nextOverflow = overflow == null ? null
+						: overflow.higherEntry( this.last );
+			} else
+			{
+				final int slot = this.sorted[this.next];
+				this.last = this.names[slot];
+				value = unmask( values[slot] );
+				advance();
+			}
+			return new SimpleEntry<String, Object>( this.last, value )
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Object setValue( final Object value )
+				{
+					super.setValue( value );
+					return put( getKey(), value );
+				}
+			};
+		}
+
+		@Override
+		public void remove()
+		{
+			if( this.last == null ) throw new IllegalStateException();
+			SlotMap.this.remove( this.last );
+			this.last = null;
+		}
+	}
+
+	@Override
+	public Comparator<? super String> comparator()
+	{
+		return null; // natural ordering
+	}
+
+	@Override
+	public String firstKey()
+	{
+		final Iterator<String> keys = keySet().iterator();
+		if( !keys.hasNext() ) throw new NoSuchElementException();
+		return keys.next();
+	}
+
+	@Override
+	public String lastKey()
+	{
+		String result = null;
+		for( String key : keySet() )
+			result = key;
+		if( result == null ) throw new NoSuchElementException();
+		return result;
+	}
+
+	@Override
+	public SortedMap<String, Object> subMap( final String fromKey,
+		final String toKey )
+	{
+		return new TreeMap<>( this ).subMap( fromKey, toKey );
+	}
+
+	@Override
+	public SortedMap<String, Object> headMap( final String toKey )
+	{
+		return new TreeMap<>( this ).headMap( toKey );
+	}
+
+	@Override
+	public SortedMap<String, Object> tailMap( final String fromKey )
+	{
+		return new TreeMap<>( this ).tailMap( fromKey );
+	}
+}
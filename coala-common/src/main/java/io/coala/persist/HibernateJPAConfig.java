@@ -88,6 +88,21 @@ public interface HibernateJPAConfig extends JPAConfig
 	@Key( AvailableSettings.FORMAT_SQL )
 	boolean hibernateFormatSQL();
 
+	/**
+	 * @return the number of statements per JDBC batch, e.g. matching the
+	 *         number of entities persisted per transaction, or {@code null}
+	 *         (default) to disable batching
+	 */
+	@Key( AvailableSettings.STATEMENT_BATCH_SIZE )
+	Integer hibernateJdbcBatchSize();
+
+	/**
+	 * @return whether to order inserts by entity type, improving batching, or
+	 *         {@code null} (default) to leave inserts unordered
+	 */
+	@Key( AvailableSettings.ORDER_INSERTS )
+	Boolean hibernateOrderInserts();
+
 	@Key( AvailableSettings.CONNECTION_PROVIDER )
 //	@DefaultValue( "org.hibernate.connection.C3P0ConnectionProvider" )
 //	@DefaultValue( "org.hibernate.hikaricp.internal.HikariCPConnectionProvider" )
@@ -3,18 +3,24 @@ package io.coala.util;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import javax.inject.Inject;
@@ -54,9 +60,7 @@ public class ReflectUtil implements Util
 		final Class<T> intfType, final Supplier<Map<String, Object>> properties,
 		final Observer<Method> callObserver )
 	{
-		return (T) Proxy.newProxyInstance( intfType.getClassLoader(),
-				new Class<?>[]
-		{ intfType }, ( proxy, method, args ) ->
+		final InvocationHandler handler = ( proxy, method, args ) ->
 		{
 			try
 			{
@@ -64,15 +68,16 @@ public class ReflectUtil implements Util
 				if( method.isDefault() )
 				{
 					// method is Java8 'default' declaration
-					result = invokeDefaultMethod( proxy, method, args );
+					result = cachedCall( method ).invoke( proxy, args );
 				} else if( method.getDeclaringClass().isInstance( impl ) )
 				{
 					// method declared in intfType and/or impl
-					result = method.invoke( impl, args );
+					result = cachedCall( method ).invoke( impl, args );
 				} else
 				{
 					// bean read(get)/write(set) method
-					result = invokeAsBean( properties.get(), intfType, method,
+					result = cachedBeanAccessor( intfType, method ).invoke(
+							properties.get(),
 							args == null || args.length == 0 ? null : args[0] );
 				}
 				if( callObserver != null ) callObserver.onNext( method );
@@ -88,6 +93,36 @@ public class ReflectUtil implements Util
 				if( callObserver != null ) callObserver.onError( e );
 				throw e;
 			}
+		};
+		try
+		{
+			return (T) cachedProxyConstructor( intfType ).newInstance( handler );
+		} catch( final Exception e )
+		{
+			return Thrower.rethrowUnchecked( e );
+		}
+	}
+
+	private static final Map<Class<?>, Constructor<?>> PROXY_CONSTRUCTOR_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * @param intfType the proxied interface
+	 * @return the (generated) {@link Proxy} class constructor, i.e. avoiding
+	 *         the proxy class lookup of {@link Proxy#newProxyInstance} per
+	 *         instance
+	 */
+	private static Constructor<?> cachedProxyConstructor( final Class<?> intfType )
+	{
+		return PROXY_CONSTRUCTOR_CACHE.computeIfAbsent( intfType, key ->
+		{
+			try
+			{
+				return Proxy.getProxyClass( key.getClassLoader(), key )
+						.getConstructor( InvocationHandler.class );
+			} catch( final Exception e )
+			{
+				return Thrower.rethrowUnchecked( e );
+			}
 		} );
 	}
 
@@ -155,7 +190,21 @@ public class ReflectUtil implements Util
 		}
 	}
 
-	private static final Map<Method, PropertyDescriptor> BEAN_INFO_CACHE = new HashMap<>();
+	/**
+	 * {@link BeanAccessor} reads or writes some bean property in a value store
+	 */
+	@FunctionalInterface
+	private interface BeanAccessor
+	{
+		/**
+		 * @param properties the value store
+		 * @param value the value to set, or {@code null} to remove
+		 * @return the current (get) or previous (set) value
+		 */
+		Object invoke( Map<String, Object> properties, Object value );
+	}
+
+	private static final Map<Class<?>, Map<Method, BeanAccessor>> BEAN_INFO_CACHE = new ConcurrentHashMap<>();
 
 	/**
 	 * match bean read method to bean property
@@ -169,47 +218,70 @@ public class ReflectUtil implements Util
 	public static Object invokeAsBean( final Map<String, Object> properties,
 		final Class<?> beanType, final Method method, final Object value )
 	{
-		final PropertyDescriptor prop = BEAN_INFO_CACHE.computeIfAbsent( method,
-				key ->
-				{
-					try
-					{
-						for( PropertyDescriptor pd : Introspector
-								.getBeanInfo( beanType )
-								.getPropertyDescriptors() )
-							if( method.equals( pd.getReadMethod() )
-									|| method.equals( pd.getWriteMethod() ) )
-								return pd;
-
-						// see http://stackoverflow.com/q/185004/1418999
-						for( Class<?> intf : beanType.getInterfaces() )
-							for( PropertyDescriptor pd : Introspector
-									.getBeanInfo( intf )
-									.getPropertyDescriptors() )
-								if( method.equals( pd.getReadMethod() )
-										|| method
-												.equals( pd.getWriteMethod() ) )
-									return pd;
-						return null;
-					} catch( final IntrospectionException e )
-					{
-						return Thrower.rethrowUnchecked( e );
-					}
-				} );
-		if( prop == null )
-			return Thrower.throwNew( IllegalArgumentException::new,
-					() -> "Not a bean write(set)/read(get)-method"
-							+ ", or undeclared in (interfaces of) " + beanType
-							+ ": " + method );
-
-		if( method.equals( prop.getReadMethod() ) ) return Objects
-				.requireNonNull( properties.get( prop.getName() ), "Missing "
-						+ prop.getName() + " in this " + beanType.getName() );
-
-		// some stores can't accept null-values, so remove them
-		if( value == null ) return properties.remove( prop.getName() );
-
-		return properties.put( prop.getName(), value );
+		return cachedBeanAccessor( beanType, method ).invoke( properties,
+				value );
+	}
+
+	/**
+	 * @param beanType the concrete bean type
+	 * @param method the read(get)/write(set)-method
+	 * @return the {@link BeanAccessor}, introspected only once per bean type
+	 *         and method
+	 */
+	private static BeanAccessor cachedBeanAccessor( final Class<?> beanType,
+		final Method method )
+	{
+		final Map<Method, BeanAccessor> accessors = BEAN_INFO_CACHE
+				.computeIfAbsent( beanType, key -> new ConcurrentHashMap<>() );
+		final BeanAccessor cached = accessors.get( method );
+		if( cached != null ) return cached;
+		return accessors.computeIfAbsent( method, key ->
+		{
+			final PropertyDescriptor prop = propertyOf( beanType, method );
+			if( prop == null )
+				return Thrower.throwNew( IllegalArgumentException::new,
+						() -> "Not a bean write(set)/read(get)-method"
+								+ ", or undeclared in (interfaces of) "
+								+ beanType + ": " + method );
+
+			final String name = prop.getName();
+			if( method.equals( prop.getReadMethod() ) )
+			{
+				final String missing = "Missing " + name + " in this "
+						+ beanType.getName();
+				return ( properties, value ) -> Objects
+						.requireNonNull( properties.get( name ), missing );
+			}
+
+			// some stores can't accept null-values, so remove them
+			return ( properties, value ) -> value == null
+					? properties.remove( name ) : properties.put( name, value );
+		} );
+	}
+
+	private static PropertyDescriptor propertyOf( final Class<?> beanType,
+		final Method method )
+	{
+		try
+		{
+			for( PropertyDescriptor pd : Introspector.getBeanInfo( beanType )
+					.getPropertyDescriptors() )
+				if( method.equals( pd.getReadMethod() )
+						|| method.equals( pd.getWriteMethod() ) )
+					return pd;
+
+			// see http://stackoverflow.com/q/185004/1418999
+			for( Class<?> intf : beanType.getInterfaces() )
+				for( PropertyDescriptor pd : Introspector.getBeanInfo( intf )
+						.getPropertyDescriptors() )
+					if( method.equals( pd.getReadMethod() )
+							|| method.equals( pd.getWriteMethod() ) )
+						return pd;
+			return null;
+		} catch( final IntrospectionException e )
+		{
+			return Thrower.rethrowUnchecked( e );
+		}
 	}
 
 	/**
@@ -232,8 +304,149 @@ public class ReflectUtil implements Util
 	public static Object invokeDefaultMethod( final Object proxy,
 		final Method method, final Object[] args ) throws Throwable
 	{
-		return cachedMethodHandle( method ).bindTo( proxy )
-				.invokeWithArguments( args );
+		return cachedCall( method ).invoke( proxy, args );
+	}
+
+	/**
+	 * {@link Call} directly invokes some (default) method on its target
+	 */
+	@FunctionalInterface
+	private interface Call
+	{
+		/**
+		 * @param target the instance to invoke on, e.g. some proxy
+		 * @param args the arguments, or {@code null} if none
+		 * @return the result, or {@code null} if {@code void}
+		 * @throws Throwable as thrown by the invoked method, unwrapped
+		 */
+		Object invoke( Object target, Object[] args ) throws Throwable;
+	}
+
+	private static final Object[] NO_ARGS = {};
+
+	private static final Map<Method, Call> CALL_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * @param method the (raw) {@link Method} declaration, invoked as
+	 *            {@code super} call if {@link Method#isDefault() default}
+	 * @return a {@link Call} generated once per method
+	 */
+	private static Call cachedCall( final Method method )
+	{
+		final Call cached = CALL_CACHE.get( method );
+		if( cached != null ) return cached;
+		return CALL_CACHE.computeIfAbsent( method, ReflectUtil::generateCall );
+	}
+
+	/**
+	 * Methods of up to one parameter are linked by the
+	 * {@link LambdaMetafactory} into a generated {@link Function},
+	 * {@link BiFunction}, {@link Consumer} or {@link BiConsumer} class that
+	 * calls the method directly (i.e. {@code invokespecial} for default
+	 * methods), so the JIT may inline it like any other lambda. Other methods
+	 * fall back to a {@link MethodHandle} of type
+	 * {@code (Object,Object[])Object}, invoked exactly
+	 * 
+	 * @param method the (raw) {@link Method} declaration
+	 * @return the generated {@link Call}
+	 */
+	private static Call generateCall( final Method method )
+	{
+		final MethodHandle target = method.isDefault()
+				? cachedMethodHandle( method ) : unreflect( method );
+		final boolean isVoid = method.getReturnType() == void.class;
+		try
+		{
+			switch( method.getParameterCount() )
+			{
+			case 0:
+				if( isVoid )
+				{
+					final Consumer<Object> call = metafactory( method,
+							Consumer.class, "accept", target );
+					return ( self, args ) ->
+					{
+						call.accept( self );
+						return null;
+					};
+				}
+				final Function<Object, Object> get = metafactory( method,
+						Function.class, "apply", target );
+				return ( self, args ) -> get.apply( self );
+			case 1:
+				if( isVoid )
+				{
+					final BiConsumer<Object, Object> call = metafactory(
+							method, BiConsumer.class, "accept", target );
+					return ( self, args ) ->
+					{
+						call.accept( self, args[0] );
+						return null;
+					};
+				}
+				final BiFunction<Object, Object, Object> apply = metafactory(
+						method, BiFunction.class, "apply", target );
+				return ( self, args ) -> apply.apply( self, args[0] );
+			default:
+				// fall through
+			}
+		} catch( final Throwable e )
+		{
+			// e.g. declared in some bootstrap class, fall back to spreader
+		}
+		final int n = method.getParameterCount();
+		final MethodHandle spreader = target.asFixedArity()
+				.asType( MethodType.genericMethodType( n + 1 ) )
+				.asSpreader( Object[].class, n );
+		return ( self, args ) ->
+		{
+			// javac types conditional polymorphic args as Object, so assign
+			final Object[] spread = args == null ? NO_ARGS : args;
+			return (Object) spreader.invokeExact( self, spread );
+		};
+	}
+
+	/**
+	 * @param method the (raw) {@link Method} declaration
+	 * @param samType the functional interface to implement
+	 * @param samName the functional interface method name
+	 * @param target the {@link MethodHandle} to call directly
+	 * @return the generated instance of the functional interface
+	 * @throws Throwable e.g. a {@link LambdaConversionException}
+	 */
+	@SuppressWarnings( "unchecked" )
+	private static <T> T metafactory( final Method method,
+		final Class<?> samType, final String samName,
+		final MethodHandle target ) throws Throwable
+	{
+		final boolean isVoid = method.getReturnType() == void.class;
+		final int n = target.type().parameterCount();
+		final MethodType samMethodType = isVoid
+				? MethodType.genericMethodType( n ).changeReturnType( void.class )
+				: MethodType.genericMethodType( n );
+		final MethodType instantiatedType = isVoid
+				? target.type().wrap().changeReturnType( void.class )
+				: target.type().wrap();
+		return (T) LambdaMetafactory.metafactory(
+				cachedLookupInstance( method.getDeclaringClass() ), samName,
+				MethodType.methodType( samType ), samMethodType, target,
+				instantiatedType ).getTarget().invoke();
+	}
+
+	/**
+	 * @param method the (raw) {@link Method} declaration
+	 * @return the (virtual) {@link MethodHandle} for direct execution
+	 */
+	private static MethodHandle unreflect( final Method method )
+	{
+		try
+		{
+			return cachedLookupInstance( method.getDeclaringClass() )
+					.unreflect( method );
+		} catch( final Throwable e )
+		{
+			return Thrower.rethrowUnchecked( e );
+		}
 	}
 
 	private static final Map<Method, MethodHandle> UNREFLECT_CACHE = new ConcurrentHashMap<>();
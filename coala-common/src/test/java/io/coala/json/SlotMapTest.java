@@ -0,0 +1,99 @@
+package io.coala.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+
+/**
+ * {@link SlotMapTest} tests {@link SlotMap} against a {@link TreeMap}
+ * 
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class SlotMapTest
+{
+
+	/** */
+	private static final Logger LOG = LogUtil.getLogger( SlotMapTest.class );
+
+	@Test
+	public void testTreeMapEquivalence()
+	{
+		final SlotMap map = new SlotMap( SlotMapTest.class );
+		final Map<String, Object> expected = new TreeMap<>();
+		for( String key : new String[] { "k3", "k1", "k2", "k0" } )
+		{
+			map.put( key, key.toUpperCase() );
+			expected.put( key, key.toUpperCase() );
+		}
+		map.put( "k2", null );
+		expected.put( "k2", null );
+		assertThat( "remove", map.remove( "k1" ), equalTo( "K1" ) );
+		expected.remove( "k1" );
+		LOG.trace( "map: {}, expected: {}", map, expected );
+		assertThat( "equal", map, equalTo( expected ) );
+		assertThat( "order", map.keySet().toString(),
+				equalTo( expected.keySet().toString() ) );
+		assertThat( "null value", map.containsKey( "k2" ), equalTo( true ) );
+		assertThat( "first", map.firstKey(), equalTo( "k0" ) );
+		assertThat( "last", map.lastKey(), equalTo( "k3" ) );
+
+		// shares schema, so slots exist but are empty
+		final SlotMap other = new SlotMap( SlotMapTest.class );
+		assertThat( "empty", other.isEmpty(), equalTo( true ) );
+		assertThat( "absent", other.containsKey( "k3" ), equalTo( false ) );
+
+		final Iterator<String> keys = map.keySet().iterator();
+		keys.next();
+		keys.remove();
+		assertThat( "removed", map.containsKey( "k0" ), equalTo( false ) );
+		assertThat( "size", map.size(), equalTo( 2 ) );
+	}
+
+	@Test
+	public void testOverflow()
+	{
+		final SlotMap.Schema schema = new SlotMap.Schema( 2 );
+		final SlotMap map = new SlotMap( schema );
+		final Map<String, Object> expected = new TreeMap<>();
+		for( String key : new String[] { "k3", "k1", "k4", "k0", "k2" } )
+		{
+			map.put( key, key.toUpperCase() );
+			expected.put( key, key.toUpperCase() );
+		}
+		map.put( "k0", null );
+		expected.put( "k0", null );
+		LOG.trace( "map: {}, expected: {}", map, expected );
+		assertThat( "capped", schema.size(), equalTo( 2 ) );
+		assertThat( "equal", map, equalTo( expected ) );
+		assertThat( "order", map.keySet().toString(),
+				equalTo( expected.keySet().toString() ) );
+		assertThat( "null value", map.containsKey( "k0" ), equalTo( true ) );
+		assertThat( "first", map.firstKey(), equalTo( "k0" ) );
+		assertThat( "last", map.lastKey(), equalTo( "k4" ) );
+
+		// write through entries, both slots and overflow
+		for( Map.Entry<String, Object> entry : map.entrySet() )
+			entry.setValue( entry.getKey() );
+		expected.replaceAll( ( key, value ) -> key );
+		assertThat( "set", map, equalTo( expected ) );
+
+		// remove while iterating, both slots and overflow
+		final Iterator<String> keys = map.keySet().iterator();
+		while( keys.hasNext() )
+			if( !keys.next().equals( "k2" ) ) keys.remove();
+		assertThat( "removed", map, equalTo( Collections
+				.<String, Object>singletonMap( "k2", "k2" ) ) );
+		assertThat( "removed", map.remove( "k2" ), equalTo( "k2" ) );
+		assertThat( "empty", map.isEmpty(), equalTo( true ) );
+	}
+}
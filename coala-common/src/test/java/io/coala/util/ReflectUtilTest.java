@@ -0,0 +1,201 @@
+package io.coala.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import io.coala.log.LogUtil;
+import io.reactivex.Observer;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * {@link ReflectUtilTest} tests {@link ReflectUtil#createProxyInstance}
+ * dispatch to default methods, implementation methods and bean properties
+ *
+ * @version $Id$
+ * @author Rick van Krevelen
+ */
+public class ReflectUtilTest
+{
+	/** */
+	private static final Logger LOG = LogUtil
+			.getLogger( ReflectUtilTest.class );
+
+	public interface Named
+	{
+		String name();
+
+		void rename( String name );
+
+		default String greet()
+		{
+			return "hi " + name();
+		}
+
+		default String greet( final String other )
+		{
+			return "hi " + other + ", I'm " + name();
+		}
+
+		default String greet( final String other, final int times )
+		{
+			final StringBuilder result = new StringBuilder();
+			for( int i = 0; i < times; i++ )
+				result.append( greet( other ) );
+			return result.toString();
+		}
+
+		default int length()
+		{
+			return name().length();
+		}
+
+		default void shout()
+		{
+			rename( name().toUpperCase() );
+		}
+
+		default void fail( final String message )
+		{
+			throw new IllegalStateException( message );
+		}
+	}
+
+	public interface Priced
+	{
+		Integer getPrice();
+
+		void setPrice( Integer price );
+	}
+
+	public interface Sale extends Named, Priced
+	{
+		// empty
+	}
+
+	public interface Purchase extends Named, Priced
+	{
+		// empty
+	}
+
+	public static class Impl implements Named
+	{
+		String name = "bob";
+
+		@Override
+		public String name()
+		{
+			return this.name;
+		}
+
+		@Override
+		public void rename( final String name )
+		{
+			if( name == null ) throw new IllegalArgumentException( "null" );
+			this.name = name;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Impl[" + this.name + "]";
+		}
+	}
+
+	private static <T> T proxy( final Impl impl, final Class<T> type,
+		final Map<String, Object> properties, final Observer<Method> calls )
+	{
+		return ReflectUtil.createProxyInstance( impl, type, () -> properties,
+				calls );
+	}
+
+	@Test
+	public void testDefaultMethods()
+	{
+		LOG.info( "Testing default method dispatch" );
+		final Impl impl = new Impl();
+		final List<Method> calls = new ArrayList<>();
+		final Subject<Method> observer = PublishSubject.create();
+		observer.subscribe( calls::add, e -> LOG.trace( "Failed", e ) );
+		final Sale sale = proxy( impl, Sale.class, new HashMap<>(), observer );
+		assertThat( "arity 0", sale.greet(), equalTo( "hi bob" ) );
+		assertThat( "arity 1", sale.greet( "al" ),
+				equalTo( "hi al, I'm bob" ) );
+		assertThat( "arity 2 (spreader)", sale.greet( "al", 2 ),
+				equalTo( "hi al, I'm bobhi al, I'm bob" ) );
+		assertThat( "primitive", sale.length(), equalTo( 3 ) );
+		sale.shout();
+		assertThat( "void", impl.name, equalTo( "BOB" ) );
+		assertThat( "observed", calls.size(), not( equalTo( 0 ) ) );
+		try
+		{
+			sale.fail( "oops" );
+			throw new AssertionError( "should fail" );
+		} catch( final IllegalStateException e )
+		{
+			assertThat( "unwrapped", e.getMessage(), equalTo( "oops" ) );
+		}
+	}
+
+	@Test
+	public void testImplMethods()
+	{
+		LOG.info( "Testing implementation method dispatch" );
+		final Impl impl = new Impl();
+		final Sale sale = proxy( impl, Sale.class, new HashMap<>(), null );
+		sale.rename( "al" );
+		assertThat( "arity 1", impl.name, equalTo( "al" ) );
+		assertThat( "arity 0", sale.name(), equalTo( "al" ) );
+		assertThat( "Object", sale.toString(), equalTo( "Impl[al]" ) );
+		try
+		{
+			sale.rename( null );
+			throw new AssertionError( "should fail" );
+		} catch( final IllegalArgumentException e )
+		{
+			assertThat( "unwrapped", e.getMessage(), equalTo( "null" ) );
+		}
+	}
+
+	@Test
+	public void testBeanProperties()
+	{
+		LOG.info( "Testing bean property dispatch per bean type" );
+		final Map<String, Object> properties = new HashMap<>();
+		final Sale sale = proxy( new Impl(), Sale.class, properties, null );
+		sale.setPrice( 3 );
+		assertThat( "set", properties.get( "price" ), equalTo( 3 ) );
+		assertThat( "get", sale.getPrice(), equalTo( 3 ) );
+		sale.setPrice( null );
+		assertThat( "removed", properties.containsKey( "price" ),
+				equalTo( false ) );
+
+		// same (inherited) read method, reported per proxied bean type
+		final Purchase purchase = proxy( new Impl(), Purchase.class,
+				new HashMap<>(), null );
+		for( Priced bean : new Priced[] { sale, purchase } )
+			try
+			{
+				bean.getPrice();
+				throw new AssertionError( "should fail" );
+			} catch( final NullPointerException e )
+			{
+				LOG.trace( "Missing price: {}", e.getMessage() );
+				final Class<?> type = bean == sale ? Sale.class
+						: Purchase.class;
+				assertThat( "bean type", e.getMessage(),
+						containsString( type.getName() ) );
+			}
+	}
+}